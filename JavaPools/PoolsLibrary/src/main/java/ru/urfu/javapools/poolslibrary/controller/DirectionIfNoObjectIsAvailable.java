@@ -1,12 +1,17 @@
 package ru.urfu.javapools.poolslibrary.controller;
 
+import java.util.concurrent.TimeUnit;
+
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
 
 public class DirectionIfNoObjectIsAvailable<TK,TV> {
 	
 	private int _attemptsNumber;
 	private int _oneIntervalBetweenAttemptsInSeconds;
+	private long _waitingTimeout;
+	private TimeUnit _waitingTimeoutUnit;
 	private FunctionThatMayThrow<TK,TV> _createMethod;
+	private ObjectCreationPolicy _creationPolicy;
 	
 	public int getAttemptsNumber() {
 		return _attemptsNumber;
@@ -16,22 +21,57 @@ public class DirectionIfNoObjectIsAvailable<TK,TV> {
 		return _oneIntervalBetweenAttemptsInSeconds;
 	}
 	
+	public long getWaitingTimeout() {
+		return _waitingTimeout;
+	}
+	
+	public TimeUnit getWaitingTimeoutUnit() {
+		return _waitingTimeoutUnit;
+	}
+	
+	public boolean getIsWaitingTimeoutSpecified() {
+		return _waitingTimeoutUnit != null;
+	}
+	
 	public FunctionThatMayThrow<TK, TV> getCreateMethod() {
 		return _createMethod;
 	}
 	
+	public ObjectCreationPolicy getCreationPolicy() {
+		return _creationPolicy;
+	}
+	
+	/**
+	 * @deprecated sleep-polling between attempts; use {@link #setWaitingTimeout(long, TimeUnit)}
+	 */
+	@Deprecated
 	public DirectionIfNoObjectIsAvailable<TK,TV> setAttemptsNumber(int attemptsNumber) {
 		_attemptsNumber = attemptsNumber;
 		return this;
 	}
 	
+	/**
+	 * @deprecated sleep-polling between attempts; use {@link #setWaitingTimeout(long, TimeUnit)}
+	 */
+	@Deprecated
 	public DirectionIfNoObjectIsAvailable<TK,TV> setOneIntervalBetweenAttemptsInSeconds(int oneIntervalBetweenAttemptsInSeconds) {
 		_oneIntervalBetweenAttemptsInSeconds = oneIntervalBetweenAttemptsInSeconds;
 		return this;
 	}
 	
+	public DirectionIfNoObjectIsAvailable<TK,TV> setWaitingTimeout(long waitingTimeout, TimeUnit waitingTimeoutUnit) {
+		_waitingTimeout = waitingTimeout;
+		_waitingTimeoutUnit = waitingTimeoutUnit;
+		return this;
+	}
+	
 	public DirectionIfNoObjectIsAvailable<TK,TV> setCreateMethod(FunctionThatMayThrow<TK, TV> createMethod) {
 		_createMethod = createMethod;
 		return this;
-	}	
+	}
+
+	public DirectionIfNoObjectIsAvailable<TK,TV> setCreationPolicy(ObjectCreationPolicy creationPolicy) {
+		_creationPolicy = creationPolicy;
+		return this;
+	}
 }
\ No newline at end of file
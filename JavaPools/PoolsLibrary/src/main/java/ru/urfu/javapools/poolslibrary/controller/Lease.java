@@ -0,0 +1,53 @@
+package ru.urfu.javapools.poolslibrary.controller;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ru.urfu.javapools.poolslibrary.pool.IPool;
+
+// obtained object bound to its key: closing releases it without the controller's object-to-key lookup
+// and declines double release by itself. Releasing still passes through the whole pool chain,
+// so the pool's own bookkeeping (item lookup, marking object as available) is done as for any release.
+// Leased object isn't put to the controller's index, so it's released only by closing its lease:
+// controller's release and key lookup treat it as a stranger
+public class Lease<TK,TV> implements AutoCloseable {
+
+	private final TK _key;
+	private final TV _object;
+	private final IPool<TK,TV> _pool;
+
+	private final AtomicBoolean _isReleased = new AtomicBoolean();
+
+	private static final String _MESSAGE_ALREADY_RELEASED = "Lease has already been closed, its object was released";
+
+	public Lease(TK key, TV object, IPool<TK,TV> pool) {
+		_key = key;
+		_object = object;
+		_pool = pool;
+	}
+
+	public TK getKey() {
+		return _key;
+	}
+
+	public TV getObject() {
+		return _object;
+	}
+
+	public boolean getIsReleased() {
+		return _isReleased.get();
+	}
+
+	@Override
+	public void close() throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		if (!_isReleased.compareAndSet(false, true))
+			throw new InvalidPoolOperationException(_key, _object, _MESSAGE_ALREADY_RELEASED);
+
+		try {
+			_pool.release(_key, _object);
+		} catch (PoolObjectReleasingInterruptedException e) {
+			_isReleased.set(false);
+			throw e;
+		}
+	}
+}
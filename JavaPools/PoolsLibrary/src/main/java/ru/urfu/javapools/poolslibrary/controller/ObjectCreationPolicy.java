@@ -0,0 +1,185 @@
+package ru.urfu.javapools.poolslibrary.controller;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+
+public class ObjectCreationPolicy {
+
+	private long _attemptTimeout;
+	private TimeUnit _attemptTimeoutUnit;
+	private int _maxAttemptsCount = 1;
+	private long _initialBackoffInMillis = 50;
+	private long _maxBackoffInMillis = 5000;
+	private ExecutorService _creatingExecutor;
+
+	public long getAttemptTimeout() {
+		return _attemptTimeout;
+	}
+
+	public TimeUnit getAttemptTimeoutUnit() {
+		return _attemptTimeoutUnit;
+	}
+
+	public boolean getIsAttemptTimeoutSpecified() {
+		return _attemptTimeoutUnit != null;
+	}
+
+	public int getMaxAttemptsCount() {
+		return _maxAttemptsCount;
+	}
+
+	public long getInitialBackoffInMillis() {
+		return _initialBackoffInMillis;
+	}
+
+	public long getMaxBackoffInMillis() {
+		return _maxBackoffInMillis;
+	}
+
+	public ExecutorService getCreatingExecutor() {
+		return _creatingExecutor != null ? _creatingExecutor : SharedCreatingExecutor._INSTANCE;
+	}
+
+	public ObjectCreationPolicy setAttemptTimeout(long attemptTimeout, TimeUnit attemptTimeoutUnit) {
+		_attemptTimeout = attemptTimeout;
+		_attemptTimeoutUnit = attemptTimeoutUnit;
+		return this;
+	}
+
+	public ObjectCreationPolicy setMaxAttemptsCount(int maxAttemptsCount) {
+		_maxAttemptsCount = maxAttemptsCount;
+		return this;
+	}
+
+	public ObjectCreationPolicy setBackoffInMillis(long initialBackoffInMillis, long maxBackoffInMillis) {
+		_initialBackoffInMillis = initialBackoffInMillis;
+		_maxBackoffInMillis = maxBackoffInMillis;
+		return this;
+	}
+
+	public ObjectCreationPolicy setCreatingExecutor(ExecutorService creatingExecutor) {
+		_creatingExecutor = creatingExecutor;
+		return this;
+	}
+
+	public <TK,TV> FunctionThatMayThrow<TK,TV> applyTo(FunctionThatMayThrow<TK,TV> createDelegate) {
+
+		if (createDelegate == null || _maxAttemptsCount <= 1 && !getIsAttemptTimeoutSpecified())
+			return createDelegate;
+
+		return key -> createRetrying(createDelegate, key);
+	}
+
+	private <TK,TV> TV createRetrying(FunctionThatMayThrow<TK,TV> createDelegate, TK key) throws Exception {
+
+		Exception lastFailure = null;
+		for (int attemptNumber = 1; attemptNumber <= Math.max(_maxAttemptsCount, 1); attemptNumber++) {
+			if (attemptNumber > 1)
+				Thread.sleep(getFullJitterBackoffInMillis(attemptNumber - 1));
+
+			try {
+				return getIsAttemptTimeoutSpecified() ? createInExecutor(createDelegate, key) : createDelegate.apply(key);
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				lastFailure = e;
+			}
+		}
+
+		throw lastFailure;
+	}
+
+	private <TK,TV> TV createInExecutor(FunctionThatMayThrow<TK,TV> createDelegate, TK key) throws Exception {
+
+		// whoever flips the flag first decides the object's fate: caller takes it, or the late creator closes it
+		AtomicBoolean isDecided = new AtomicBoolean();
+		Future<TV> creation = getCreatingExecutor().submit(() -> {
+			TV created = createDelegate.apply(key);
+			if (!isDecided.compareAndSet(false, true))
+				closeAbandoned(created);
+			return created;
+		});
+
+		try {
+			return creation.get(_attemptTimeout, _attemptTimeoutUnit);
+		} catch (TimeoutException e) {
+			if (!isDecided.compareAndSet(false, true))
+				return getCompleted(creation);
+			creation.cancel(true);
+			throw e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			if (!isDecided.compareAndSet(false, true))
+				return getCompleted(creation);
+			creation.cancel(true);
+			throw e;
+		} catch (ExecutionException e) {
+			throw asException(e.getCause());
+		}
+	}
+
+	private <TV> TV getCompleted(Future<TV> creation) throws Exception {
+
+		boolean wasInterrupted = Thread.interrupted();
+		try {
+			return creation.get();
+		} catch (ExecutionException e) {
+			throw asException(e.getCause());
+		} finally {
+			if (wasInterrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private long getFullJitterBackoffInMillis(int retryNumber) {
+
+		long exponentialBackoff = _initialBackoffInMillis << Math.min(retryNumber - 1, 30);
+		long cappedBackoff = Math.min(_maxBackoffInMillis, exponentialBackoff < 0 ? Long.MAX_VALUE : exponentialBackoff);
+		return cappedBackoff <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cappedBackoff + 1);
+	}
+
+	private static void closeAbandoned(Object abandoned) {
+
+		if (abandoned instanceof AutoCloseable)
+			try {
+				((AutoCloseable) abandoned).close();
+			} catch (Exception e) {}
+	}
+
+	private static Exception asException(Throwable cause) {
+
+		if (cause instanceof Error)
+			throw (Error) cause;
+		return (Exception) cause;
+	}
+
+	private static class SharedCreatingExecutor {
+
+		private static final int _THREADS_COUNT = Runtime.getRuntime().availableProcessors() * 2;
+		private static final int _QUEUE_CAPACITY = 1024;
+
+		private static final ExecutorService _INSTANCE = createInstance();
+
+		private static ExecutorService createInstance() {
+
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(_THREADS_COUNT, _THREADS_COUNT, 30, TimeUnit.SECONDS,
+																 new ArrayBlockingQueue<Runnable>(_QUEUE_CAPACITY),
+																 runnable -> {
+																	 Thread thread = new Thread(runnable, "pool-objects-creator");
+																	 thread.setDaemon(true);
+																	 return thread;
+																 });
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+	}
+}
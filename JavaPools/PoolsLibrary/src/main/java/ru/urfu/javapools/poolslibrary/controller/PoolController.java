@@ -1,10 +1,21 @@
 package ru.urfu.javapools.poolslibrary.controller;
 
-import java.util.WeakHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
-import ru.urfu.javapools.poolslibrary.locks.NotReentrantReadWriteLock;
+import ru.urfu.javapools.poolslibrary.lang.ObtainingFutures;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectCreationRejectedException;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
 
@@ -12,41 +23,195 @@ public class PoolController<TK,TV> implements AutoCloseable {
 	
 	private final IPool<TK,TV> _pool;
 	
-	private final WeakHashMap<TV,TK> _obtainedObjectToItsKey = new WeakHashMap<TV,TK>();	
-	private NotReentrantReadWriteLock _obtainedObjectToKeyLock = new NotReentrantReadWriteLock();		
+	private final Map<TV,TK> _obtainedObjectToItsKey;
+	private volatile ObjectCreationPolicy _defaultCreationPolicy;
 
 	private final static String _MESSAGE_PATTERN_OBTAINING_FAILED = "Something failed during attempt #%s of obtaining" +
 																	" object with key='%s'. Look at cause for details";
-	private final static String _MESSAGE_PATTERN_OBTAINING_INTERRUPTED = "Controller obtained object with key='%s'," +
-																		 " but user thread was interrupted during finishing obtaining" +
-																		 " - controller has released object";
+	private final static String _MESSAGE_PATTERN_WAITING_FAILED = "Something failed during waiting for object" +
+																 " with key='%s'. Look at cause for details";
+	private final static String _MESSAGE_PATTERN_BATCH_OBTAINING_FAILED = "Something failed during obtaining %s objects" +
+																		  " with key='%s'. Look at cause for details";
 	private final static String _MESSAGE_RELEASING_OF_STRANGER = "Only obtained objects are allowed to be released";
 	
 	public PoolController(IPool<TK,TV> pool) {
+		this(pool, ObjectsTrackingMode.BY_EQUALITY);
+	}
+
+	public PoolController(IPool<TK,TV> pool, ObjectsTrackingMode trackingMode) {
 		_pool = pool;
+		_obtainedObjectToItsKey = trackingMode.createWeakMap();
 	}
 	
 	public TV obtain (TK key, DirectionIfNoObjectIsAvailable<TK, TV> noObjectDirection)
 		throws PoolException {
+
+		TV obtained = obtainFromPool(key, noObjectDirection);
+		rememberObtainedObject(key, obtained);
+		return obtained;
+	}
+
+	// leased object isn't remembered, it's released only by closing the lease
+	public Lease<TK,TV> obtainLease (TK key, DirectionIfNoObjectIsAvailable<TK, TV> noObjectDirection)
+		throws PoolException {
+
+		return new Lease<TK,TV>(key, obtainFromPool(key, noObjectDirection), _pool);
+	}
+	
+	public TV obtain (TK key, long timeout, TimeUnit unit) throws PoolException {
+		return obtain(key, new DirectionIfNoObjectIsAvailable<TK,TV>().setWaitingTimeout(timeout, unit));
+	}
+	
+	public List<TV> obtainMany (TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createMethod)
+		throws PoolException {
+
+		List<TV> obtained;
+
+		try {
+			obtained = _pool.obtainMany(key, count, mode, withCreationPolicy(createMethod, null));
+		} catch (NoAvailableObjectException | ObjectsMaxCountReachedException | ObjectCreationRejectedException
+				 | PoolObjectObtainingInterruptedException e) {
+			throw e;
+		} catch (PoolException e) {
+			String message = String.format(_MESSAGE_PATTERN_BATCH_OBTAINING_FAILED, count, key);
+			throw new PoolException(key, message, e);
+		}
+
+		rememberObtainedObjects(key, obtained);
+		return obtained;
+	}
+	
+	public CompletableFuture<TV> obtainAsync (TK key, FunctionThatMayThrow<TK, TV> createMethod) {
+		
+		return ObtainingFutures.thenApplyKeepingCancellation(_pool.obtainAsync(key, withCreationPolicy(createMethod, null)),
+															 obtained -> {
+																 rememberObtainedObject(key, obtained);
+																 return obtained;
+															 },
+															 obtained -> releaseQuietly(key, obtained));
+	}
+	
+	public <TR> CompletableFuture<TR> obtainAsync (TK key, FunctionThatMayThrow<TK, TV> createMethod,
+												   Function<TV, ? extends CompletionStage<TR>> usage) {
+		
+		CompletableFuture<TV> obtaining = obtainAsync(key, createMethod);
+		CompletableFuture<TR> result = new CompletableFuture<TR>();
+		
+		obtaining.whenComplete((obtained, e) -> {
+			if (e != null) {
+				result.completeExceptionally(e);
+				return;
+			}
+			if (result.isDone()) {
+				releaseQuietly(key, obtained);
+				return;
+			}
+			
+			CompletionStage<TR> usageStage;
+			try {
+				usageStage = usage.apply(obtained);
+			} catch (RuntimeException ee) {
+				releaseQuietly(key, obtained);
+				result.completeExceptionally(ee);
+				return;
+			}
+			
+			usageStage.whenComplete((usageResult, ee) -> {
+				try {
+					_pool.release(key, obtained);
+				} catch (PoolException releasingException) {
+					if (ee == null)
+						ee = releasingException;
+				}
+				
+				if (ee != null)
+					result.completeExceptionally(ee);
+				else
+					result.complete(usageResult);
+			});
+		});
+		
+		result.whenComplete((usageResult, e) -> {
+			if (result.isCancelled())
+				obtaining.cancel(false);
+		});
+		
+		return result;
+	}
+	
+	public void release(TV objectToRelease) throws PoolException {
 		
-		TV toReturn = null;
+		TK key = findKeyByObject(objectToRelease);
+		if (key == null)
+			throw new InvalidPoolOperationException(null, objectToRelease, _MESSAGE_RELEASING_OF_STRANGER);
+			
+		_pool.release(key, objectToRelease);
+	}
+	
+	public void releaseAll(Collection<TV> objectsToRelease) throws PoolException {
+
+		Map<TK, List<TV>> keyToObjects = new LinkedHashMap<TK, List<TV>>();
+		for (TV objectToRelease : objectsToRelease) {
+			TK key = _obtainedObjectToItsKey.get(objectToRelease);
+			if (key == null)
+				throw new InvalidPoolOperationException(null, objectToRelease, _MESSAGE_RELEASING_OF_STRANGER);
+			keyToObjects.computeIfAbsent(key, k -> new ArrayList<TV>()).add(objectToRelease);
+		}
+
+		for (Map.Entry<TK, List<TV>> keyAndObjects : keyToObjects.entrySet())
+			_pool.releaseAll(keyAndObjects.getKey(), keyAndObjects.getValue());
+	}
+	
+	@Override
+	public void close() throws Exception {
+		_pool.close();
+	}
+	
+	/**
+	 * @deprecated the index isn't locked any more, so it's never interrupted; use {@link #findKeyByObject(Object)}
+	 */
+	@Deprecated
+	public TK getKeyByObject(TV obtainedObject) throws InterruptedException {
+		return findKeyByObject(obtainedObject);
+	}
+
+	public TK findKeyByObject(TV obtainedObject) {
+		return _obtainedObjectToItsKey.get(obtainedObject);
+	}
+
+	public ObjectCreationPolicy getDefaultCreationPolicy() {
+		return _defaultCreationPolicy;
+	}
+
+	public PoolController<TK,TV> setDefaultCreationPolicy(ObjectCreationPolicy defaultCreationPolicy) {
+		_defaultCreationPolicy = defaultCreationPolicy;
+		return this;
+	}
+	
+	private TV obtainFromPool(TK key, DirectionIfNoObjectIsAvailable<TK, TV> noObjectDirection) throws PoolException {
 		
+		// no direction means a single attempt without creation
+		int attemptsNumber = noObjectDirection != null ? noObjectDirection.getAttemptsNumber() : 1;
 		if (noObjectDirection == null)
-			noObjectDirection = new DirectionIfNoObjectIsAvailable<TK,TV>().setAttemptsNumber(1); 
+			noObjectDirection = new DirectionIfNoObjectIsAvailable<TK,TV>();
+		
+		if (noObjectDirection.getIsWaitingTimeoutSpecified())
+			return obtainWaiting(key, noObjectDirection);
 		
 		int curAttemptNumber = 0;
-		while (curAttemptNumber++ < noObjectDirection.getAttemptsNumber()) {	
+		while (curAttemptNumber++ < attemptsNumber) {	
 		
 			if (curAttemptNumber > 1)
 				waitSafely(noObjectDirection.getOneIntervalBetweenAttemptsInSeconds(), key);			
 			
-			boolean isLastAttempt = curAttemptNumber == noObjectDirection.getAttemptsNumber();
-			FunctionThatMayThrow<TK,TV> curDelegate = isLastAttempt ? noObjectDirection.getCreateMethod() : null;
+			boolean isLastAttempt = curAttemptNumber == attemptsNumber;
+			FunctionThatMayThrow<TK,TV> curDelegate = isLastAttempt
+													  ? withCreationPolicy(noObjectDirection.getCreateMethod(), noObjectDirection.getCreationPolicy())
+													  : null;
 			
 			try {				
-				toReturn = _pool.obtain(key, curDelegate);
-				break;
-			} catch (NoAvailableObjectException | ObjectsMaxCountReachedException e) {
+				return _pool.obtain(key, curDelegate);
+			} catch (NoAvailableObjectException | ObjectsMaxCountReachedException | ObjectCreationRejectedException e) {
 				if (isLastAttempt)
 					throw e;
 			} catch (PoolException e) {
@@ -55,41 +220,38 @@ public class PoolController<TK,TV> implements AutoCloseable {
 			}
 		}
 
-		rememberObtainedObject(key, toReturn);
-		return toReturn;
+		return null;
 	}
 	
-	public void release(TV objectToRelease) throws PoolException {
+	private TV obtainWaiting(TK key, DirectionIfNoObjectIsAvailable<TK, TV> noObjectDirection) throws PoolException {
 		
-		TK key = null;
+		TV obtained;
 		
 		try {
-			key = getKeyByObject(objectToRelease);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new PoolObjectReleasingInterruptedException(key, objectToRelease, e);
+			obtained = _pool.obtain(key, withCreationPolicy(noObjectDirection.getCreateMethod(), noObjectDirection.getCreationPolicy()),
+									noObjectDirection.getWaitingTimeout(), noObjectDirection.getWaitingTimeoutUnit());
+		} catch (NoAvailableObjectException | ObjectsMaxCountReachedException | ObjectCreationRejectedException
+				 | PoolObjectObtainingInterruptedException e) {
+			throw e;
+		} catch (PoolException e) {
+			String message = String.format(_MESSAGE_PATTERN_WAITING_FAILED, key);
+			throw new PoolException(key, message, e);
 		}
 		
-		if (key == null)
-			throw new InvalidPoolOperationException(null, objectToRelease, _MESSAGE_RELEASING_OF_STRANGER);
-			
-		_pool.release(key, objectToRelease);
+		return obtained;
 	}
 	
-	@Override
-	public void close() throws Exception {
-		_pool.close();
+	private FunctionThatMayThrow<TK,TV> withCreationPolicy(FunctionThatMayThrow<TK,TV> createMethod, ObjectCreationPolicy overridingPolicy) {
+
+		ObjectCreationPolicy creationPolicy = overridingPolicy != null ? overridingPolicy : _defaultCreationPolicy;
+		return creationPolicy == null ? createMethod : creationPolicy.applyTo(createMethod);
 	}
 	
-	public TK getKeyByObject(TV obtainedObject) throws InterruptedException {
-
-		_obtainedObjectToKeyLock.lockRead();
+	private void releaseQuietly(TK key, TV obtainedObject) {
 		
-		try {			
-			return _obtainedObjectToItsKey.get(obtainedObject);
-		} finally {
-			_obtainedObjectToKeyLock.unlockRead();
-		}
+		try {
+			_pool.release(key, obtainedObject);
+		} catch (PoolException e) {}
 	}
 	
 	private void waitSafely(int secondsNumberToWait, TK requestedKey) throws PoolObjectObtainingInterruptedException {
@@ -102,32 +264,13 @@ public class PoolController<TK,TV> implements AutoCloseable {
 		}
 	}
 	
-	private void rememberObtainedObject(TK key, TV obtainedObject) throws PoolObjectObtainingInterruptedException {
-		
-		try {
-			if (getKeyByObject(obtainedObject) != null)
-				return;
-			
-			_obtainedObjectToKeyLock.lockWrite();			
-			try {				
-				_obtainedObjectToItsKey.put(obtainedObject, key);
-			} finally {
-				_obtainedObjectToKeyLock.unlockWrite();
-			}
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			
-			Throwable cause = e;
-			String message = String.format(_MESSAGE_PATTERN_OBTAINING_INTERRUPTED, key);
-			
-			try {
-				_pool.release(key, obtainedObject);
-			} catch (InvalidPoolOperationException | PoolObjectReleasingInterruptedException ee) {
-				cause = ee;
-				message += ". Releasing also hasn't finished. Look at cause for details";
-			}
-			
-			throw new PoolObjectObtainingInterruptedException(key, message, cause);
-		}
+	private void rememberObtainedObjects(TK key, List<TV> obtainedObjects) {
+
+		for (TV obtainedObject : obtainedObjects)
+			_obtainedObjectToItsKey.putIfAbsent(obtainedObject, key);
+	}
+	
+	private void rememberObtainedObject(TK key, TV obtainedObject) {
+		_obtainedObjectToItsKey.putIfAbsent(obtainedObject, key);
 	}
 }
@@ -0,0 +1,9 @@
+package ru.urfu.javapools.poolslibrary.function;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface BatchFunctionThatMayThrow<T,R> {
+
+	List<R> apply (T t, int count) throws Exception;
+}
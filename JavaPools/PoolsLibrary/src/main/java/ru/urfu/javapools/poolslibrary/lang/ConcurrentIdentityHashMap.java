@@ -0,0 +1,137 @@
+package ru.urfu.javapools.poolslibrary.lang;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class ConcurrentIdentityHashMap<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
+
+	private final ConcurrentHashMap<IdentityKey<Object>, V> _map = new ConcurrentHashMap<IdentityKey<Object>, V>();
+
+	@Override
+	public V get(Object key) {
+		return _map.get(new IdentityKey<Object>(key));
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return _map.containsKey(new IdentityKey<Object>(key));
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return _map.put(new IdentityKey<Object>(key), value);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return _map.putIfAbsent(new IdentityKey<Object>(key), value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return _map.remove(new IdentityKey<Object>(key));
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		return _map.remove(new IdentityKey<Object>(key), value);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		return _map.replace(new IdentityKey<Object>(key), oldValue, newValue);
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		return _map.replace(new IdentityKey<Object>(key), value);
+	}
+
+	@Override
+	public int size() {
+		return _map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return _map.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		_map.clear();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return _map.values();
+	}
+
+	@Override
+	public Set<Map.Entry<K,V>> entrySet() {
+
+		return new AbstractSet<Map.Entry<K,V>>() {
+
+			@Override
+			public Iterator<Map.Entry<K,V>> iterator() {
+
+				Iterator<Map.Entry<IdentityKey<Object>, V>> mapIterator = _map.entrySet().iterator();
+				return new Iterator<Map.Entry<K,V>>() {
+
+					@Override
+					public boolean hasNext() {
+						return mapIterator.hasNext();
+					}
+
+					@SuppressWarnings("unchecked")
+					@Override
+					public Map.Entry<K,V> next() {
+						Map.Entry<IdentityKey<Object>, V> entry = mapIterator.next();
+						return new AbstractMap.SimpleImmutableEntry<K,V>((K) entry.getKey().getObject(), entry.getValue());
+					}
+
+					@Override
+					public void remove() {
+						mapIterator.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return _map.size();
+			}
+		};
+	}
+
+	private static class IdentityKey<T> {
+
+		private final T _object;
+		private final int _hash;
+
+		public IdentityKey(T object) {
+			_object = object;
+			_hash = System.identityHashCode(object);
+		}
+
+		public T getObject() {
+			return _object;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof IdentityKey && ((IdentityKey<?>) other)._object == _object;
+		}
+
+		@Override
+		public int hashCode() {
+			return _hash;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package ru.urfu.javapools.poolslibrary.lang;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// concurrent counterpart of WeakHashMap: no global lock, and entries of collected keys
+// are expunged a few at a time by writers instead of by whole-table sweeps
+public class ConcurrentWeakHashMap<K,V> extends AbstractMap<K,V> {
+
+	private final ConcurrentHashMap<WeakKey<Object>, V> _map = new ConcurrentHashMap<WeakKey<Object>, V>();
+	private final ReferenceQueue<Object> _collectedKeys = new ReferenceQueue<Object>();
+	private final boolean _isComparingByIdentity;
+
+	private static final int _MAX_EXPUNGED_PER_WRITE = 8;
+
+	public ConcurrentWeakHashMap(boolean isComparingByIdentity) {
+		_isComparingByIdentity = isComparingByIdentity;
+	}
+
+	@Override
+	public V get(Object key) {
+		return _map.get(new WeakKey<Object>(key, null, _isComparingByIdentity));
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return _map.containsKey(new WeakKey<Object>(key, null, _isComparingByIdentity));
+	}
+
+	@Override
+	public V put(K key, V value) {
+
+		expungeSomeCollectedKeys();
+		return _map.put(new WeakKey<Object>(key, _collectedKeys, _isComparingByIdentity), value);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+
+		expungeSomeCollectedKeys();
+		return _map.putIfAbsent(new WeakKey<Object>(key, _collectedKeys, _isComparingByIdentity), value);
+	}
+
+	@Override
+	public V remove(Object key) {
+
+		expungeSomeCollectedKeys();
+		return _map.remove(new WeakKey<Object>(key, null, _isComparingByIdentity));
+	}
+
+	@Override
+	public int size() {
+		return _map.size();
+	}
+
+	@Override
+	public void clear() {
+		_map.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<Map.Entry<K,V>> entrySet() {
+
+		Set<Map.Entry<K,V>> liveEntries = new LinkedHashSet<Map.Entry<K,V>>();
+		for (Map.Entry<WeakKey<Object>, V> entry : _map.entrySet()) {
+			Object key = entry.getKey().get();
+			if (key != null)
+				liveEntries.add(new AbstractMap.SimpleImmutableEntry<K,V>((K) key, entry.getValue()));
+		}
+		return liveEntries;
+	}
+
+	private void expungeSomeCollectedKeys() {
+
+		Reference<?> collectedKey;
+		for (int i = 0; i < _MAX_EXPUNGED_PER_WRITE && (collectedKey = _collectedKeys.poll()) != null; i++)
+			_map.remove(collectedKey);
+	}
+
+	private static class WeakKey<T> extends WeakReference<T> {
+
+		private final int _hash;
+		private final boolean _isComparingByIdentity;
+
+		public WeakKey(T referent, ReferenceQueue<? super T> queue, boolean isComparingByIdentity) {
+			super(referent, queue);
+			_isComparingByIdentity = isComparingByIdentity;
+			_hash = referent == null ? 0 : isComparingByIdentity ? System.identityHashCode(referent) : referent.hashCode();
+		}
+
+		// cleared key is equal only to itself, so its entry can still be found and expunged
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other)
+				return true;
+			if (!(other instanceof WeakKey))
+				return false;
+
+			Object referent = get();
+			Object otherReferent = ((WeakKey<?>) other).get();
+			if (referent == null)
+				return false;
+			return _isComparingByIdentity ? referent == otherReferent : referent.equals(otherReferent);
+		}
+
+		@Override
+		public int hashCode() {
+			return _hash;
+		}
+	}
+}
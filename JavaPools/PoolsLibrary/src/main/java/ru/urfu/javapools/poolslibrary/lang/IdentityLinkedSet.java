@@ -0,0 +1,145 @@
+package ru.urfu.javapools.poolslibrary.lang;
+
+import java.util.AbstractCollection;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// ordered set comparing objects by reference: add, remove and contains are O(1) whatever equals of stored objects does
+public class IdentityLinkedSet<T> extends AbstractCollection<T> {
+
+	private final IdentityHashMap<T, Node<T>> _objectToNode = new IdentityHashMap<T, Node<T>>();
+	private final boolean _isAddingToHead;
+
+	private Node<T> _head;
+	private Node<T> _tail;
+	private int _modificationsCount;
+
+	public IdentityLinkedSet(boolean isAddingToHead) {
+		_isAddingToHead = isAddingToHead;
+	}
+
+	@Override
+	public boolean add(T object) {
+
+		if (_objectToNode.containsKey(object))
+			return false;
+
+		Node<T> node = new Node<T>(object);
+		if (_head == null)
+			_head = _tail = node;
+		else if (_isAddingToHead) {
+			node._next = _head;
+			_head._previous = node;
+			_head = node;
+		} else {
+			node._previous = _tail;
+			_tail._next = node;
+			_tail = node;
+		}
+
+		_objectToNode.put(object, node);
+		_modificationsCount++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object object) {
+
+		Node<T> node = _objectToNode.remove(object);
+		if (node == null)
+			return false;
+
+		unlink(node);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object object) {
+		return _objectToNode.containsKey(object);
+	}
+
+	@Override
+	public int size() {
+		return _objectToNode.size();
+	}
+
+	@Override
+	public void clear() {
+
+		_objectToNode.clear();
+		_head = _tail = null;
+		_modificationsCount++;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+
+		return new Iterator<T>() {
+
+			private Node<T> _next = _head;
+			private Node<T> _lastReturned;
+			private int _expectedModificationsCount = _modificationsCount;
+
+			@Override
+			public boolean hasNext() {
+				return _next != null;
+			}
+
+			@Override
+			public T next() {
+
+				if (_expectedModificationsCount != _modificationsCount)
+					throw new ConcurrentModificationException();
+				if (_next == null)
+					throw new NoSuchElementException();
+
+				_lastReturned = _next;
+				_next = _next._next;
+				return _lastReturned._object;
+			}
+
+			@Override
+			public void remove() {
+
+				if (_lastReturned == null)
+					throw new IllegalStateException();
+				if (_expectedModificationsCount != _modificationsCount)
+					throw new ConcurrentModificationException();
+
+				_objectToNode.remove(_lastReturned._object);
+				unlink(_lastReturned);
+				_lastReturned = null;
+				_expectedModificationsCount = _modificationsCount;
+			}
+		};
+	}
+
+	private void unlink(Node<T> node) {
+
+		if (node._previous == null)
+			_head = node._next;
+		else
+			node._previous._next = node._next;
+
+		if (node._next == null)
+			_tail = node._previous;
+		else
+			node._next._previous = node._previous;
+
+		node._previous = node._next = null;
+		_modificationsCount++;
+	}
+
+	private static class Node<T> {
+
+		private final T _object;
+		private Node<T> _previous;
+		private Node<T> _next;
+
+		public Node(T object) {
+			_object = object;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package ru.urfu.javapools.poolslibrary.lang;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+
+public class ObtainingFutures {
+
+	public static <TV> CompletableFuture<TV> failed(Throwable cause) {
+
+		CompletableFuture<TV> failed = new CompletableFuture<TV>();
+		failed.completeExceptionally(cause);
+		return failed;
+	}
+
+	public static <TV> CompletableFuture<TV> thenApplyKeepingCancellation(CompletableFuture<TV> obtaining,
+																		  FunctionThatMayThrow<TV, TV> continuation,
+																		  Consumer<TV> giveBackIfAbandoned) {
+		CompletableFuture<TV> result = new CompletableFuture<TV>();
+
+		obtaining.whenComplete((obtained, e) -> {
+			if (e != null) {
+				result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+				return;
+			}
+
+			TV continued;
+			try {
+				continued = continuation.apply(obtained);
+			} catch (Exception ee) {
+				result.completeExceptionally(ee);
+				return;
+			}
+
+			if (!result.complete(continued))
+				giveBackIfAbandoned.accept(continued);
+		});
+
+		result.whenComplete((obtained, e) -> {
+			if (result.isCancelled())
+				obtaining.cancel(false);
+		});
+
+		return result;
+	}
+}
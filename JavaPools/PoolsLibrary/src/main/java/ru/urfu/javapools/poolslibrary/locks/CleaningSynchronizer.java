@@ -1,57 +1,92 @@
 package ru.urfu.javapools.poolslibrary.locks;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 public class CleaningSynchronizer {
 
 	private int _currentOperationsCount;
 	private boolean _cleaningIsExecuted;
 	private FairWaiter _cleaningWaiter;
 
+	private final ReentrantLock _stateLock = new ReentrantLock();
+	private final Condition _poolOperationMayBeGranted = _stateLock.newCondition();
+
 	public void lockCleaning() throws InterruptedException {
 
-		synchronized (this) {
-			_cleaningWaiter = new FairWaiter();	
+		FairWaiter cleaningWaiter = new FairWaiter();
+		_stateLock.lock();
+		try {
+			_cleaningWaiter = cleaningWaiter;
+		} finally {
+			_stateLock.unlock();
 		}
 
 		boolean isCleaningTurn = false;
 		while (!isCleaningTurn) {
 
-			synchronized (this) {
+			_stateLock.lock();
+			try {
 				isCleaningTurn = canGrantCleaningAccess();
 				if (isCleaningTurn) {
 					_cleaningWaiter = null;
 					_cleaningIsExecuted = true;
 					return;
 				}
+			} finally {
+				_stateLock.unlock();
 			}
 			
 			try {
-				_cleaningWaiter.doWait();
+				cleaningWaiter.doWait();
 			} catch (InterruptedException e) {
-				_cleaningWaiter = null;
+				_stateLock.lock();
+				try {
+					_cleaningWaiter = null;
+					_poolOperationMayBeGranted.signalAll();
+				} finally {
+					_stateLock.unlock();
+				}
+				throw e;
 			}
 		}
 	}
 
-	public synchronized void unlockCleaning() {
+	public void unlockCleaning() {
 
-		_cleaningIsExecuted = false;
-		notifyAll();
+		_stateLock.lock();
+		try {
+			_cleaningIsExecuted = false;
+			_poolOperationMayBeGranted.signalAll();
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 
-	public synchronized void lockPoolOperation() throws InterruptedException {
-
-		while (!canGrantPoolOperationAccess())
-			wait();
+	public void lockPoolOperation() throws InterruptedException {
 
-		_currentOperationsCount++;
+		_stateLock.lockInterruptibly();
+		try {
+			while (!canGrantPoolOperationAccess())
+				_poolOperationMayBeGranted.await();
+	
+			_currentOperationsCount++;
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 
-	public synchronized void unlockPoolOperation() {
+	public void unlockPoolOperation() {
 
-		_currentOperationsCount--;
-
-		if (_cleaningWaiter != null)
-			_cleaningWaiter.doNotify();
+		_stateLock.lock();
+		try {
+			_currentOperationsCount--;
+	
+			if (_cleaningWaiter != null)
+				_cleaningWaiter.doNotify();
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 
 	private boolean canGrantCleaningAccess() {
@@ -2,48 +2,60 @@ package ru.urfu.javapools.poolslibrary.locks;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class FairLockWithPrecedence {
+public class FairLockWithPrecedence implements ILockWithPrecedence {
 
 	private boolean _isLocked = false;
 	private Thread _currentLockingThread = null;
 
 	private List<FairWaiter> _importantWaiters = new LinkedList<FairWaiter>();
 	private List<FairWaiter> _otherWaiters = new LinkedList<FairWaiter>();
+
+	private final ReentrantLock _stateLock = new ReentrantLock();
 	
+	@Override
 	public void lockImportant() throws InterruptedException {
 		lockInternal(_importantWaiters);
 	}
 
+	@Override
 	public void lock() throws InterruptedException {
 		lockInternal(_otherWaiters);
 	}
 
-	public synchronized void unlock() {
-
-		if (Thread.currentThread() != _currentLockingThread)
-			throw new IllegalMonitorStateException("Calling thread didn't obtain the lock, so it can't unlock it");
-		
-		_isLocked = false;
-		_currentLockingThread = null;
+	@Override
+	public void unlock() {
 
-		if (_importantWaiters.size() > 0)
-			_importantWaiters.get(0).doNotify();
-		else if (_otherWaiters.size() > 0)
-			_otherWaiters.get(0).doNotify();
+		_stateLock.lock();
+		try {
+			if (Thread.currentThread() != _currentLockingThread)
+				throw new IllegalMonitorStateException("Calling thread didn't obtain the lock, so it can't unlock it");
+			
+			_isLocked = false;
+			_currentLockingThread = null;
+	
+			wakeUpNextIfUnlocked();
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 	
 	private void lockInternal(List<FairWaiter> queue) throws InterruptedException {
 		
 		FairWaiter waiter = new FairWaiter();
-		synchronized (this) {
-			queue.add(waiter);			
+		_stateLock.lock();
+		try {
+			queue.add(waiter);
+		} finally {
+			_stateLock.unlock();
 		}
 
 		boolean isMyTurn = false;
 		while (!isMyTurn) {
 
-			synchronized (this) {			
+			_stateLock.lock();
+			try {
 				isMyTurn = !_isLocked && queue.get(0) == waiter;			
 				if (isMyTurn) {
 					_isLocked = true;
@@ -51,16 +63,33 @@ public class FairLockWithPrecedence {
 					queue.remove(0);
 					return;
 				}
+			} finally {
+				_stateLock.unlock();
 			}
 			
 			try {
 				waiter.doWait();
 			} catch (InterruptedException e) {
-				synchronized (this) {
+				_stateLock.lock();
+				try {
 					queue.remove(waiter);
-				}				
+					wakeUpNextIfUnlocked();
+				} finally {
+					_stateLock.unlock();
+				}
 				throw e;
 			}			
 		}
 	}
-}
\ No newline at end of file
+
+	private void wakeUpNextIfUnlocked() {
+
+		if (_isLocked)
+			return;
+
+		if (_importantWaiters.size() > 0)
+			_importantWaiters.get(0).doNotify();
+		else if (_otherWaiters.size() > 0)
+			_otherWaiters.get(0).doNotify();
+	}
+}
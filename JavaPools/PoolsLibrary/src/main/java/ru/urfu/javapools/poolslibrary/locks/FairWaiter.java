@@ -1,20 +1,34 @@
 package ru.urfu.javapools.poolslibrary.locks;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
 public class FairWaiter {
 
-	private boolean _isNotified = false;
+	private final AtomicBoolean _isNotified = new AtomicBoolean(false);
+	private volatile Thread _waitingThread;
 
-	public synchronized void doWait() throws InterruptedException {
+	public void doWait() throws InterruptedException {
 
-		while (!_isNotified)
-			this.wait();
+		_waitingThread = Thread.currentThread();
 
-		_isNotified = false;
+		try {
+			while (!_isNotified.compareAndSet(true, false)) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				LockSupport.park(this);
+			}
+		} finally {
+			_waitingThread = null;
+		}
 	}
 
-	public synchronized void doNotify() {
+	public void doNotify() {
+
+		_isNotified.set(true);
 
-		_isNotified = true;
-		this.notify();
+		Thread waitingThread = _waitingThread;
+		if (waitingThread != null)
+			LockSupport.unpark(waitingThread);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package ru.urfu.javapools.poolslibrary.locks;
+
+public interface ILockWithPrecedence {
+
+	void lockImportant() throws InterruptedException;
+
+	void lock() throws InterruptedException;
+
+	void unlock();
+}
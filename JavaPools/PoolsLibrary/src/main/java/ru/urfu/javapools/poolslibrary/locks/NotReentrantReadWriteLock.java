@@ -1,40 +1,72 @@
 package ru.urfu.javapools.poolslibrary.locks;
 
-public class NotReentrantReadWriteLock {
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+public class NotReentrantReadWriteLock {
+	
 	private int _currentReadersCount;
 	private int _currentWritersCount;
 	private int _currentWriteRequests;
+
+	private final ReentrantLock _stateLock = new ReentrantLock();
+	private final Condition _accessMayBeGranted = _stateLock.newCondition();
 	
-	public synchronized void lockRead() throws InterruptedException {
-		
-		while (!canGrantReadAccess())
-			wait();
+	public void lockRead() throws InterruptedException {
 		
-		_currentReadersCount++;
+		_stateLock.lockInterruptibly();
+		try {
+			while (!canGrantReadAccess())
+				_accessMayBeGranted.await();
+			
+			_currentReadersCount++;
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 	
-	public synchronized void unlockRead() {
+	public void unlockRead() {
 		
-		_currentReadersCount--;
-		notifyAll();
+		_stateLock.lock();
+		try {
+			_currentReadersCount--;
+			_accessMayBeGranted.signalAll();
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 	
-	public synchronized void lockWrite() throws InterruptedException {
-		
-		_currentWriteRequests++;
+	public void lockWrite() throws InterruptedException {
 		
-		 while (!canGrantWriteAccess())
-			 wait();
-		 
-		 _currentWriteRequests--;
-		 _currentWritersCount++;
+		_stateLock.lockInterruptibly();
+		try {
+			_currentWriteRequests++;
+			
+			try {
+				while (!canGrantWriteAccess())
+					_accessMayBeGranted.await();
+			} catch (InterruptedException e) {
+				_currentWriteRequests--;
+				_accessMayBeGranted.signalAll();
+				throw e;
+			}
+			 
+			_currentWriteRequests--;
+			_currentWritersCount++;
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 	
-	public synchronized void unlockWrite() {
+	public void unlockWrite() {
 		
-		_currentWritersCount--;
-		notifyAll();
+		_stateLock.lock();
+		try {
+			_currentWritersCount--;
+			_accessMayBeGranted.signalAll();
+		} finally {
+			_stateLock.unlock();
+		}
 	}
 	
 	private boolean canGrantReadAccess() {
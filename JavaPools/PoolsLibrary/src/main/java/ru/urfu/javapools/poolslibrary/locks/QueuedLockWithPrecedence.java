@@ -0,0 +1,145 @@
+package ru.urfu.javapools.poolslibrary.locks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+
+public class QueuedLockWithPrecedence implements ILockWithPrecedence {
+
+	private final AtomicReference<Thread> _currentLockingThread = new AtomicReference<Thread>();
+	private final AtomicInteger _importantWaitersCount = new AtomicInteger();
+
+	private final WaitersQueue _importantWaiters = new WaitersQueue(true);
+	private final WaitersQueue _otherWaiters = new WaitersQueue(false);
+
+	private final boolean _isBargingAllowed;
+	private final int _maxSpinsBeforePark;
+	private volatile int _spinsBeforePark;
+
+	private static final int _DEFAULT_MAX_SPINS_BEFORE_PARK = 64;
+
+	public QueuedLockWithPrecedence() {
+		this(false);
+	}
+
+	public QueuedLockWithPrecedence(boolean isBargingAllowed) {
+		this(isBargingAllowed, _DEFAULT_MAX_SPINS_BEFORE_PARK);
+	}
+
+	public QueuedLockWithPrecedence(boolean isBargingAllowed, int maxSpinsBeforePark) {
+
+		if (maxSpinsBeforePark < 0)
+			throw new IllegalArgumentException("Max spins count before parking can't be negative");
+
+		_isBargingAllowed = isBargingAllowed;
+		_maxSpinsBeforePark = maxSpinsBeforePark;
+		_spinsBeforePark = maxSpinsBeforePark;
+	}
+
+	@Override
+	public void lockImportant() throws InterruptedException {
+		lockInternal(_importantWaiters);
+	}
+
+	@Override
+	public void lock() throws InterruptedException {
+		lockInternal(_otherWaiters);
+	}
+
+	@Override
+	public void unlock() {
+
+		if (!_currentLockingThread.compareAndSet(Thread.currentThread(), null))
+			throw new IllegalMonitorStateException("Calling thread didn't obtain the lock, so it can't unlock it");
+
+		wakeUpNext();
+	}
+
+	public boolean getIsBargingAllowed() {
+		return _isBargingAllowed;
+	}
+
+	public boolean hasQueuedThreads() {
+		return _importantWaiters.hasQueuedThreads() || _otherWaiters.hasQueuedThreads();
+	}
+
+	private void lockInternal(WaitersQueue queue) throws InterruptedException {
+
+		if (queue.isForImportantWaiters())
+			_importantWaitersCount.incrementAndGet();
+
+		boolean isLocked = false;
+		try {
+			isLocked = trySpinToLock(queue);
+			if (!isLocked) {
+				queue.acquireInterruptibly(1);
+				isLocked = true;
+			}
+		} finally {
+			if (queue.isForImportantWaiters())
+				_importantWaitersCount.decrementAndGet();
+			if (!isLocked && _currentLockingThread.get() == null)
+				wakeUpNext();
+		}
+	}
+
+	// spinning limit adapts to recent outcomes: a lock held for nanoseconds is worth spinning for, a long-held one is not
+	private boolean trySpinToLock(WaitersQueue queue) {
+
+		int spins = _spinsBeforePark;
+		for (int i = 0; i <= spins; i++)
+			if (queue.tryAcquire(1)) {
+				if (spins < _maxSpinsBeforePark)
+					_spinsBeforePark = Math.min(_maxSpinsBeforePark, spins * 2 + 1);
+				return true;
+			}
+
+		if (spins > 0)
+			_spinsBeforePark = spins / 2;
+		return false;
+	}
+
+	private boolean tryTakeLock(WaitersQueue queue) {
+
+		if (!_isBargingAllowed && queue.hasQueuedPredecessors())
+			return false;
+		if (!queue.isForImportantWaiters() && _importantWaitersCount.get() > 0)
+			return false;
+
+		return _currentLockingThread.compareAndSet(null, Thread.currentThread());
+	}
+
+	private void wakeUpNext() {
+
+		if (_importantWaitersCount.get() > 0)
+			_importantWaiters.release(1);
+		else
+			_otherWaiters.release(1);
+	}
+
+	private class WaitersQueue extends AbstractQueuedSynchronizer {
+
+		private static final long serialVersionUID = 1L;
+
+		private final boolean _isForImportantWaiters;
+
+		public WaitersQueue(boolean isForImportantWaiters) {
+			_isForImportantWaiters = isForImportantWaiters;
+		}
+
+		public boolean isForImportantWaiters() {
+			return _isForImportantWaiters;
+		}
+
+		@Override
+		protected boolean tryAcquire(int ignored) {
+			return tryTakeLock(this);
+		}
+
+		// lock state is kept by the outer lock, release is used only to wake up the first queued thread
+		@Override
+		protected boolean tryRelease(int ignored) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package ru.urfu.javapools.poolslibrary.objectactions;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import ru.urfu.javapools.poolslibrary.objectactions.notification.INotifier;
+import ru.urfu.javapools.poolslibrary.objectactions.notification.UserDefinedActionError;
+import ru.urfu.javapools.poolslibrary.objectactions.notification.UserDefinedActionType;
+
+// closes objects on its own threads, so slow closing holds neither pool locks nor callers;
+// close running longer than the timeout is interrupted and reported, but a close ignoring interruption
+// keeps blocking its thread, and the queue behind it waits
+public class ObjectsDestroyer<TV> implements IPoolObjectActions<TV>, AutoCloseable {
+
+	private final IPoolObjectActions<TV> _objectActions;
+	private final long _closeTimeoutInMillis;
+	private final INotifier _notifier;
+
+	private final ThreadPoolExecutor _closingExecutor;
+	private final ScheduledThreadPoolExecutor _timeoutsWatchdog;
+
+	private final LongAdder _closesCount = new LongAdder();
+	private final LongAdder _failedClosesCount = new LongAdder();
+	private final LongAdder _timedOutClosesCount = new LongAdder();
+	private final LongAdder _totalCloseTimeInNanos = new LongAdder();
+	private final AtomicLong _maxCloseTimeInNanos = new AtomicLong();
+	private volatile int _unfinishedClosesCountAtShutdown;
+
+	private static final String _THREAD_NAME = "pool-objects-destroyer";
+	private static final String _WATCHDOG_THREAD_NAME = "pool-objects-destroyer-watchdog";
+	private static final int _MILLS_TO_FINISH_CLOSING = 1000;
+
+	public ObjectsDestroyer(IPoolObjectActions<TV> objectActions, ObjectsDestroyerSettings settings) {
+
+		_objectActions = objectActions;
+		_closeTimeoutInMillis = settings.getCloseTimeoutInMillis();
+		_notifier = settings.getNotifier();
+
+		_closingExecutor = new ThreadPoolExecutor(settings.getThreadsCount(), settings.getThreadsCount(), 0, TimeUnit.MILLISECONDS,
+												  new ArrayBlockingQueue<Runnable>(settings.getQueueCapacity()),
+												  runnable -> createDaemonThread(runnable, _THREAD_NAME));
+		_timeoutsWatchdog = _closeTimeoutInMillis > 0
+							? new ScheduledThreadPoolExecutor(1, runnable -> createDaemonThread(runnable, _WATCHDOG_THREAD_NAME))
+							: null;
+		if (_timeoutsWatchdog != null)
+			_timeoutsWatchdog.setRemoveOnCancelPolicy(true);
+	}
+
+	@Override
+	public boolean isValid(TV poolObject) {
+		return _objectActions.isValid(poolObject);
+	}
+
+	@Override
+	public boolean ping(TV poolObject) {
+		return _objectActions.ping(poolObject);
+	}
+
+	@Override
+	public boolean reset(TV poolObject) {
+		return _objectActions.reset(poolObject);
+	}
+
+	// when the queue is full or destroyer is closed, the object is closed on the calling thread
+	@Override
+	public void close(TV poolObject) {
+
+		try {
+			_closingExecutor.execute(() -> closeMeasuring(poolObject, _timeoutsWatchdog != null));
+		} catch (RejectedExecutionException e) {
+			closeMeasuring(poolObject, false);
+		}
+	}
+
+	// objects queued before closing are still closed, but closes not finished in time are left running
+	// on daemon threads and only counted
+	@Override
+	public void close() throws InterruptedException {
+
+		_closingExecutor.shutdown();
+		if (!_closingExecutor.awaitTermination(_MILLS_TO_FINISH_CLOSING, TimeUnit.MILLISECONDS))
+			_unfinishedClosesCountAtShutdown = _closingExecutor.getActiveCount() + _closingExecutor.getQueue().size();
+		if (_timeoutsWatchdog != null)
+			_timeoutsWatchdog.shutdownNow();
+	}
+
+	public long getClosesCount() {
+		return _closesCount.sum();
+	}
+
+	public long getFailedClosesCount() {
+		return _failedClosesCount.sum();
+	}
+
+	public long getTimedOutClosesCount() {
+		return _timedOutClosesCount.sum();
+	}
+
+	public long getTotalCloseTimeInNanos() {
+		return _totalCloseTimeInNanos.sum();
+	}
+
+	public long getMaxCloseTimeInNanos() {
+		return _maxCloseTimeInNanos.get();
+	}
+
+	public int getPendingClosesCount() {
+		return _closingExecutor.getQueue().size();
+	}
+
+	public int getUnfinishedClosesCountAtShutdown() {
+		return _unfinishedClosesCountAtShutdown;
+	}
+
+	// calling thread is never interrupted, so closes it runs itself aren't timed
+	private void closeMeasuring(TV poolObject, boolean isTimed) {
+
+		ClosingTimeout closingTimeout = isTimed ? startClosingTimeout(poolObject) : null;
+		long startTimeStamp = System.nanoTime();
+		try {
+			_objectActions.close(poolObject);
+		} catch (RuntimeException e) {
+			_failedClosesCount.increment();
+			notifyAboutFailure(poolObject, e);
+		} finally {
+			if (closingTimeout != null)
+				closingTimeout.finish();
+
+			long closeTimeInNanos = System.nanoTime() - startTimeStamp;
+			_closesCount.increment();
+			_totalCloseTimeInNanos.add(closeTimeInNanos);
+			_maxCloseTimeInNanos.accumulateAndGet(closeTimeInNanos, Math::max);
+		}
+	}
+
+	// closes left in the queue when destroyer is closed aren't timed any more
+	private ClosingTimeout startClosingTimeout(TV poolObject) {
+
+		ClosingTimeout closingTimeout = new ClosingTimeout(poolObject, Thread.currentThread());
+		try {
+			closingTimeout.start();
+			return closingTimeout;
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+	}
+
+	private void notifyAboutFailure(TV poolObject, Exception failure) {
+
+		if (_notifier != null)
+			_notifier.notify(new UserDefinedActionError<TV>() {{
+				setUserDefinedActionType(UserDefinedActionType.CLOSING);
+				setObject(poolObject);
+				setException(failure);
+			}});
+	}
+
+	private static Thread createDaemonThread(Runnable runnable, String name) {
+
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	// interruption and finishing are mutually exclusive, so a late interrupt can't hit the next close of the thread
+	private class ClosingTimeout {
+
+		private final TV _poolObject;
+		private final Thread _closingThread;
+		private ScheduledFuture<?> _expiration;
+		private boolean _isFinished;
+		private boolean _isExpired;
+
+		public ClosingTimeout(TV poolObject, Thread closingThread) {
+
+			_poolObject = poolObject;
+			_closingThread = closingThread;
+		}
+
+		public void start() {
+			_expiration = _timeoutsWatchdog.schedule(this::expire, _closeTimeoutInMillis, TimeUnit.MILLISECONDS);
+		}
+
+		public void finish() {
+
+			_expiration.cancel(false);
+			synchronized (this) {
+				_isFinished = true;
+				if (_isExpired)
+					Thread.interrupted();
+			}
+		}
+
+		private void expire() {
+
+			synchronized (this) {
+				if (_isFinished)
+					return;
+				_isExpired = true;
+				_closingThread.interrupt();
+			}
+
+			_timedOutClosesCount.increment();
+			notifyAboutFailure(_poolObject, new TimeoutException("Closing took longer than " + _closeTimeoutInMillis + " ms"));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package ru.urfu.javapools.poolslibrary.objectactions;
+
+import ru.urfu.javapools.poolslibrary.objectactions.notification.INotifier;
+
+public class ObjectsDestroyerSettings {
+
+	private int _threadsCount = 1;
+	private int _queueCapacity = 1024;
+	private long _closeTimeoutInMillis;
+	private INotifier _notifier;
+
+	public int getThreadsCount() {
+		return _threadsCount;
+	}
+
+	public int getQueueCapacity() {
+		return _queueCapacity;
+	}
+
+	public long getCloseTimeoutInMillis() {
+		return _closeTimeoutInMillis;
+	}
+
+	public INotifier getNotifier() {
+		return _notifier;
+	}
+
+	public ObjectsDestroyerSettings setThreadsCount(int threadsCount) {
+		_threadsCount = threadsCount;
+		return this;
+	}
+
+	// objects beyond it are closed on the calling thread
+	public ObjectsDestroyerSettings setQueueCapacity(int queueCapacity) {
+		_queueCapacity = queueCapacity;
+		return this;
+	}
+
+	// 0 means closing isn't timed
+	public ObjectsDestroyerSettings setCloseTimeoutInMillis(long closeTimeoutInMillis) {
+		_closeTimeoutInMillis = closeTimeoutInMillis;
+		return this;
+	}
+
+	public ObjectsDestroyerSettings setNotifier(INotifier notifier) {
+		_notifier = notifier;
+		return this;
+	}
+}
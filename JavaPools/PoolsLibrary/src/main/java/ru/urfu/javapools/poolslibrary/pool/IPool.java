@@ -1,24 +1,45 @@
 package ru.urfu.javapools.poolslibrary.pool;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.CircuitBreakerState;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
-import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItem;
 
 public interface IPool<TK,TV> extends AutoCloseable {
 	
 	 TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
 		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException,
 			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException;
+
+	 TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException;
+
+	 List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException;
+
+	 CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable);
 	 
      void release(TK key, TV objectToRelease)
     	throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException;
+
+     void releaseAll(TK key, Collection<TV> objectsToRelease)
+    	throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException;
      
-     ConcurrentMap<TK, PoolItem<TK, TV>> getKeyToPoolItem();
+     ConcurrentMap<TK, IPoolItem<TK, TV>> getKeyToPoolItem();
+
+     CircuitBreakerState getCircuitBreakerState(TK key);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.List;
+
+import ru.urfu.javapools.poolslibrary.function.BatchFunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+
+// create delegate for resources that are cheaper to open in bulk: the pool asks it for all objects
+// it's going to create in prewarming, replenishing and batch obtaining, and keeps surplus ones idle
+public class BatchCreateDelegate<TK,TV> implements FunctionThatMayThrow<TK,TV> {
+
+	private final BatchFunctionThatMayThrow<TK,TV> _createMany;
+
+	private static final String _MESSAGE_NOTHING_IS_CREATED = "Batch create delegate returned no objects";
+
+	public BatchCreateDelegate(BatchFunctionThatMayThrow<TK,TV> createMany) {
+		_createMany = createMany;
+	}
+
+	public List<TV> createMany(TK key, int count) throws Exception {
+
+		List<TV> created = _createMany.apply(key, count);
+		if (created == null || created.isEmpty())
+			throw new IllegalStateException(_MESSAGE_NOTHING_IS_CREATED);
+		return created;
+	}
+
+	@Override
+	public TV apply(TK key) throws Exception {
+		return createMany(key, 1).get(0);
+	}
+
+	PreCreatedObjects<TK,TV> startBatch(int expectedCount) {
+		return new PreCreatedObjects<TK,TV>(this, expectedCount);
+	}
+}
@@ -0,0 +1,7 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+public enum BatchObtainingMode {
+
+	ALL_OR_NOTHING,
+	BEST_EFFORT
+}
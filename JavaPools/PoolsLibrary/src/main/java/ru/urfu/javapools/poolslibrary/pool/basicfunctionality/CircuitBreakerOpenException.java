@@ -0,0 +1,12 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+@SuppressWarnings("serial")
+public class CircuitBreakerOpenException extends ObjectCreationRejectedException {
+
+	private static final String _MESSAGE_PATTERN = "Object with key='%s' wasn't created because recent creations" +
+												   " kept failing and circuit breaker of the key is open";
+
+	public CircuitBreakerOpenException (Object key) {
+		super(key, String.format(_MESSAGE_PATTERN, key));
+	}
+}
@@ -0,0 +1,8 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+public enum CircuitBreakerState {
+
+	CLOSED,
+	OPEN,
+	HALF_OPEN;
+}
@@ -0,0 +1,11 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+@SuppressWarnings("serial")
+public class CreationRateLimitExceededException extends ObjectCreationRejectedException {
+
+	private static final String _MESSAGE_PATTERN = "Object with key='%s' wasn't created because creation rate limit is exceeded";
+
+	public CreationRateLimitExceededException (Object key) {
+		super(key, String.format(_MESSAGE_PATTERN, key));
+	}
+}
@@ -1,23 +1,41 @@
 package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
 
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.Stack;
+import ru.urfu.javapools.poolslibrary.lang.IdentityLinkedSet;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.AdaptiveAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.CollectionAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IAvailableObjectsStorageFactory;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.RingBufferAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.RoundRobinAvailableObjectsStorage;
 
-public enum LoadBalancingStrategy {
+public enum LoadBalancingStrategy implements IAvailableObjectsStorageFactory {
 
 	DISTRIBUTED_AMONG_ALL_OBJECTS,
-    INTENSIVE_ON_RECENTLY_USED_OBJECTS;
+    INTENSIVE_ON_RECENTLY_USED_OBJECTS,
+	ROUND_ROBIN,
+	LEAST_LOADED,
+	ADAPTIVE;
+
+	private static final int _ADAPTIVE_SURPLUS_THRESHOLD = 2;
 	
-	public <TV> Collection<TV> createStorage () {
-		
+	@Override
+	public <TV> IAvailableObjectsStorage<TV> createStorage (ObjectsTrackingMode trackingMode) {
+
+		boolean isComparingByIdentity = trackingMode == ObjectsTrackingMode.BY_IDENTITY;
 		switch (this) {
-			case DISTRIBUTED_AMONG_ALL_OBJECTS:
-				return new LinkedList<TV>();
-			case INTENSIVE_ON_RECENTLY_USED_OBJECTS:
-				return new Stack<TV>();
+			case ROUND_ROBIN:
+			case LEAST_LOADED:
+				return new RoundRobinAvailableObjectsStorage<TV>(this == LEAST_LOADED, isComparingByIdentity);
+			case ADAPTIVE:
+				return new AdaptiveAvailableObjectsStorage<TV>(_ADAPTIVE_SURPLUS_THRESHOLD, isComparingByIdentity);
 			default:
-				return new LinkedList<TV>();	
+				if (isComparingByIdentity)
+					return new CollectionAvailableObjectsStorage<TV>(new IdentityLinkedSet<TV>(this == INTENSIVE_ON_RECENTLY_USED_OBJECTS));
+				return new RingBufferAvailableObjectsStorage<TV>(this == INTENSIVE_ON_RECENTLY_USED_OBJECTS);
 		}
 	}
+
+	public <TV> IAvailableObjectsStorage<TV> createStorage () {
+		return createStorage(ObjectsTrackingMode.BY_EQUALITY);
+	}
 }
@@ -0,0 +1,122 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+
+public class ObjectCreationCircuitBreaker {
+
+	private final int _failuresThreshold;
+	private final long _openStateDurationInNanos;
+	private final int _maxTrialCreationsCount;
+
+	private final AtomicInteger _consecutiveFailuresCount = new AtomicInteger();
+	private volatile CircuitBreakerState _state = CircuitBreakerState.CLOSED;
+	private volatile long _openingTimeInNanos;
+	private int _trialCreationsInProgressCount;
+
+	public ObjectCreationCircuitBreaker(int failuresThreshold, long openStateDurationInMillis, int maxTrialCreationsCount) {
+		_failuresThreshold = failuresThreshold;
+		_openStateDurationInNanos = TimeUnit.MILLISECONDS.toNanos(openStateDurationInMillis);
+		_maxTrialCreationsCount = Math.max(maxTrialCreationsCount, 1);
+	}
+
+	public <TK,TV> TV create(TK key, FunctionThatMayThrow<TK,TV> createDelegate) throws Exception {
+
+		boolean isTrial = acquirePermission(key);
+
+		TV created;
+		try {
+			created = createDelegate.apply(key);
+		} catch (InterruptedException | ObjectCreationRejectedException | PoolCapacityExhaustedException e) {
+			// pool refusing to run the factory says nothing about the factory
+			onCreationAbandoned(isTrial);
+			throw e;
+		} catch (Exception e) {
+			onCreationFailed(isTrial);
+			throw e;
+		}
+
+		onCreationSucceeded(isTrial);
+		return created;
+	}
+
+	public boolean isRejecting() {
+		return _state == CircuitBreakerState.OPEN && !isOpenStateExpired();
+	}
+
+	public CircuitBreakerState getState() {
+		return _state;
+	}
+
+	private boolean acquirePermission(Object key) throws CircuitBreakerOpenException {
+
+		if (_state == CircuitBreakerState.CLOSED)
+			return false;
+		if (isRejecting())
+			throw new CircuitBreakerOpenException(key);
+
+		synchronized (this) {
+			if (_state == CircuitBreakerState.OPEN && isOpenStateExpired()) {
+				_state = CircuitBreakerState.HALF_OPEN;
+				_trialCreationsInProgressCount = 0;
+			}
+			if (_state == CircuitBreakerState.CLOSED)
+				return false;
+			if (_state == CircuitBreakerState.HALF_OPEN && _trialCreationsInProgressCount < _maxTrialCreationsCount) {
+				_trialCreationsInProgressCount++;
+				return true;
+			}
+		}
+
+		throw new CircuitBreakerOpenException(key);
+	}
+
+	private void onCreationSucceeded(boolean isTrial) {
+
+		if (isTrial)
+			synchronized (this) {
+				_trialCreationsInProgressCount--;
+				if (_state == CircuitBreakerState.HALF_OPEN) {
+					_consecutiveFailuresCount.set(0);
+					_state = CircuitBreakerState.CLOSED;
+				}
+			}
+		else if (_consecutiveFailuresCount.get() != 0)
+			_consecutiveFailuresCount.set(0);
+	}
+
+	private void onCreationFailed(boolean isTrial) {
+
+		if (isTrial)
+			synchronized (this) {
+				_trialCreationsInProgressCount--;
+				if (_state == CircuitBreakerState.HALF_OPEN)
+					open();
+			}
+		else if (_consecutiveFailuresCount.incrementAndGet() >= _failuresThreshold)
+			synchronized (this) {
+				if (_state == CircuitBreakerState.CLOSED)
+					open();
+			}
+	}
+
+	private void onCreationAbandoned(boolean isTrial) {
+
+		if (isTrial)
+			synchronized (this) {
+				_trialCreationsInProgressCount--;
+			}
+	}
+
+	private void open() {
+
+		_openingTimeInNanos = System.nanoTime();
+		_state = CircuitBreakerState.OPEN;
+	}
+
+	private boolean isOpenStateExpired() {
+		return System.nanoTime() - _openingTimeInNanos >= _openStateDurationInNanos;
+	}
+}
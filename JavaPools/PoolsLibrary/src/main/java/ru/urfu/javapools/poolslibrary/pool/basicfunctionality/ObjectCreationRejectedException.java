@@ -0,0 +1,17 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+
+@SuppressWarnings("serial")
+public abstract class ObjectCreationRejectedException extends ObjectCreationFailedException {
+
+	protected ObjectCreationRejectedException (Object key, String message) {
+		super(key, message);
+	}
+
+	// thrown on every rejected creation under overload, so it is kept as cheap as possible
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
@@ -0,0 +1,11 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+// when checks of an object on obtaining and releasing reach the user's validation;
+// an object is validated at its first check in any mode
+public enum ObjectValidationMode {
+
+	ALWAYS,
+	IF_IDLE_LONGER_THAN_THRESHOLD,
+	EVERY_NTH_CHECK,
+	IN_BACKGROUND_ONLY
+}
@@ -0,0 +1,56 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ru.urfu.javapools.poolslibrary.lang.ConcurrentIdentityHashMap;
+import ru.urfu.javapools.poolslibrary.lang.ConcurrentWeakHashMap;
+
+public enum ObjectsTrackingMode {
+
+	BY_EQUALITY,
+	BY_IDENTITY;
+
+	public <TV> Set<TV> createSet() {
+
+		switch (this) {
+			case BY_IDENTITY:
+				return Collections.newSetFromMap(new IdentityHashMap<TV, Boolean>());
+			case BY_EQUALITY:
+			default:
+				return new HashSet<TV>();
+		}
+	}
+
+	public <TV,TX> Map<TV,TX> createMap() {
+
+		switch (this) {
+			case BY_IDENTITY:
+				return new IdentityHashMap<TV,TX>();
+			case BY_EQUALITY:
+			default:
+				return new HashMap<TV,TX>();
+		}
+	}
+
+	public <TV,TX> ConcurrentMap<TV,TX> createConcurrentMap() {
+
+		switch (this) {
+			case BY_IDENTITY:
+				return new ConcurrentIdentityHashMap<TV,TX>();
+			case BY_EQUALITY:
+			default:
+				return new ConcurrentHashMap<TV,TX>();
+		}
+	}
+
+	public <TV,TX> Map<TV,TX> createWeakMap() {
+		return new ConcurrentWeakHashMap<TV,TX>(this == BY_IDENTITY);
+	}
+}
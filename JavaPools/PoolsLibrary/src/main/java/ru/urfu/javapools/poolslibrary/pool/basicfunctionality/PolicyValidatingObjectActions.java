@@ -0,0 +1,90 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
+
+// skips validation of the checks that validation mode lets through, so that obtaining under the item's lock
+// doesn't wait for user's I/O in the common case
+class PolicyValidatingObjectActions<TV> implements IPoolObjectActions<TV> {
+
+	private final IPoolObjectActions<TV> _objectActions;
+	private final ObjectValidationMode _validationMode;
+	private final long _idleThresholdInNanos;
+	private final int _checksCountBetweenValidations;
+	private final Map<TV, ValidationState> _objectToValidationState;
+
+	public PolicyValidatingObjectActions(IPoolObjectActions<TV> objectActions, PoolItemsStorageSettings settings) {
+
+		_objectActions = objectActions;
+		_validationMode = settings.getValidationMode();
+		_idleThresholdInNanos = settings.getValidationIdleThresholdInMillis() * 1000000;
+		_checksCountBetweenValidations = Math.max(settings.getChecksCountBetweenValidations(), 1);
+		_objectToValidationState = settings.getObjectsTrackingMode().createWeakMap();
+	}
+
+	@Override
+	public boolean isValid(TV poolObject) {
+
+		// objects are registered in any mode, so that background validation knows them
+		ValidationState validationState = _objectToValidationState.get(poolObject);
+		if (validationState == null) {
+			_objectToValidationState.put(poolObject, new ValidationState());
+			return _objectActions.isValid(poolObject);
+		}
+
+		return !validationState.shouldValidate() || _objectActions.isValid(poolObject);
+	}
+
+	@Override
+	public boolean ping(TV poolObject) {
+		return _objectActions.ping(poolObject);
+	}
+
+	@Override
+	public boolean reset(TV poolObject) {
+		return _objectActions.reset(poolObject);
+	}
+
+	@Override
+	public void close(TV poolObject) {
+
+		_objectToValidationState.remove(poolObject);
+		_objectActions.close(poolObject);
+	}
+
+	// runs off the hot path: only available objects are validated, through their item's eviction,
+	// so that objects in use are left to their users
+	public void evictInvalidObjects(IPoolItem<?, TV> poolItem) {
+
+		for (TV poolObject : new ArrayList<TV>(_objectToValidationState.keySet()))
+			poolItem.evictIfAvailable(poolObject, availableObject -> !_objectActions.isValid(availableObject));
+	}
+
+	// checks of the same object may come from different threads over its life, e.g. from different users of a shared object
+	private class ValidationState {
+
+		private final AtomicLong _lastCheckTimeStampInNanos = new AtomicLong(System.nanoTime());
+		private final AtomicInteger _checksCount = new AtomicInteger();
+
+		public boolean shouldValidate() {
+
+			switch (_validationMode) {
+				case ALWAYS:
+					return true;
+				case IF_IDLE_LONGER_THAN_THRESHOLD:
+					long now = System.nanoTime();
+					return now - _lastCheckTimeStampInNanos.getAndSet(now) > _idleThresholdInNanos;
+				case EVERY_NTH_CHECK:
+					return _checksCount.incrementAndGet() % _checksCountBetweenValidations == 0;
+				case IN_BACKGROUND_ONLY:
+				default:
+					return false;
+			}
+		}
+	}
+}
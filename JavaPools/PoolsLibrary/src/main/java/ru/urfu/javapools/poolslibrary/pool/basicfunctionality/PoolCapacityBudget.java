@@ -0,0 +1,114 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+public class PoolCapacityBudget<TK, TV> {
+
+	private final long _maxTotalWeight;
+	private final ToLongFunction<TV> _weigher;
+
+	private final AtomicLong _usedWeight = new AtomicLong();
+	private final ConcurrentHashMap<TV, Long> _objectToWeight = new ConcurrentHashMap<TV, Long>();
+	private final LinkedHashMap<TV, TK> _idleObjectsFromLeastRecentlyUsed = new LinkedHashMap<TV, TK>();
+	// shared object is idle only when its last user releases it; guarded together with idle objects
+	private final HashMap<TV, int[]> _objectToUsersCount = new HashMap<TV, int[]>();
+
+	public PoolCapacityBudget(long maxObjectsCount) {
+		this(maxObjectsCount, object -> 1);
+	}
+
+	public PoolCapacityBudget(long maxTotalWeight, ToLongFunction<TV> weigher) {
+		_maxTotalWeight = maxTotalWeight;
+		_weigher = weigher;
+	}
+
+	public boolean tryCharge(TV created) {
+
+		long weight = _weigher.applyAsLong(created);
+
+		long usedWeight;
+		do {
+			usedWeight = _usedWeight.get();
+			if (usedWeight + weight > _maxTotalWeight)
+				return false;
+		} while (!_usedWeight.compareAndSet(usedWeight, usedWeight + weight));
+
+		_objectToWeight.put(created, weight);
+		return true;
+	}
+
+	public void uncharge(TV closed) {
+
+		Long weight = _objectToWeight.remove(closed);
+		if (weight != null)
+			_usedWeight.addAndGet(-weight);
+
+		synchronized (_idleObjectsFromLeastRecentlyUsed) {
+			_idleObjectsFromLeastRecentlyUsed.remove(closed);
+			_objectToUsersCount.remove(closed);
+		}
+	}
+
+	public void onObjectReleased(TK key, TV released) {
+
+		if (!_objectToWeight.containsKey(released))
+			return;
+
+		synchronized (_idleObjectsFromLeastRecentlyUsed) {
+			int[] usersCount = _objectToUsersCount.get(released);
+			if (usersCount != null && --usersCount[0] > 0)
+				return;
+
+			_objectToUsersCount.remove(released);
+			_idleObjectsFromLeastRecentlyUsed.remove(released);
+			_idleObjectsFromLeastRecentlyUsed.put(released, key);
+		}
+	}
+
+	public void onObjectObtained(TV obtained) {
+
+		if (!_objectToWeight.containsKey(obtained))
+			return;
+
+		synchronized (_idleObjectsFromLeastRecentlyUsed) {
+			_idleObjectsFromLeastRecentlyUsed.remove(obtained);
+			_objectToUsersCount.computeIfAbsent(obtained, object -> new int[1])[0]++;
+		}
+	}
+
+	public Map.Entry<TK, TV> pollLeastRecentlyUsedIdleObject(TK keyToSkip) {
+
+		synchronized (_idleObjectsFromLeastRecentlyUsed) {
+			Iterator<Map.Entry<TV, TK>> idleObjectsIterator = _idleObjectsFromLeastRecentlyUsed.entrySet().iterator();
+			while (idleObjectsIterator.hasNext()) {
+				Map.Entry<TV, TK> idleObject = idleObjectsIterator.next();
+				if (idleObject.getValue().equals(keyToSkip))
+					continue;
+
+				idleObjectsIterator.remove();
+				return new AbstractMap.SimpleImmutableEntry<TK, TV>(idleObject.getValue(), idleObject.getKey());
+			}
+		}
+
+		return null;
+	}
+
+	public boolean isExhausted() {
+		return _usedWeight.get() >= _maxTotalWeight;
+	}
+
+	public long getUsedWeight() {
+		return _usedWeight.get();
+	}
+
+	public long getMaxTotalWeight() {
+		return _maxTotalWeight;
+	}
+}
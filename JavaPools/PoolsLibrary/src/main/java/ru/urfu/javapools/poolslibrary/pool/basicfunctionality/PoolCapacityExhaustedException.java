@@ -0,0 +1,21 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import ru.urfu.javapools.poolslibrary.controller.PoolException;
+
+@SuppressWarnings("serial")
+public class PoolCapacityExhaustedException extends PoolException {
+
+	private long _maxTotalWeight;
+
+	private static final String _MESSAGE_PATTERN = "Object with key='%s' wasn't created because pool-wide" +
+												   " capacity %s is exhausted and no idle object of other keys can be evicted";
+
+	public PoolCapacityExhaustedException (Object key, long maxTotalWeight) {
+		super(key,String.format(_MESSAGE_PATTERN, key, maxTotalWeight));
+		_maxTotalWeight = maxTotalWeight;
+	}
+
+	public long getMaxTotalWeight() {
+		return _maxTotalWeight;
+	}
+}
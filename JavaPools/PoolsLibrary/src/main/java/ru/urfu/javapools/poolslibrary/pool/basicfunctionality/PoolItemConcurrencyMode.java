@@ -0,0 +1,37 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IAvailableObjectsStorageFactory;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.LockFreePoolItem;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsCapacity;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItem;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItemSettings;
+
+public enum PoolItemConcurrencyMode {
+
+	LOCK_BASED,
+	LOCK_FREE;
+
+	public <TK,TV> IPoolItem<TK,TV> createPoolItem(PoolItemSettings<TK> settings,
+												   LoadBalancingStrategy balancingStrategy,
+												   IPoolObjectActions<TV> objectActions) {
+		return createPoolItem(settings, balancingStrategy, objectActions, new ObjectsCapacity(settings::getMaxObjectsCount));
+	}
+
+	public <TK,TV> IPoolItem<TK,TV> createPoolItem(PoolItemSettings<TK> settings,
+												   LoadBalancingStrategy balancingStrategy,
+												   IPoolObjectActions<TV> objectActions,
+												   ObjectsCapacity capacity) {
+		switch (this) {
+			case LOCK_FREE:
+				return new LockFreePoolItem<TK,TV>(settings, balancingStrategy, objectActions, capacity);
+			case LOCK_BASED:
+			default:
+				IAvailableObjectsStorageFactory storageFactory = settings.getAvailableObjectsStorageFactory() != null
+																 ? settings.getAvailableObjectsStorageFactory()
+																 : balancingStrategy;
+				return new PoolItem<TK,TV>(settings, storageFactory.createStorage(settings.getObjectsTrackingMode()), objectActions, capacity);
+		}
+	}
+}
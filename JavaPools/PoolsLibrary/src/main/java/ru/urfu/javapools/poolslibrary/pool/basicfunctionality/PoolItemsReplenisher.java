@@ -0,0 +1,144 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+
+public class PoolItemsReplenisher<TK,TV> implements AutoCloseable {
+
+	private final int _minIdleObjectsCount;
+	private final int _lowWatermark;
+
+	private final ThreadPoolExecutor _creatingExecutor;
+	private final Set<TK> _keysBeingReplenished = ConcurrentHashMap.newKeySet();
+
+	private static final int _SECONDS_TO_KEEP_IDLE_THREAD = 30;
+	private static final String _THREAD_NAME = "pool-items-replenisher";
+
+	public PoolItemsReplenisher(int minIdleObjectsCount, int lowWatermark, int threadsCount) {
+
+		if (threadsCount <= 0)
+			throw new IllegalArgumentException("Replenishing threads count must be positive");
+
+		_minIdleObjectsCount = Math.max(minIdleObjectsCount, 0);
+		_lowWatermark = lowWatermark > 0 ? Math.min(lowWatermark, _minIdleObjectsCount) : _minIdleObjectsCount;
+
+		// threads are started on demand and die when idle, so a pool that is never prewarmed costs nothing
+		_creatingExecutor = new ThreadPoolExecutor(threadsCount, threadsCount,
+												   _SECONDS_TO_KEEP_IDLE_THREAD, TimeUnit.SECONDS,
+												   new LinkedBlockingQueue<Runnable>(),
+												   runnable -> {
+													   Thread thread = new Thread(runnable, _THREAD_NAME);
+													   thread.setDaemon(true);
+													   return thread;
+												   });
+		_creatingExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	public boolean needsReplenishing(IPoolItem<TK,TV> poolItem) {
+		return poolItem.getAvailableObjectsCount() < _lowWatermark;
+	}
+
+	public void replenish(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK,TV> createDelegate) {
+		replenish(key, poolItem, createDelegate, null);
+	}
+
+	public void replenish(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK,TV> createDelegate, Runnable onReplenished) {
+
+		if (createDelegate == null || !_keysBeingReplenished.add(key))
+			return;
+
+		int missingCount = _minIdleObjectsCount - poolItem.getAvailableObjectsCount();
+		if (missingCount <= 0) {
+			finishReplenishing(key, onReplenished);
+			return;
+		}
+
+		AtomicInteger unfinishedCount = new AtomicInteger(missingCount);
+		for (int i = 0; i < missingCount; i++) {
+			try {
+				_creatingExecutor.execute(() -> {
+					try {
+						poolItem.tryCreateIdleObject(createDelegate);
+					} catch (ObjectCreationFailedException e) {
+					} finally {
+						if (unfinishedCount.decrementAndGet() == 0)
+							finishReplenishing(key, onReplenished);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				if (unfinishedCount.addAndGet(i - missingCount) == 0)
+					finishReplenishing(key, onReplenished);
+				return;
+			}
+		}
+	}
+
+	public void prewarm(Map<TK, IPoolItem<TK,TV>> keyToPoolItem, int countPerKey, FunctionThatMayThrow<TK,TV> createDelegate)
+		throws ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		List<TK> creationKeys = new ArrayList<TK>();
+		List<Future<Boolean>> creations = new ArrayList<Future<Boolean>>();
+		for (Map.Entry<TK, IPoolItem<TK,TV>> keyAndPoolItem : keyToPoolItem.entrySet()) {
+			IPoolItem<TK,TV> poolItem = keyAndPoolItem.getValue();
+			int missingCount = countPerKey - poolItem.getAvailableObjectsCount();
+			for (int i = 0; i < missingCount; i++) {
+				creationKeys.add(keyAndPoolItem.getKey());
+				creations.add(_creatingExecutor.submit(() -> poolItem.tryCreateIdleObject(createDelegate)));
+			}
+		}
+
+		ObjectCreationFailedException firstFailure = null;
+		for (int i = 0; i < creations.size(); i++) {
+			try {
+				creations.get(i).get();
+			} catch (InterruptedException e) {
+				for (Future<Boolean> creation : creations)
+					creation.cancel(false);
+				throw new PoolObjectObtainingInterruptedException(creationKeys.get(i), e);
+			} catch (ExecutionException e) {
+				if (firstFailure == null)
+					firstFailure = e.getCause() instanceof ObjectCreationFailedException
+								   ? (ObjectCreationFailedException) e.getCause()
+								   : new ObjectCreationFailedException(creationKeys.get(i), createDelegate, e.getCause());
+			}
+		}
+
+		if (firstFailure != null)
+			throw firstFailure;
+	}
+
+	public int getMinIdleObjectsCount() {
+		return _minIdleObjectsCount;
+	}
+
+	public int getLowWatermark() {
+		return _lowWatermark;
+	}
+
+	@Override
+	public void close() {
+		_creatingExecutor.shutdownNow();
+	}
+
+	private void finishReplenishing(TK key, Runnable onReplenished) {
+
+		if (onReplenished != null)
+			onReplenished.run();
+		_keysBeingReplenished.remove(key);
+	}
+}
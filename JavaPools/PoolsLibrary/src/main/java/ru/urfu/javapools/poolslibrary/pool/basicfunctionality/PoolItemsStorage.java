@@ -1,41 +1,93 @@
 package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.lang.MyReference;
+import ru.urfu.javapools.poolslibrary.lang.ObtainingFutures;
 import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.objectactions.ObjectsDestroyer;
 import ru.urfu.javapools.poolslibrary.objectutilization.GoneObjectEvent;
 import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizationListener;
 import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizer;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
-import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItem;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItemSettings;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.StripedPoolItem;
 
 public class PoolItemsStorage<TK,TV> implements IPool<TK,TV>,
 												IObjectUtilizationListener<TK,TV> {
 	
 	private final PoolItemsStorageSettings _settings;
-	private final ConcurrentHashMap<TK,PoolItem<TK,TV>> _keyToPoolItem;
+	private final ConcurrentHashMap<TK,IPoolItem<TK,TV>> _keyToPoolItem;
 	
 	private final IPoolObjectActions<TV> _objectActions;
     private final IObjectUtilizer<TK, TV> _objectUtilizer;
+    private final PoolCapacityBudget<TK, TV> _capacityBudget;
+    private final PoolItemsReplenisher<TK, TV> _replenisher;
+    private final ConcurrentHashMap<TK, FunctionThatMayThrow<TK, TV>> _keyToLastCreateDelegate;
+    private final ConcurrentHashMap<TK, ObjectCreationCircuitBreaker> _keyToCircuitBreaker;
+    private final ConcurrentHashMap<TK, TokenBucketRateLimiter> _keyToCreationRateLimiter;
+    private final TokenBucketRateLimiter _poolCreationRateLimiter;
+    private final ConcurrentHashMap<TK, CompletableFuture<TV>> _keyToSharedObjectCreation;
+    private final ConcurrentHashMap<TK, PolicyValidatingObjectActions<TV>> _keyToValidatingObjectActions;
+    private final Thread _validatingThread;
+    private final ObjectsDestroyer<TV> _objectsDestroyer;
+
+	private static final long _NO_TIMEOUT = -1;
+	private static final String _VALIDATING_THREAD_NAME = "pool-objects-validator";
+	private static final int _MILLS_TO_JOIN_VALIDATING_THREAD = 1000;
 	
 	public PoolItemsStorage (PoolItemsStorageSettings settings,
             				 IPoolObjectActions<TV> objectActions,
             				 IObjectUtilizer<TK, TV> objectUtilizer) {
+		this(settings, objectActions, objectUtilizer, null);
+	}
+
+	public PoolItemsStorage (PoolItemsStorageSettings settings,
+							 IPoolObjectActions<TV> objectActions,
+							 IObjectUtilizer<TK, TV> objectUtilizer,
+							 PoolCapacityBudget<TK, TV> capacityBudget) {
 		_settings = settings;
-		_objectActions = objectActions;
+		_objectsDestroyer = settings.getObjectsDestroyerSettings() != null
+							? new ObjectsDestroyer<TV>(objectActions, settings.getObjectsDestroyerSettings())
+							: null;
+		IPoolObjectActions<TV> destroyingObjectActions = _objectsDestroyer != null ? _objectsDestroyer : objectActions;
+		_objectActions = capacityBudget == null ? destroyingObjectActions : new BudgetUnchargingObjectActions(destroyingObjectActions);
 		_objectUtilizer = objectUtilizer;
+		_capacityBudget = capacityBudget;
+		_replenisher = new PoolItemsReplenisher<TK, TV>(settings.getMinIdleObjectsCountPerKey(),
+														settings.getIdleObjectsLowWatermarkPerKey(),
+														settings.getReplenishingThreadsCount());
+		_keyToLastCreateDelegate = new ConcurrentHashMap<TK, FunctionThatMayThrow<TK, TV>>();
+		_keyToCircuitBreaker = new ConcurrentHashMap<TK, ObjectCreationCircuitBreaker>();
+		_keyToCreationRateLimiter = new ConcurrentHashMap<TK, TokenBucketRateLimiter>();
+		_poolCreationRateLimiter = settings.getMaxCreationsPerSecond() > 0
+								   ? new TokenBucketRateLimiter(settings.getMaxCreationsPerSecond(), settings.getCreationsBurst())
+								   : null;
+		_keyToSharedObjectCreation = new ConcurrentHashMap<TK, CompletableFuture<TV>>();
+		_keyToValidatingObjectActions = new ConcurrentHashMap<TK, PolicyValidatingObjectActions<TV>>();
 		
-		_keyToPoolItem = new ConcurrentHashMap<TK, PoolItem<TK,TV>>();
+		_keyToPoolItem = new ConcurrentHashMap<TK, IPoolItem<TK,TV>>();
 		_objectUtilizer.addListener(this);
+
+		_validatingThread = settings.getBackgroundValidationPeriodInMillis() > 0 ? startValidatingThread() : null;
 	}
 	
 	@Override
@@ -43,48 +95,516 @@ public class PoolItemsStorage<TK,TV> implements IPool<TK,TV>,
 		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
 			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
 			
-		PoolItem<TK,TV> poolItem = _keyToPoolItem.computeIfAbsent(key, this::createPoolItem);
-		return poolItem.obtain(createDelegateIfNoObjectIsAvailable);
+		IPoolItem<TK,TV> poolItem = _keyToPoolItem.computeIfAbsent(key, this::createPoolItem);
+		failFastIfCircuitIsOpen(key, poolItem);
+
+		TV obtained;
+		try {
+			obtained = rememberObtained(obtainFromPoolItem(key, poolItem, createDelegateIfNoObjectIsAvailable, _NO_TIMEOUT));
+		} catch (ObjectCreationFailedException e) {
+			throw unwrapCreationRejection(e);
+		}
+		replenishIfNeeded(key, poolItem, createDelegateIfNoObjectIsAvailable);
+		return obtained;
+	}
+
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		IPoolItem<TK,TV> poolItem = _keyToPoolItem.computeIfAbsent(key, this::createPoolItem);
+		failFastIfCircuitIsOpen(key, poolItem);
+
+		TV obtained;
+		try {
+			obtained = rememberObtained(obtainFromPoolItem(key, poolItem, createDelegateIfNoObjectIsAvailable, unit.toNanos(timeout)));
+		} catch (ObjectCreationFailedException e) {
+			throw unwrapCreationRejection(e);
+		}
+		replenishIfNeeded(key, poolItem, createDelegateIfNoObjectIsAvailable);
+		return obtained;
 	}
 
 	@Override
-	public void release(TK key, TV objectToRelease)	throws InvalidPoolOperationException {
+	public List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		IPoolItem<TK,TV> poolItem = _keyToPoolItem.computeIfAbsent(key, this::createPoolItem);
+		failFastIfCircuitIsOpen(key, poolItem);
+
+		PreCreatedObjects<TK,TV> preCreated = createDelegateIfNoObjectIsAvailable instanceof BatchCreateDelegate
+											  ? ((BatchCreateDelegate<TK,TV>) createDelegateIfNoObjectIsAvailable)
+												.startBatch(count - poolItem.getAvailableObjectsCount())
+											  : null;
+		List<TV> obtained;
+		try {
+			obtained = poolItem.obtainMany(count, mode, guardCreation(preCreated != null ? preCreated : createDelegateIfNoObjectIsAvailable));
+		} catch (ObjectCreationFailedException e) {
+			throw unwrapCreationRejection(e);
+		} finally {
+			if (preCreated != null)
+				keepUnusedAsIdle(poolItem, preCreated);
+		}
+		for (TV obtainedObject : obtained)
+			rememberObtained(obtainedObject);
+		replenishIfNeeded(key, poolItem, createDelegateIfNoObjectIsAvailable);
+		return obtained;
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+
+		IPoolItem<TK,TV> poolItem = _keyToPoolItem.computeIfAbsent(key, this::createPoolItem);
+		try {
+			failFastIfCircuitIsOpen(key, poolItem);
+		} catch (CircuitBreakerOpenException e) {
+			return ObtainingFutures.failed(e);
+		}
+
+		CompletableFuture<TV> obtaining = poolItem.obtainAsync(guardCreation(createDelegateIfNoObjectIsAvailable));
+		if (_capacityBudget != null)
+			obtaining.thenAccept(this::rememberObtained);
+		replenishIfNeeded(key, poolItem, createDelegateIfNoObjectIsAvailable);
+		return obtaining;
+	}
+
+	public void prewarm(Collection<TK> keys, int countPerKey, FunctionThatMayThrow<TK, TV> createDelegate)
+		throws ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		LinkedHashMap<TK, IPoolItem<TK,TV>> keyToPoolItem = new LinkedHashMap<TK, IPoolItem<TK,TV>>();
+		Map<TK, PreCreatedObjects<TK,TV>> keyToPreCreated = new HashMap<TK, PreCreatedObjects<TK,TV>>();
+		for (TK key : keys) {
+			IPoolItem<TK,TV> poolItem = _keyToPoolItem.computeIfAbsent(key, this::createPoolItem);
+			keyToPoolItem.put(key, poolItem);
+			_keyToLastCreateDelegate.put(key, createDelegate);
+			if (createDelegate instanceof BatchCreateDelegate)
+				keyToPreCreated.put(key, ((BatchCreateDelegate<TK,TV>) createDelegate)
+										 .startBatch(countPerKey - poolItem.getAvailableObjectsCount()));
+		}
+
+		FunctionThatMayThrow<TK, TV> oneByOneCreateDelegate = keyToPreCreated.isEmpty()
+															  ? createDelegate
+															  : key -> keyToPreCreated.get(key).apply(key);
+		try {
+			_replenisher.prewarm(keyToPoolItem, countPerKey, asIdleObjectsCreator(withCircuitBreaker(withCapacityBudget(oneByOneCreateDelegate))));
+		} finally {
+			for (Map.Entry<TK, PreCreatedObjects<TK,TV>> keyAndPreCreated : keyToPreCreated.entrySet())
+				keepUnusedAsIdle(keyToPoolItem.get(keyAndPreCreated.getKey()), keyAndPreCreated.getValue());
+		}
+	}
+
+	@Override
+	public void release(TK key, TV objectToRelease)	throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		if (_capacityBudget != null)
+			_capacityBudget.onObjectReleased(key, objectToRelease);
+		releaseIfShared(key, objectToRelease);
+	}
+	
+	@Override
+	public void releaseAll(TK key, Collection<TV> objectsToRelease) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		for (TV objectToRelease : objectsToRelease) {
+			if (_capacityBudget != null)
+				_capacityBudget.onObjectReleased(key, objectToRelease);
+			releaseIfShared(key, objectToRelease);
+		}
 	}
 	
 	@Override
 	public void onObjectUtilization(GoneObjectEvent<TK,TV> goneObjectEvent) {
 		
-		PoolItem<TK,TV> poolItem = _keyToPoolItem.get(goneObjectEvent.getKey());
-		if (poolItem != null)
-			poolItem.markObjectForKilling(goneObjectEvent.getPoolObject());
+		IPoolItem<TK,TV> poolItem = _keyToPoolItem.get(goneObjectEvent.getKey());
+		if (poolItem == null)
+			return;
+
+		poolItem.markObjectForKilling(goneObjectEvent.getPoolObject());
+		replenishIfNeeded(goneObjectEvent.getKey(), poolItem, null);
 	}	
 	
 	@Override
 	public void close()	throws Exception {
 		
 		_objectUtilizer.removeListener(this);
+		_replenisher.close();
+		if (_validatingThread != null) {
+			_validatingThread.interrupt();
+			_validatingThread.join(_MILLS_TO_JOIN_VALIDATING_THREAD);
+		}
 		
-		for (PoolItem<TK,TV> poolItem : _keyToPoolItem.values())
+		for (IPoolItem<TK,TV> poolItem : _keyToPoolItem.values())
 			poolItem.close();
+		if (_objectsDestroyer != null)
+			_objectsDestroyer.close();
 	
 		//_keyToPoolItem.values().parallelStream().forEach(poolItem -> poolItem.close());
 	}	
 
 	@Override
-	public ConcurrentMap<TK, PoolItem<TK, TV>> getKeyToPoolItem() {
+	public ConcurrentMap<TK, IPoolItem<TK, TV>> getKeyToPoolItem() {
 		return _keyToPoolItem;
 	}
+
+	public ObjectsDestroyer<TV> getObjectsDestroyer() {
+		return _objectsDestroyer;
+	}
+
+	@Override
+	public CircuitBreakerState getCircuitBreakerState(TK key) {
+
+		ObjectCreationCircuitBreaker circuitBreaker = _keyToCircuitBreaker.get(key);
+		return circuitBreaker == null ? CircuitBreakerState.CLOSED : circuitBreaker.getState();
+	}
+
+	public PoolCapacityBudget<TK, TV> getCapacityBudget() {
+		return _capacityBudget;
+	}
+
+	// shared objects stay available while used, so their items only learn that one user fewer is on them
+	private void releaseIfShared(TK key, TV objectToRelease) throws PoolObjectReleasingInterruptedException {
+
+		if (_settings.getAllowOnlyOneUserPerObject())
+			return;
+
+		IPoolItem<TK,TV> poolItem = _keyToPoolItem.get(key);
+		if (poolItem != null)
+			poolItem.releaseShared(objectToRelease);
+	}
+
+	private void replenishIfNeeded(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegate) {
+
+		if (_replenisher.getMinIdleObjectsCount() == 0)
+			return;
+
+		if (createDelegate == null)
+			createDelegate = _keyToLastCreateDelegate.get(key);
+		else if (_keyToLastCreateDelegate.get(key) != createDelegate)
+			_keyToLastCreateDelegate.put(key, createDelegate);
+
+		if (createDelegate == null || !_replenisher.needsReplenishing(poolItem))
+			return;
+
+		if (!(createDelegate instanceof BatchCreateDelegate)) {
+			_replenisher.replenish(key, poolItem, asIdleObjectsCreator(guardCreation(createDelegate)));
+			return;
+		}
+
+		PreCreatedObjects<TK,TV> preCreated = ((BatchCreateDelegate<TK,TV>) createDelegate)
+											  .startBatch(_replenisher.getMinIdleObjectsCount() - poolItem.getAvailableObjectsCount());
+		_replenisher.replenish(key, poolItem, asIdleObjectsCreator(guardCreation(preCreated)),
+							   () -> keepUnusedAsIdle(poolItem, preCreated));
+	}
+
+	// object the item doesn't keep is closed here, unless the budget rejected it after it was handed over and closed it itself
+	private void keepUnusedAsIdle(IPoolItem<TK,TV> poolItem, PreCreatedObjects<TK,TV> preCreated) {
+
+		for (TV unused : preCreated.takeUnused()) {
+			MyReference<Boolean> isHandedOver = new MyReference<Boolean>(false);
+			try {
+				if (poolItem.tryCreateIdleObject(asIdleObjectsCreator(withCapacityBudget(key -> {
+						isHandedOver.set(true);
+						return unused;
+					}))))
+					continue;
+			} catch (ObjectCreationFailedException e) {
+				if (isHandedOver.get())
+					continue;
+			}
+			_objectActions.close(unused);
+		}
+	}
+
+	private FunctionThatMayThrow<TK, TV> asIdleObjectsCreator(FunctionThatMayThrow<TK, TV> guardedCreateDelegate) {
+
+		if (_capacityBudget == null)
+			return guardedCreateDelegate;
+
+		return key -> {
+			TV created = guardedCreateDelegate.apply(key);
+			_capacityBudget.onObjectReleased(key, created);
+			return created;
+		};
+	}
+
+	// open circuit rejects before a creation permit is taken and an idle object of other key is evicted for nothing
+	private FunctionThatMayThrow<TK, TV> guardCreation(FunctionThatMayThrow<TK, TV> createDelegate) {
+		return withCircuitBreaker(withRateLimit(withCapacityBudget(createDelegate)));
+	}
+
+	private FunctionThatMayThrow<TK, TV> withRateLimit(FunctionThatMayThrow<TK, TV> createDelegate) {
+
+		if (_settings.getMaxCreationsPerSecondPerKey() <= 0 && _poolCreationRateLimiter == null || createDelegate == null)
+			return createDelegate;
+
+		return key -> {
+			TokenBucketRateLimiter keyRateLimiter = getCreationRateLimiter(key);
+			if (keyRateLimiter != null && !keyRateLimiter.tryAcquire())
+				throw new CreationRateLimitExceededException(key);
+			if (_poolCreationRateLimiter != null && !_poolCreationRateLimiter.tryAcquire()) {
+				if (keyRateLimiter != null)
+					keyRateLimiter.refund();
+				throw new CreationRateLimitExceededException(key);
+			}
+			return createDelegate.apply(key);
+		};
+	}
+
+	private TV obtainFromPoolItem(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegate, long timeoutInNanos)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		if (_settings.getAllowOnlyOneUserPerObject() || createDelegate == null || poolItem.getAvailableObjectsCount() > 0)
+			return obtainFromPoolItemDirectly(key, poolItem, guardCreation(createDelegate), timeoutInNanos);
+
+		return obtainCreatingSharedObjectOnce(key, poolItem, guardCreation(createDelegate), timeoutInNanos);
+	}
+
+	private TV obtainFromPoolItemDirectly(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegate, long timeoutInNanos)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		return timeoutInNanos == _NO_TIMEOUT
+			   ? poolItem.obtain(createDelegate)
+			   : obtainWithinRateLimit(key, poolItem, createDelegate, timeoutInNanos);
+	}
+
+	// shared objects are given to everyone, so concurrent obtains of a key without objects
+	// wait for one creation in flight instead of creating an object each
+	private TV obtainCreatingSharedObjectOnce(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegate, long timeoutInNanos)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		long deadline = System.nanoTime() + timeoutInNanos;
+		boolean isSharingBounded = _settings.getMaxConcurrentUsersPerObject() > 0;
+		while (true) {
+			// users of bounded shared object are counted by its pool item, so waiters take their share from there
+			if (isSharingBounded && poolItem.getAvailableObjectsCount() > 0)
+				return obtainFromPoolItemDirectly(key, poolItem, createDelegate, timeoutInNanos == _NO_TIMEOUT
+																				 ? _NO_TIMEOUT
+																				 : Math.max(0, deadline - System.nanoTime()));
+
+			CompletableFuture<TV> creation = new CompletableFuture<TV>();
+			CompletableFuture<TV> creationInFlight = _keyToSharedObjectCreation.putIfAbsent(key, creation);
+
+			if (creationInFlight == null)
+				try {
+					TV obtained = obtainFromPoolItemDirectly(key, poolItem, createDelegate, timeoutInNanos == _NO_TIMEOUT
+																							 ? _NO_TIMEOUT
+																							 : Math.max(0, deadline - System.nanoTime()));
+					creation.complete(obtained);
+					return obtained;
+				} catch (NoAvailableObjectException | ObjectsMaxCountReachedException
+						 | ObjectCreationFailedException | PoolObjectObtainingInterruptedException | RuntimeException e) {
+					creation.completeExceptionally(e);
+					throw e;
+				} finally {
+					_keyToSharedObjectCreation.remove(key, creation);
+				}
+
+			try {
+				TV created = timeoutInNanos == _NO_TIMEOUT
+							 ? creationInFlight.get()
+							 : creationInFlight.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				if (!isSharingBounded)
+					return created;
+			} catch (ExecutionException e) {
+				// only creation failure is shared, other failures are specific to the creating caller
+				if (e.getCause() instanceof ObjectCreationFailedException)
+					throw (ObjectCreationFailedException) e.getCause();
+			} catch (TimeoutException e) {
+				throw new NoAvailableObjectException(key);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new PoolObjectObtainingInterruptedException(key, e);
+			}
+		}
+	}
+
+	// caller that is not allowed to create waits for a released object until the next creation permit
+	private TV obtainWithinRateLimit(TK key, IPoolItem<TK,TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegate, long timeoutInNanos)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		long deadline = System.nanoTime() + timeoutInNanos;
+		while (true) {
+			try {
+				return poolItem.obtain(createDelegate, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (ObjectCreationFailedException e) {
+				if (!(e.getCause() instanceof CreationRateLimitExceededException) || deadline - System.nanoTime() <= 0)
+					throw e;
+			}
+
+			long nanosToWait = Math.min(Math.max(0, deadline - System.nanoTime()), getNanosUntilNextCreationPermit(key));
+			try {
+				return poolItem.obtain(null, nanosToWait, TimeUnit.NANOSECONDS);
+			} catch (NoAvailableObjectException e) {}
+		}
+	}
+
+	private long getNanosUntilNextCreationPermit(TK key) {
+
+		TokenBucketRateLimiter keyRateLimiter = getCreationRateLimiter(key);
+		long keyNanos = keyRateLimiter == null ? 0 : keyRateLimiter.getNanosUntilNextPermit();
+		long poolNanos = _poolCreationRateLimiter == null ? 0 : _poolCreationRateLimiter.getNanosUntilNextPermit();
+		return Math.max(keyNanos, poolNanos);
+	}
+
+	private TokenBucketRateLimiter getCreationRateLimiter(TK key) {
+
+		if (_settings.getMaxCreationsPerSecondPerKey() <= 0)
+			return null;
+		return _keyToCreationRateLimiter.computeIfAbsent(key, k -> new TokenBucketRateLimiter(_settings.getMaxCreationsPerSecondPerKey(),
+																							   _settings.getCreationsBurstPerKey()));
+	}
+
+	private FunctionThatMayThrow<TK, TV> withCircuitBreaker(FunctionThatMayThrow<TK, TV> createDelegate) {
+
+		if (_settings.getCircuitBreakerFailuresThreshold() <= 0 || createDelegate == null)
+			return createDelegate;
+
+		return key -> _keyToCircuitBreaker.computeIfAbsent(key, this::createCircuitBreaker).create(key, createDelegate);
+	}
+
+	private void failFastIfCircuitIsOpen(TK key, IPoolItem<TK,TV> poolItem) throws CircuitBreakerOpenException {
+
+		ObjectCreationCircuitBreaker circuitBreaker = _keyToCircuitBreaker.get(key);
+		if (circuitBreaker != null && circuitBreaker.isRejecting() && poolItem.getAvailableObjectsCount() == 0)
+			throw new CircuitBreakerOpenException(key);
+	}
+
+	private static ObjectCreationFailedException unwrapCreationRejection(ObjectCreationFailedException e) {
+		return e.getCause() instanceof ObjectCreationRejectedException ? (ObjectCreationRejectedException) e.getCause() : e;
+	}
+
+	private ObjectCreationCircuitBreaker createCircuitBreaker(TK key) {
+		return new ObjectCreationCircuitBreaker(_settings.getCircuitBreakerFailuresThreshold(),
+												_settings.getCircuitBreakerOpenStateDurationInMillis(),
+												_settings.getCircuitBreakerTrialCreationsCount());
+	}
+
+	private FunctionThatMayThrow<TK, TV> withCapacityBudget(FunctionThatMayThrow<TK, TV> createDelegate) {
+
+		if (_capacityBudget == null || createDelegate == null)
+			return createDelegate;
+
+		return key -> {
+			while (_capacityBudget.isExhausted())
+				if (!tryEvictIdleObjectOfOtherKey(key))
+					throw new PoolCapacityExhaustedException(key, _capacityBudget.getMaxTotalWeight());
+
+			TV created = createDelegate.apply(key);
+
+			// weight is known only after creation, so charging is retried until it fits or nothing is left to evict
+			while (!_capacityBudget.tryCharge(created))
+				if (!tryEvictIdleObjectOfOtherKey(key)) {
+					_objectActions.close(created);
+					throw new PoolCapacityExhaustedException(key, _capacityBudget.getMaxTotalWeight());
+				}
+
+			return created;
+		};
+	}
+
+	private boolean tryEvictIdleObjectOfOtherKey(TK key) {
+
+		Map.Entry<TK, TV> leastRecentlyUsed;
+		while ((leastRecentlyUsed = _capacityBudget.pollLeastRecentlyUsedIdleObject(key)) != null) {
+			IPoolItem<TK, TV> poolItem = _keyToPoolItem.get(leastRecentlyUsed.getKey());
+			if (poolItem != null && poolItem.evictIfAvailable(leastRecentlyUsed.getValue()))
+				return true;
+		}
+
+		return false;
+	}
+
+	private TV rememberObtained(TV obtained) {
+
+		if (_capacityBudget != null)
+			_capacityBudget.onObjectObtained(obtained);
+		return obtained;
+	}
 	
-    private PoolItem<TK, TV> createPoolItem(TK key) {
+    private IPoolItem<TK, TV> createPoolItem(TK key) {
     	
     	PoolItemSettings<TK> poolItemSettings = new PoolItemSettings<TK>() {{
     		setKey(key);
     		setMarkObtainedObjectAsNotAvailable(_settings.getAllowOnlyOneUserPerObject());
+    		setMaxConcurrentUsersPerObject(_settings.getMaxConcurrentUsersPerObject());
     		setMaxObjectsCount(_settings.getMaxObjectsCountPerKey());
+    		setObjectsTrackingMode(_settings.getObjectsTrackingMode());
+    		setAvailableObjectsStorageFactory(_settings.getAvailableObjectsStorageFactory());
         }};
+        LoadBalancingStrategy balancingStrategy = poolItemSettings.getIsSharingBounded()
+        										  ? LoadBalancingStrategy.LEAST_LOADED
+        										  : _settings.getBalancingStrategy();
+        IPoolObjectActions<TV> objectActions = _settings.getValidationMode() == ObjectValidationMode.ALWAYS
+        									   && _settings.getBackgroundValidationPeriodInMillis() <= 0
+        									   ? _objectActions
+        									   : _keyToValidatingObjectActions.computeIfAbsent(key, k -> new PolicyValidatingObjectActions<TV>(_objectActions, _settings));
         
-        Collection<TV> availableObjectsStorage = _settings.getBalancingStrategy().createStorage();
+        if (_settings.getStripesCountPerKey() > 1)
+        	return new StripedPoolItem<TK,TV>(poolItemSettings, _settings.getStripesCountPerKey(),
+        									  _settings.getConcurrencyMode(), balancingStrategy, objectActions);
 
-        return new PoolItem<TK, TV>(poolItemSettings, availableObjectsStorage, _objectActions);
+        return _settings.getConcurrencyMode().createPoolItem(poolItemSettings, balancingStrategy, objectActions);
     }
+
+	private Thread startValidatingThread() {
+
+		Thread validatingThread = new Thread(() -> {
+			while (!Thread.interrupted()) {
+				try {
+					Thread.sleep(_settings.getBackgroundValidationPeriodInMillis());
+				} catch (InterruptedException e) {
+					break;
+				}
+				utilizeInvalidObjects();
+			}
+		}, _VALIDATING_THREAD_NAME);
+		validatingThread.setDaemon(true);
+		validatingThread.start();
+		return validatingThread;
+	}
+
+	private void utilizeInvalidObjects() {
+
+		for (Map.Entry<TK, PolicyValidatingObjectActions<TV>> keyAndObjectActions : _keyToValidatingObjectActions.entrySet()) {
+
+			IPoolItem<TK, TV> poolItem = _keyToPoolItem.get(keyAndObjectActions.getKey());
+			if (poolItem != null)
+				keyAndObjectActions.getValue().evictInvalidObjects(poolItem);
+		}
+	}
+
+	private class BudgetUnchargingObjectActions implements IPoolObjectActions<TV> {
+
+		private final IPoolObjectActions<TV> _objectActions;
+
+		public BudgetUnchargingObjectActions(IPoolObjectActions<TV> objectActions) {
+			_objectActions = objectActions;
+		}
+
+		@Override
+		public boolean isValid(TV poolObject) {
+			return _objectActions.isValid(poolObject);
+		}
+
+		@Override
+		public boolean ping(TV poolObject) {
+			return _objectActions.ping(poolObject);
+		}
+
+		@Override
+		public boolean reset(TV poolObject) {
+			return _objectActions.reset(poolObject);
+		}
+
+		@Override
+		public void close(TV poolObject) {
+			_objectActions.close(poolObject);
+			_capacityBudget.uncharge(poolObject);
+		}
+	}
 }
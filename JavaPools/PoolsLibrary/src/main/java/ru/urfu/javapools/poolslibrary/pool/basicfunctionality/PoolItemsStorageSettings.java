@@ -1,10 +1,33 @@
 package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
 
+import ru.urfu.javapools.poolslibrary.objectactions.ObjectsDestroyerSettings;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IAvailableObjectsStorageFactory;
+
 public class PoolItemsStorageSettings {
 	
 	private LoadBalancingStrategy _balancingStrategy;
 	private boolean _allowOnlyOneUserPerObject;
+	private int _maxConcurrentUsersPerObject;
 	private int _maxObjectsCountPerKey;
+	private PoolItemConcurrencyMode _concurrencyMode = PoolItemConcurrencyMode.LOCK_BASED;
+	private int _stripesCountPerKey = 1;
+	private ObjectsTrackingMode _objectsTrackingMode = ObjectsTrackingMode.BY_EQUALITY;
+	private int _minIdleObjectsCountPerKey;
+	private int _idleObjectsLowWatermarkPerKey;
+	private int _replenishingThreadsCount = Runtime.getRuntime().availableProcessors();
+	private int _circuitBreakerFailuresThreshold;
+	private long _circuitBreakerOpenStateDurationInMillis = 5000;
+	private int _circuitBreakerTrialCreationsCount = 1;
+	private double _maxCreationsPerSecondPerKey;
+	private int _creationsBurstPerKey = 1;
+	private double _maxCreationsPerSecond;
+	private int _creationsBurst = 1;
+	private IAvailableObjectsStorageFactory _availableObjectsStorageFactory;
+	private ObjectValidationMode _validationMode = ObjectValidationMode.ALWAYS;
+	private long _validationIdleThresholdInMillis;
+	private int _checksCountBetweenValidations = 1;
+	private long _backgroundValidationPeriodInMillis;
+	private ObjectsDestroyerSettings _objectsDestroyerSettings;
 	
 	public LoadBalancingStrategy getBalancingStrategy() {
 		return _balancingStrategy;
@@ -14,10 +37,90 @@ public class PoolItemsStorageSettings {
 		return _allowOnlyOneUserPerObject;
 	}
 
+	public int getMaxConcurrentUsersPerObject() {
+		return _maxConcurrentUsersPerObject;
+	}
+
 	public int getMaxObjectsCountPerKey() {
 		return _maxObjectsCountPerKey;
 	}
 
+	public PoolItemConcurrencyMode getConcurrencyMode() {
+		return _concurrencyMode;
+	}
+
+	public int getStripesCountPerKey() {
+		return _stripesCountPerKey;
+	}
+
+	public ObjectsTrackingMode getObjectsTrackingMode() {
+		return _objectsTrackingMode;
+	}
+
+	public int getMinIdleObjectsCountPerKey() {
+		return _minIdleObjectsCountPerKey;
+	}
+
+	public int getIdleObjectsLowWatermarkPerKey() {
+		return _idleObjectsLowWatermarkPerKey;
+	}
+
+	public int getReplenishingThreadsCount() {
+		return _replenishingThreadsCount;
+	}
+
+	public int getCircuitBreakerFailuresThreshold() {
+		return _circuitBreakerFailuresThreshold;
+	}
+
+	public long getCircuitBreakerOpenStateDurationInMillis() {
+		return _circuitBreakerOpenStateDurationInMillis;
+	}
+
+	public int getCircuitBreakerTrialCreationsCount() {
+		return _circuitBreakerTrialCreationsCount;
+	}
+
+	public double getMaxCreationsPerSecondPerKey() {
+		return _maxCreationsPerSecondPerKey;
+	}
+
+	public int getCreationsBurstPerKey() {
+		return _creationsBurstPerKey;
+	}
+
+	public double getMaxCreationsPerSecond() {
+		return _maxCreationsPerSecond;
+	}
+
+	public int getCreationsBurst() {
+		return _creationsBurst;
+	}
+
+	public IAvailableObjectsStorageFactory getAvailableObjectsStorageFactory() {
+		return _availableObjectsStorageFactory;
+	}
+
+	public ObjectValidationMode getValidationMode() {
+		return _validationMode;
+	}
+
+	public long getValidationIdleThresholdInMillis() {
+		return _validationIdleThresholdInMillis;
+	}
+
+	public int getChecksCountBetweenValidations() {
+		return _checksCountBetweenValidations;
+	}
+
+	public long getBackgroundValidationPeriodInMillis() {
+		return _backgroundValidationPeriodInMillis;
+	}
+
+	public ObjectsDestroyerSettings getObjectsDestroyerSettings() {
+		return _objectsDestroyerSettings;
+	}
+
 	public PoolItemsStorageSettings setBalancingStrategy(LoadBalancingStrategy balancingStrategy) {
 		_balancingStrategy = balancingStrategy;
 		return this;
@@ -28,8 +131,104 @@ public class PoolItemsStorageSettings {
 		return this;
 	}
 
+	// applies to shared objects only; 0 means no limit. Bounded shared objects are balanced as least loaded
+	public PoolItemsStorageSettings setMaxConcurrentUsersPerObject(int maxConcurrentUsersPerObject) {
+		_maxConcurrentUsersPerObject = maxConcurrentUsersPerObject;
+		return this;
+	}
+
 	public PoolItemsStorageSettings setMaxObjectsCountPerKey(int maxObjectsCountPerKey) {
 		_maxObjectsCountPerKey = maxObjectsCountPerKey;
 		return this;
 	}	
-}
\ No newline at end of file
+
+	public PoolItemsStorageSettings setConcurrencyMode(PoolItemConcurrencyMode concurrencyMode) {
+		_concurrencyMode = concurrencyMode;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setStripesCountPerKey(int stripesCountPerKey) {
+		_stripesCountPerKey = stripesCountPerKey;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setObjectsTrackingMode(ObjectsTrackingMode objectsTrackingMode) {
+		_objectsTrackingMode = objectsTrackingMode;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setMinIdleObjectsCountPerKey(int minIdleObjectsCountPerKey) {
+		_minIdleObjectsCountPerKey = minIdleObjectsCountPerKey;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setIdleObjectsLowWatermarkPerKey(int idleObjectsLowWatermarkPerKey) {
+		_idleObjectsLowWatermarkPerKey = idleObjectsLowWatermarkPerKey;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setReplenishingThreadsCount(int replenishingThreadsCount) {
+		_replenishingThreadsCount = replenishingThreadsCount;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setCircuitBreakerFailuresThreshold(int circuitBreakerFailuresThreshold) {
+		_circuitBreakerFailuresThreshold = circuitBreakerFailuresThreshold;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setCircuitBreakerOpenStateDurationInMillis(long circuitBreakerOpenStateDurationInMillis) {
+		_circuitBreakerOpenStateDurationInMillis = circuitBreakerOpenStateDurationInMillis;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setCircuitBreakerTrialCreationsCount(int circuitBreakerTrialCreationsCount) {
+		_circuitBreakerTrialCreationsCount = circuitBreakerTrialCreationsCount;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setMaxCreationsPerSecondPerKey(double maxCreationsPerSecondPerKey, int creationsBurstPerKey) {
+		_maxCreationsPerSecondPerKey = maxCreationsPerSecondPerKey;
+		_creationsBurstPerKey = creationsBurstPerKey;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setMaxCreationsPerSecond(double maxCreationsPerSecond, int creationsBurst) {
+		_maxCreationsPerSecond = maxCreationsPerSecond;
+		_creationsBurst = creationsBurst;
+		return this;
+	}
+
+	// replaces storages of the balancing strategy for lock-based pool items
+	public PoolItemsStorageSettings setAvailableObjectsStorageFactory(IAvailableObjectsStorageFactory availableObjectsStorageFactory) {
+		_availableObjectsStorageFactory = availableObjectsStorageFactory;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setValidationMode(ObjectValidationMode validationMode) {
+		_validationMode = validationMode;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setValidationIdleThresholdInMillis(long validationIdleThresholdInMillis) {
+		_validationIdleThresholdInMillis = validationIdleThresholdInMillis;
+		return this;
+	}
+
+	public PoolItemsStorageSettings setChecksCountBetweenValidations(int checksCountBetweenValidations) {
+		_checksCountBetweenValidations = checksCountBetweenValidations;
+		return this;
+	}
+
+	// 0 turns background validation off; it checks only available objects, objects in use are left to their users
+	public PoolItemsStorageSettings setBackgroundValidationPeriodInMillis(long backgroundValidationPeriodInMillis) {
+		_backgroundValidationPeriodInMillis = backgroundValidationPeriodInMillis;
+		return this;
+	}
+
+	// null means objects are closed on the threads that drop them
+	public PoolItemsStorageSettings setObjectsDestroyerSettings(ObjectsDestroyerSettings objectsDestroyerSettings) {
+		_objectsDestroyerSettings = objectsDestroyerSettings;
+		return this;
+	}
+}
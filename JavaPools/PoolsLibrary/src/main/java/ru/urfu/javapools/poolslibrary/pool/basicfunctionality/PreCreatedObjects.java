@@ -0,0 +1,38 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+
+// one-object-per-call view of a batch: the first call creates all expected objects at once,
+// later calls are served from them; whatever is left unused is taken back by the pool
+class PreCreatedObjects<TK,TV> implements FunctionThatMayThrow<TK,TV> {
+
+	private final BatchCreateDelegate<TK,TV> _batchCreateDelegate;
+	private final ArrayDeque<TV> _created = new ArrayDeque<TV>();
+	private int _stillExpectedCount;
+
+	PreCreatedObjects(BatchCreateDelegate<TK,TV> batchCreateDelegate, int expectedCount) {
+		_batchCreateDelegate = batchCreateDelegate;
+		_stillExpectedCount = expectedCount;
+	}
+
+	@Override
+	public synchronized TV apply(TK key) throws Exception {
+
+		if (_created.isEmpty())
+			_created.addAll(_batchCreateDelegate.createMany(key, Math.max(_stillExpectedCount, 1)));
+
+		_stillExpectedCount--;
+		return _created.poll();
+	}
+
+	synchronized List<TV> takeUnused() {
+
+		List<TV> unused = new ArrayList<TV>(_created);
+		_created.clear();
+		return unused;
+	}
+}
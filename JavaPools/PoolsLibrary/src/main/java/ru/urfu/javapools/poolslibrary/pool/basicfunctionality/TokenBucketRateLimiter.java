@@ -0,0 +1,39 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// token bucket kept as a single "theoretical arrival time" (GCRA): a permit is granted
+// if it doesn't push that time further than the burst ahead of now
+public class TokenBucketRateLimiter {
+
+	private final long _permitIntervalInNanos;
+	private final long _burstIntervalInNanos;
+	private final AtomicLong _theoreticalArrivalTime;
+
+	public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+		_permitIntervalInNanos = Math.max(1, (long) (1_000_000_000 / permitsPerSecond));
+		_burstIntervalInNanos = _permitIntervalInNanos * Math.max(burst, 1);
+		_theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+	}
+
+	public boolean tryAcquire() {
+
+		while (true) {
+			long now = System.nanoTime();
+			long arrivalTime = _theoreticalArrivalTime.get();
+			long nextArrivalTime = Math.max(arrivalTime - now, 0) + now + _permitIntervalInNanos;
+			if (nextArrivalTime - now > _burstIntervalInNanos)
+				return false;
+			if (_theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime))
+				return true;
+		}
+	}
+
+	public void refund() {
+		_theoreticalArrivalTime.addAndGet(-_permitIntervalInNanos);
+	}
+
+	public long getNanosUntilNextPermit() {
+		return Math.max(0, _theoreticalArrivalTime.get() + _permitIntervalInNanos - _burstIntervalInNanos - System.nanoTime());
+	}
+}
@@ -0,0 +1,70 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// LIFO while there are persistently more available objects than the threshold (low load), so the surplus stays untouched
+// and ages out as idle; FIFO under high load, so the wear is spread over all objects.
+// Load is an exponential moving average (weight 1/16) of the storage size seen by polls, kept in fixed point
+public class AdaptiveAvailableObjectsStorage<TV> implements IAvailableObjectsStorage<TV> {
+
+	private final ArrayDeque<TV> _objects = new ArrayDeque<TV>();
+	private final int _surplusThreshold;
+	private final boolean _isComparingByIdentity;
+
+	private int _averageSizeOnPolling;
+
+	private static final int _FIXED_POINT_SHIFT = 4;
+
+	public AdaptiveAvailableObjectsStorage(int surplusThreshold, boolean isComparingByIdentity) {
+		_surplusThreshold = surplusThreshold;
+		_isComparingByIdentity = isComparingByIdentity;
+	}
+
+	@Override
+	public boolean add(TV availableObject) {
+		return _objects.add(availableObject);
+	}
+
+	@Override
+	public TV poll() {
+
+		_averageSizeOnPolling += ((_objects.size() << _FIXED_POINT_SHIFT) - _averageSizeOnPolling) >> _FIXED_POINT_SHIFT;
+		return getIsLowLoad() ? _objects.pollLast() : _objects.pollFirst();
+	}
+
+	@Override
+	public boolean remove(Object availableObject) {
+
+		if (!_isComparingByIdentity)
+			return _objects.removeFirstOccurrence(availableObject);
+
+		for (Iterator<TV> objectsIterator = _objects.iterator(); objectsIterator.hasNext(); )
+			if (objectsIterator.next() == availableObject) {
+				objectsIterator.remove();
+				return true;
+			}
+		return false;
+	}
+
+	@Override
+	public boolean contains(Object availableObject) {
+
+		if (!_isComparingByIdentity)
+			return _objects.contains(availableObject);
+
+		for (TV object : _objects)
+			if (object == availableObject)
+				return true;
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return _objects.size();
+	}
+
+	public boolean getIsLowLoad() {
+		return _averageSizeOnPolling >= _surplusThreshold << _FIXED_POINT_SHIFT;
+	}
+}
@@ -0,0 +1,46 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+// objects are given in iteration order of the collection
+public class CollectionAvailableObjectsStorage<TV> implements IAvailableObjectsStorage<TV> {
+
+	private final Collection<TV> _objects;
+
+	public CollectionAvailableObjectsStorage(Collection<TV> objects) {
+		_objects = objects;
+	}
+
+	@Override
+	public boolean add(TV availableObject) {
+		return _objects.add(availableObject);
+	}
+
+	@Override
+	public TV poll() {
+
+		Iterator<TV> objectsIterator = _objects.iterator();
+		if (!objectsIterator.hasNext())
+			return null;
+
+		TV next = objectsIterator.next();
+		objectsIterator.remove();
+		return next;
+	}
+
+	@Override
+	public boolean remove(Object availableObject) {
+		return _objects.remove(availableObject);
+	}
+
+	@Override
+	public boolean contains(Object availableObject) {
+		return _objects.contains(availableObject);
+	}
+
+	@Override
+	public int size() {
+		return _objects.size();
+	}
+}
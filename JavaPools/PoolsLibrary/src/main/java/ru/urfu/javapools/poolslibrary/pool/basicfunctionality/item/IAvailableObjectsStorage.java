@@ -0,0 +1,25 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+// storage of available objects of a lock-based pool item; it's always accessed under the item's lock,
+// so implementations don't need to be thread-safe
+public interface IAvailableObjectsStorage<TV> {
+
+	boolean add(TV availableObject);
+
+	// shared object is made available again while already having users
+	default boolean add(TV sharedObject, int usersCount) {
+		return add(sharedObject);
+	}
+
+	// removes and returns the object to give next, or null if storage is empty
+	TV poll();
+
+	boolean remove(Object availableObject);
+
+	boolean contains(Object availableObject);
+
+	int size();
+
+	// the object was given to one more user while staying available (shared mode) and now that user is done with it
+	default void onSharedObjectReleased(TV sharedObject) {}
+}
@@ -0,0 +1,8 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
+
+public interface IAvailableObjectsStorageFactory {
+
+	<TV> IAvailableObjectsStorage<TV> createStorage(ObjectsTrackingMode trackingMode);
+}
@@ -0,0 +1,56 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+
+public interface IPoolItem<TK,TV> extends AutoCloseable {
+
+	TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException;
+
+	TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException;
+
+	List<TV> obtainMany(int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException;
+
+	CompletableFuture<TV> obtainAsync(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable);
+
+	CompletableFuture<TV> obtainOrEnqueue(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws ObjectCreationFailedException, PoolObjectObtainingInterruptedException;
+
+	TV tryObtainExisting() throws PoolObjectObtainingInterruptedException;
+
+	boolean tryCreateIdleObject(FunctionThatMayThrow<TK, TV> createDelegate) throws ObjectCreationFailedException;
+
+	void release(TV objectToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException;
+
+	void releaseAll(Collection<TV> objectsToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException;
+
+	void releaseShared(TV sharedObject) throws PoolObjectReleasingInterruptedException;
+
+	void markObjectForKilling(TV toKill);
+
+	default boolean evictIfAvailable(TV toEvict) {
+		return evictIfAvailable(toEvict, availableObject -> true);
+	}
+
+	// the condition is checked only while the object is available and can't be given out, so it may take time
+	boolean evictIfAvailable(TV toEvict, Predicate<TV> shouldEvict);
+
+	int getAllObjectsCount();
+
+	int getAvailableObjectsCount();
+}
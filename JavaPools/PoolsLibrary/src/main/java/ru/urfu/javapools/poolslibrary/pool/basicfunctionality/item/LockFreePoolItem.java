@@ -0,0 +1,359 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+
+public class LockFreePoolItem<TK, TV> implements IPoolItem<TK, TV> {
+
+	private final PoolItemSettings<TK> _settings;
+	private final boolean _giveRecentlyReleasedFirst;
+
+	private final ConcurrentLinkedDeque<PoolItemSlot<TV>> _availableSlots = new ConcurrentLinkedDeque<PoolItemSlot<TV>>();
+	private final ConcurrentMap<TV, PoolItemSlot<TV>> _objectToSlot;
+	private final AtomicInteger _allObjectsCount = new AtomicInteger();
+	private final ObjectsCapacity _capacity;
+	private final PoolItemWaiters<TK, TV> _waiters;
+
+	private final IPoolObjectActions<TV> _objectActions;
+
+	private static final String _MESSAGE_MARKING_IS_OFF = "Operation of marking object as available is invalid because marking was ordered to be off";
+	private static final String _MESSAGE_UNMARKING_DECLINED = "Marking object as available has been declined";
+	private static final String _MESSAGE_REASON_CURRENTLY_AVAILABLE = "because it's currently available. Object should be marked as not available first";
+	private static final String _MESSAGE_REASON_STRANGER = "because this object wasn't created by pool, it's a stranger";
+
+	public LockFreePoolItem(PoolItemSettings<TK> settings,
+							LoadBalancingStrategy balancingStrategy,
+							IPoolObjectActions<TV> objectActions,
+							ObjectsCapacity capacity) {
+
+		_settings = settings;
+		// lock-free item tells only LIFO apart, other strategies are given in releasing order
+		_giveRecentlyReleasedFirst = balancingStrategy == LoadBalancingStrategy.INTENSIVE_ON_RECENTLY_USED_OBJECTS;
+		_objectActions = objectActions;
+		_capacity = capacity;
+		_waiters = new PoolItemWaiters<TK, TV>(settings);
+		_objectToSlot = settings.getObjectsTrackingMode().createConcurrentMap();
+	}
+
+	public LockFreePoolItem(PoolItemSettings<TK> settings,
+							LoadBalancingStrategy balancingStrategy,
+							IPoolObjectActions<TV> objectActions) {
+
+		this(settings, balancingStrategy, objectActions, new ObjectsCapacity(settings::getMaxObjectsCount));
+	}
+
+	@Override
+	public TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException {
+
+		PoolItemSlot<TV> slot = tryTakeExistingAvailableSlot();
+		if (slot == null)
+			slot = tryCreateNewSlot(createDelegateIfNoObjectIsAvailable);
+
+		markBeforeGiving(slot);
+		return slot.getObject();
+	}
+
+	@Override
+	public TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		return _waiters.await(this, createDelegateIfNoObjectIsAvailable, timeout, unit);
+	}
+
+	@Override
+	public List<TV> obtainMany(int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		return PoolItemBatches.obtainOneByOne(this, _settings, count, mode, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+		return _waiters.obtainAsync(this, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainOrEnqueue(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws ObjectCreationFailedException {
+
+		PoolItemSlot<TV> slot;
+		while ((slot = tryTakeExistingOrCreateNewSlot(createDelegateIfNoObjectIsAvailable)) == null) {
+
+			CompletableFuture<TV> waiter = _waiters.enqueue();
+			if (_availableSlots.isEmpty() && !canCreateNewSlot(createDelegateIfNoObjectIsAvailable))
+				return waiter;
+
+			_waiters.cancel(waiter);
+		}
+
+		markBeforeGiving(slot);
+		return CompletableFuture.completedFuture(slot.getObject());
+	}
+
+	@Override
+	public TV tryObtainExisting() {
+
+		PoolItemSlot<TV> slot = tryTakeExistingAvailableSlot();
+		if (slot == null)
+			return null;
+
+		markBeforeGiving(slot);
+		return slot.getObject();
+	}
+
+	@Override
+	public boolean tryCreateIdleObject(FunctionThatMayThrow<TK, TV> createDelegate) throws ObjectCreationFailedException {
+
+		if (!_capacity.tryReserve())
+			return false;
+
+		TV created;
+		try {
+			created = createDelegate.apply(_settings.getKey());
+		} catch (Exception e) {
+			_capacity.free();
+			_waiters.signalOne();
+			throw new ObjectCreationFailedException(_settings.getKey(), createDelegate, e);
+		}
+
+		PoolItemSlot<TV> slot = new PoolItemSlot<TV>(created, PoolItemSlotState.AVAILABLE);
+		_objectToSlot.put(created, slot);
+		_allObjectsCount.incrementAndGet();
+		putToAvailable(slot);
+		_waiters.signalOne();
+		return true;
+	}
+
+	@Override
+	public void release(TV objectToUnmark) throws InvalidPoolOperationException {
+
+		if (!_settings.getMarkObtainedObjectAsNotAvailable())
+			throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark, _MESSAGE_MARKING_IS_OFF);
+
+		PoolItemSlot<TV> slot = _objectToSlot.get(objectToUnmark);
+		if (slot == null)
+			throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark,
+													_MESSAGE_UNMARKING_DECLINED + " " + _MESSAGE_REASON_STRANGER);
+
+		while (true) {
+			switch (slot.getState()) {
+				case IN_USE:
+					if (!_objectActions.isValid(objectToUnmark)) {
+						// object may be marked for killing meanwhile, then it's destroyed as such
+						if (slot.tryChangeState(PoolItemSlotState.IN_USE, PoolItemSlotState.CLOSED)) {
+							destroy(slot);
+							return;
+						}
+						break;
+					}
+					if (slot.tryChangeState(PoolItemSlotState.IN_USE, PoolItemSlotState.AVAILABLE)) {
+						putToAvailable(slot);
+						_waiters.signalOne();
+						return;
+					}
+					break;
+				case TO_KILL:
+					if (slot.tryChangeState(PoolItemSlotState.TO_KILL, PoolItemSlotState.CLOSED))
+						destroy(slot);
+					return;
+				case AVAILABLE:
+					throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark,
+															_MESSAGE_UNMARKING_DECLINED + " " + _MESSAGE_REASON_CURRENTLY_AVAILABLE);
+				default:
+					throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark,
+															_MESSAGE_UNMARKING_DECLINED + " " + _MESSAGE_REASON_STRANGER);
+			}
+		}
+	}
+
+	@Override
+	public void releaseAll(Collection<TV> objectsToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+		PoolItemBatches.releaseOneByOne(this, objectsToUnmark);
+	}
+
+	// shared objects aren't counted per user here
+	@Override
+	public void releaseShared(TV sharedObject) {}
+
+	@Override
+	public void markObjectForKilling(TV toKill) {
+
+		PoolItemSlot<TV> slot = _objectToSlot.get(toKill);
+		if (slot == null)
+			return;
+
+		while (true) {
+			switch (slot.getState()) {
+				case AVAILABLE:
+					if (slot.tryChangeState(PoolItemSlotState.AVAILABLE, PoolItemSlotState.CLOSED)) {
+						_availableSlots.remove(slot);
+						destroy(slot);
+						return;
+					}
+					break;
+				case IN_USE:
+					if (slot.tryChangeState(PoolItemSlotState.IN_USE, PoolItemSlotState.TO_KILL))
+						return;
+					break;
+				default:
+					return;
+			}
+		}
+	}
+
+	// shared object is available while it's used and its users aren't counted, so it's never known to be idle;
+	// slot is taken like an obtained one while the condition is checked, and is given back if the object stays
+	@Override
+	public boolean evictIfAvailable(TV toEvict, Predicate<TV> shouldEvict) {
+
+		if (!_settings.getMarkObtainedObjectAsNotAvailable())
+			return false;
+
+		PoolItemSlot<TV> slot = _objectToSlot.get(toEvict);
+		if (slot == null || !slot.tryChangeState(PoolItemSlotState.AVAILABLE, PoolItemSlotState.IN_USE))
+			return false;
+
+		_availableSlots.remove(slot);
+		if (shouldEvict.test(toEvict)) {
+			if (slot.changeState(PoolItemSlotState.CLOSED) != PoolItemSlotState.CLOSED)
+				destroy(slot);
+			return true;
+		}
+
+		if (slot.tryChangeState(PoolItemSlotState.IN_USE, PoolItemSlotState.AVAILABLE)) {
+			putToAvailable(slot);
+			_waiters.signalOne();
+		} else if (slot.tryChangeState(PoolItemSlotState.TO_KILL, PoolItemSlotState.CLOSED))
+			destroy(slot);
+		return false;
+	}
+
+	@Override
+	public void close() throws Exception {
+
+		_waiters.failAll();
+
+		for (PoolItemSlot<TV> slot : _objectToSlot.values())
+			if (slot.changeState(PoolItemSlotState.CLOSED) != PoolItemSlotState.CLOSED)
+				destroy(slot);
+
+		_availableSlots.clear();
+	}
+
+	@Override
+	public int getAllObjectsCount() {
+		return _allObjectsCount.get();
+	}
+
+	@Override
+	public int getAvailableObjectsCount() {
+		return _availableSlots.size();
+	}
+
+	private PoolItemSlot<TV> tryTakeExistingAvailableSlot() {
+
+		PoolItemSlot<TV> slot;
+		while ((slot = _availableSlots.pollFirst()) != null) {
+
+			if (!slot.tryChangeState(PoolItemSlotState.AVAILABLE, PoolItemSlotState.IN_USE))
+				continue;
+
+			if (_objectActions.isValid(slot.getObject()))
+				return slot;
+
+			if (slot.tryChangeState(PoolItemSlotState.IN_USE, PoolItemSlotState.CLOSED))
+				destroy(slot);
+		}
+
+		return null;
+	}
+
+	private PoolItemSlot<TV> tryTakeExistingOrCreateNewSlot(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws ObjectCreationFailedException {
+
+		PoolItemSlot<TV> slot = tryTakeExistingAvailableSlot();
+		if (slot != null || !canCreateNewSlot(createDelegateIfNoObjectIsAvailable))
+			return slot;
+
+		try {
+			return tryCreateNewSlot(createDelegateIfNoObjectIsAvailable);
+		} catch (NoAvailableObjectException | ObjectsMaxCountReachedException e) {
+			return null;
+		}
+	}
+
+	private boolean canCreateNewSlot(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+		return createDelegateIfNoObjectIsAvailable != null && !_capacity.isExhausted();
+	}
+
+	private PoolItemSlot<TV> tryCreateNewSlot(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException {
+
+		if (createDelegateIfNoObjectIsAvailable == null) {
+			if (_capacity.isExhausted())
+				throw new ObjectsMaxCountReachedException(_settings.getKey(), _settings.getMaxObjectsCount());
+			throw new NoAvailableObjectException(_settings.getKey());
+		}
+
+		if (!_capacity.tryReserve())
+			throw new ObjectsMaxCountReachedException(_settings.getKey(), _settings.getMaxObjectsCount());
+
+		TV created;
+		try {
+			created = createDelegateIfNoObjectIsAvailable.apply(_settings.getKey());
+		} catch (Exception e) {
+			_capacity.free();
+			throw new ObjectCreationFailedException(_settings.getKey(), createDelegateIfNoObjectIsAvailable, e);
+		}
+
+		PoolItemSlot<TV> slot = new PoolItemSlot<TV>(created, PoolItemSlotState.IN_USE);
+		_objectToSlot.put(created, slot);
+		_allObjectsCount.incrementAndGet();
+		return slot;
+	}
+
+	private void markBeforeGiving(PoolItemSlot<TV> toProvide) {
+
+		if (_settings.getMarkObtainedObjectAsNotAvailable())
+			return;
+
+		if (toProvide.tryChangeState(PoolItemSlotState.IN_USE, PoolItemSlotState.AVAILABLE))
+			putToAvailable(toProvide);
+	}
+
+	private void putToAvailable(PoolItemSlot<TV> slot) {
+
+		if (_giveRecentlyReleasedFirst)
+			_availableSlots.offerFirst(slot);
+		else
+			_availableSlots.offerLast(slot);
+	}
+
+	private void destroy(PoolItemSlot<TV> slot) {
+
+		if (_objectToSlot.remove(slot.getObject(), slot)) {
+			_allObjectsCount.decrementAndGet();
+			_capacity.free();
+		}
+
+		_objectActions.close(slot.getObject());
+		_waiters.signalOne();
+	}
+}
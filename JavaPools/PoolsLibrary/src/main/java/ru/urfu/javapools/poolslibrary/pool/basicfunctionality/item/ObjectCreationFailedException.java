@@ -16,6 +16,10 @@ public class ObjectCreationFailedException extends PoolException {
 		_usedCreateDelegate = usedCreateDelegate;		
 	}
 	
+	protected ObjectCreationFailedException (Object key, String message) {
+		super(key, message);
+	}
+	
 	public FunctionThatMayThrow getUsedCreateDelegate() {
 		return _usedCreateDelegate;
 	}
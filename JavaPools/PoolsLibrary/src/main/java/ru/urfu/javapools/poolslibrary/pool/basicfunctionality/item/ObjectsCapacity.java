@@ -0,0 +1,42 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+public class ObjectsCapacity {
+
+	private final IntSupplier _maxObjectsCount;
+	private final AtomicInteger _reservedCount = new AtomicInteger();
+
+	public ObjectsCapacity(IntSupplier maxObjectsCount) {
+		_maxObjectsCount = maxObjectsCount;
+	}
+
+	public boolean tryReserve() {
+
+		int currentCount;
+		do {
+			currentCount = _reservedCount.get();
+			if (currentCount >= _maxObjectsCount.getAsInt())
+				return false;
+		} while (!_reservedCount.compareAndSet(currentCount, currentCount + 1));
+
+		return true;
+	}
+
+	public void free() {
+		_reservedCount.updateAndGet(currentCount -> currentCount > 0 ? currentCount - 1 : 0);
+	}
+
+	public boolean isExhausted() {
+		return _reservedCount.get() >= _maxObjectsCount.getAsInt();
+	}
+
+	public int getReservedCount() {
+		return _reservedCount.get();
+	}
+
+	public int getMaxObjectsCount() {
+		return _maxObjectsCount.getAsInt();
+	}
+}
@@ -1,25 +1,36 @@
 package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
 import ru.urfu.javapools.poolslibrary.lang.MyReference;
-import ru.urfu.javapools.poolslibrary.locks.FairLockWithPrecedence;
+import ru.urfu.javapools.poolslibrary.locks.ILockWithPrecedence;
+import ru.urfu.javapools.poolslibrary.locks.QueuedLockWithPrecedence;
 import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
 
-public class PoolItem<TK, TV> implements AutoCloseable {
+public class PoolItem<TK, TV> implements IPoolItem<TK, TV> {
 
 	private final PoolItemSettings<TK> _settings;
-	private final Collection<TV> _availableObjects;
-	private final HashSet<TV> _notAvailableObjects = new HashSet<TV>();
-	private final HashSet<TV> _objectsToKill = new HashSet<TV>();
+	private final IAvailableObjectsStorage<TV> _availableObjects;
+	private final Set<TV> _notAvailableObjects;
+	private final Set<TV> _objectsToKill;
+	private final Map<TV, int[]> _sharedObjectToUsersCount;
 
-	private final FairLockWithPrecedence _obtainReleaseLock = new FairLockWithPrecedence();
+	private final ObjectsCapacity _capacity;
+	private final PoolItemWaiters<TK, TV> _waiters;
+
+	private final ILockWithPrecedence _obtainReleaseLock = new QueuedLockWithPrecedence(true);
 	
 	private final IPoolObjectActions<TV> _objectActions;
 
@@ -29,14 +40,36 @@ public class PoolItem<TK, TV> implements AutoCloseable {
 	private static final String _MESSAGE_REASON_STRANGER = "because this object wasn't created by pool, it's a stranger";
 
 	public PoolItem(PoolItemSettings<TK> settings,
-					Collection<TV> availableObjectsStorage,
-					IPoolObjectActions<TV> objectActions) {
+					IAvailableObjectsStorage<TV> availableObjectsStorage,
+					IPoolObjectActions<TV> objectActions,
+					ObjectsCapacity capacity) {
 		
 		_settings = settings;
 		_availableObjects = availableObjectsStorage;
 		_objectActions = objectActions;
+		_capacity = capacity;
+		_waiters = new PoolItemWaiters<TK, TV>(settings);
+
+		_notAvailableObjects = settings.getObjectsTrackingMode().createSet();
+		_objectsToKill = settings.getObjectsTrackingMode().createSet();
+		_sharedObjectToUsersCount = settings.getObjectsTrackingMode().createMap();
+	}
+
+	public PoolItem(PoolItemSettings<TK> settings,
+					IAvailableObjectsStorage<TV> availableObjectsStorage,
+					IPoolObjectActions<TV> objectActions) {
+
+		this(settings, availableObjectsStorage, objectActions, new ObjectsCapacity(settings::getMaxObjectsCount));
+	}
+
+	public PoolItem(PoolItemSettings<TK> settings,
+					Collection<TV> availableObjectsStorage,
+					IPoolObjectActions<TV> objectActions) {
+
+		this(settings, new CollectionAvailableObjectsStorage<TV>(availableObjectsStorage), objectActions);
 	}
 	
+	@Override
 	public TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
 		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
 			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
@@ -52,17 +85,192 @@ public class PoolItem<TK, TV> implements AutoCloseable {
 				throw new ObjectsMaxCountReachedException(_settings.getKey(), _settings.getMaxObjectsCount());
 
 			MyReference<TV> out = new MyReference<TV>(null);
-			if (tryGetExistingAvailableObject(out) || tryCreateNewObject(out,createDelegateIfNoObjectIsAvailable)) {			
+			if (tryGetExistingAvailableObject(out)) {
 				markBeforeGiving(out.get());
 				return out.get();
 			}
 
-			throw new NoAvailableObjectException(_settings.getKey());
+			if (createDelegateIfNoObjectIsAvailable == null)
+				throw new NoAvailableObjectException(_settings.getKey());
+
+			if (!_capacity.tryReserve())
+				throw new ObjectsMaxCountReachedException(_settings.getKey(), _settings.getMaxObjectsCount());
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+
+		return createInReservedSlot(createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		return _waiters.await(this, createDelegateIfNoObjectIsAvailable, timeout, unit);
+	}
+
+	@Override
+	public List<TV> obtainMany(int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		List<TV> obtained = new ArrayList<TV>(count);
+		int reservedSlotsCount = 0;
+
+		try {
+			_obtainReleaseLock.lock();
+		} catch (InterruptedException e) {
+			throw new PoolObjectObtainingInterruptedException(_settings.getKey(), e);
+		}
+
+		try {
+			MyReference<TV> out = new MyReference<TV>(null);
+			int availableObjectsCount = _availableObjects.size();
+			for (int i = 0; i < availableObjectsCount && obtained.size() < count; i++) {
+				if (_notAvailableObjects.size() >= _settings.getMaxObjectsCount() || !tryGetExistingAvailableObject(out))
+					break;
+				markBeforeGiving(out.get());
+				obtained.add(out.get());
+			}
+
+			while (createDelegateIfNoObjectIsAvailable != null && obtained.size() + reservedSlotsCount < count && _capacity.tryReserve())
+				reservedSlotsCount++;
+
+			if (mode == BatchObtainingMode.ALL_OR_NOTHING && obtained.size() + reservedSlotsCount < count) {
+				giveBack(obtained);
+				freeReservedSlots(reservedSlotsCount);
+				if (createDelegateIfNoObjectIsAvailable == null)
+					throw new NoAvailableObjectException(_settings.getKey());
+				throw new ObjectsMaxCountReachedException(_settings.getKey(), _settings.getMaxObjectsCount());
+			}
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+
+		if (reservedSlotsCount == 0)
+			return obtained;
+
+		List<TV> created = new ArrayList<TV>(reservedSlotsCount);
+		Exception creationFailure = null;
+		while (created.size() < reservedSlotsCount && creationFailure == null) {
+			try {
+				created.add(createDelegateIfNoObjectIsAvailable.apply(_settings.getKey()));
+			} catch (Exception e) {
+				creationFailure = e;
+			}
+		}
+
+		lockImportantUninterruptibly();
+		try {
+			for (TV createdObject : created)
+				markBeforeGiving(createdObject);
+			freeReservedSlots(reservedSlotsCount - created.size());
+
+			if (creationFailure != null && (mode == BatchObtainingMode.ALL_OR_NOTHING || obtained.isEmpty() && created.isEmpty())) {
+				giveBack(obtained);
+				giveBack(created);
+				throw new ObjectCreationFailedException(_settings.getKey(), createDelegateIfNoObjectIsAvailable, creationFailure);
+			}
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+
+		obtained.addAll(created);
+		return obtained;
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+		return _waiters.obtainAsync(this, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainOrEnqueue(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		try {
+			_obtainReleaseLock.lock();
+		} catch (InterruptedException e) {
+			throw new PoolObjectObtainingInterruptedException(_settings.getKey(), e);
+		}
+
+		boolean isSlotReserved = false;
+		try {
+			if (_notAvailableObjects.size() < _settings.getMaxObjectsCount()) {
+				MyReference<TV> out = new MyReference<TV>(null);
+				if (tryGetExistingAvailableObject(out)) {
+					markBeforeGiving(out.get());
+					return CompletableFuture.completedFuture(out.get());
+				}
+				isSlotReserved = createDelegateIfNoObjectIsAvailable != null && _capacity.tryReserve();
+			}
+
+			if (!isSlotReserved)
+				return _waiters.enqueue();
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+
+		return CompletableFuture.completedFuture(createInReservedSlot(createDelegateIfNoObjectIsAvailable));
+	}
+
+	@Override
+	public TV tryObtainExisting() throws PoolObjectObtainingInterruptedException {
+
+		try {
+			_obtainReleaseLock.lock();
+		} catch (InterruptedException e) {
+			throw new PoolObjectObtainingInterruptedException(_settings.getKey(), e);
+		}
+
+		try {
+			if (_notAvailableObjects.size() >= _settings.getMaxObjectsCount())
+				return null;
+
+			MyReference<TV> out = new MyReference<TV>(null);
+			if (!tryGetExistingAvailableObject(out))
+				return null;
+
+			markBeforeGiving(out.get());
+			return out.get();
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean tryCreateIdleObject(FunctionThatMayThrow<TK, TV> createDelegate) throws ObjectCreationFailedException {
+
+		if (!_capacity.tryReserve())
+			return false;
+
+		TV created;
+		try {
+			created = createDelegate.apply(_settings.getKey());
+		} catch (Exception e) {
+			lockImportantUninterruptibly();
+			try {
+				freeReservedSlots(1);
+			} finally {
+				_obtainReleaseLock.unlock();
+			}
+			throw new ObjectCreationFailedException(_settings.getKey(), createDelegate, e);
+		}
+
+		lockImportantUninterruptibly();
+		try {
+			if ((_settings.getMarkObtainedObjectAsNotAvailable() || _settings.getIsSharingBounded()) && _waiters.tryHandOff(created))
+				markBeforeGiving(created);
+			else
+				_availableObjects.add(created);
 		} finally {
 			_obtainReleaseLock.unlock();
 		}
+		return true;
 	}
 
+	@Override
 	public void release(TV objectToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
 
 		if (!_settings.getMarkObtainedObjectAsNotAvailable())
@@ -75,69 +283,240 @@ public class PoolItem<TK, TV> implements AutoCloseable {
 		}
 		
 		try {
-			if (!_notAvailableObjects.remove(objectToUnmark)) {
-				String invalidUnmarkOperationMessage = _MESSAGE_UNMARKING_DECLINED + " " + (_availableObjects.contains(objectToUnmark)
-																							? _MESSAGE_REASON_CURRENTLY_AVAILABLE
-																							: _MESSAGE_REASON_STRANGER);
-				throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark, invalidUnmarkOperationMessage);
-			}
+			releaseUnderLock(objectToUnmark);
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+	}
+
+	@Override
+	public void releaseShared(TV sharedObject) throws PoolObjectReleasingInterruptedException {
+
+		if (_settings.getMarkObtainedObjectAsNotAvailable())
+			return;
+
+		try {
+			_obtainReleaseLock.lockImportant();
+		} catch (InterruptedException e) {
+			throw new PoolObjectReleasingInterruptedException(_settings.getKey(), sharedObject, e);
+		}
+
+		try {
+			releaseSharedUnderLock(sharedObject);
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+	}
+
+	@Override
+	public void releaseAll(Collection<TV> objectsToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		if (!_settings.getMarkObtainedObjectAsNotAvailable())
+			throw new InvalidPoolOperationException(_settings.getKey(), null, _MESSAGE_MARKING_IS_OFF);
+
+		try {
+			_obtainReleaseLock.lockImportant();
+		} catch (InterruptedException e) {
+			throw new PoolObjectReleasingInterruptedException(_settings.getKey(), null, e);
+		}
 
-			if (!closeIfBad(objectToUnmark))
-				_availableObjects.add(objectToUnmark);
+		InvalidPoolOperationException firstInvalidOperation = null;
+		try {
+			for (TV objectToUnmark : objectsToUnmark)
+				try {
+					releaseUnderLock(objectToUnmark);
+				} catch (InvalidPoolOperationException e) {
+					if (firstInvalidOperation == null)
+						firstInvalidOperation = e;
+				}
 		} finally {
 			_obtainReleaseLock.unlock();
 		}
+
+		if (firstInvalidOperation != null)
+			throw firstInvalidOperation;
 	}
 
+	@Override
 	public void markObjectForKilling(TV toKill) {
 
-		if (_availableObjects.remove(toKill))
-			return;
-		
-		if (_notAvailableObjects.contains(toKill))
-			_objectsToKill.add(toKill);
+		lockImportantUninterruptibly();
+		try {
+			if (_availableObjects.remove(toKill)) {
+				closeAndFreeCapacity(toKill);
+				return;
+			}
+
+			if (_notAvailableObjects.contains(toKill))
+				_objectsToKill.add(toKill);
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean evictIfAvailable(TV toEvict, Predicate<TV> shouldEvict) {
+
+		lockImportantUninterruptibly();
+		try {
+			// shared object stays available while it's used
+			int[] usersCount = _sharedObjectToUsersCount.get(toEvict);
+			if (usersCount != null && usersCount[0] > 0 || !_availableObjects.contains(toEvict) || !shouldEvict.test(toEvict))
+				return false;
+
+			_availableObjects.remove(toEvict);
+
+			closeAndFreeCapacity(toEvict);
+			return true;
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
 	}
 
 	@Override
 	public void close() throws Exception {
-		
-		Iterator<TV> avaliableObjectsIterator = _availableObjects.iterator();
-		while (avaliableObjectsIterator.hasNext())
-			_objectActions.close(avaliableObjectsIterator.next());
+
+		_waiters.failAll();
+
+		TV availableObject;
+		while ((availableObject = _availableObjects.poll()) != null)
+			closeAndFreeCapacity(availableObject);
 
 		for (TV notAvailableObject : _notAvailableObjects)
-			_objectActions.close(notAvailableObject);
+			closeAndFreeCapacity(notAvailableObject);
 	}
 
+	@Override
 	public int getAllObjectsCount() {
 		return _availableObjects.size() + _notAvailableObjects.size();
 	}
 
+	@Override
+	public int getAvailableObjectsCount() {
+		return _availableObjects.size();
+	}
+
 	private boolean tryGetExistingAvailableObject(MyReference<TV> out) {
 
-		Iterator<TV> avaliableObjectIterator = _availableObjects.iterator();
-		while (avaliableObjectIterator.hasNext()) {
-			out.set(avaliableObjectIterator.next());
-			avaliableObjectIterator.remove();
-			if (!closeIfBad(out.get()))
+		TV availableObject;
+		while ((availableObject = _availableObjects.poll()) != null) {
+			out.set(availableObject);
+			if (!closeIfBad(availableObject))
 				return true;
 		}
 
 		return false;
 	}
 
-	private boolean tryCreateNewObject(MyReference<TV> out, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
-		throws ObjectCreationFailedException {
-		
-		if (createDelegateIfNoObjectIsAvailable == null)
-			return false;
+	private void releaseUnderLock(TV objectToUnmark) throws InvalidPoolOperationException {
+
+		if (!_notAvailableObjects.remove(objectToUnmark)) {
+			String invalidUnmarkOperationMessage = _MESSAGE_UNMARKING_DECLINED + " " + (_availableObjects.contains(objectToUnmark)
+																						? _MESSAGE_REASON_CURRENTLY_AVAILABLE
+																						: _MESSAGE_REASON_STRANGER);
+			throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark, invalidUnmarkOperationMessage);
+		}
+
+		if (closeIfBad(objectToUnmark))
+			return;
+
+		if (_waiters.tryHandOff(objectToUnmark))
+			_notAvailableObjects.add(objectToUnmark);
+		else
+			_availableObjects.add(objectToUnmark);
+	}
+
+	// saturated shared object is kept among not available ones until one of its users releases it
+	private void releaseSharedUnderLock(TV sharedObject) {
+
+		int[] usersCount = _sharedObjectToUsersCount.get(sharedObject);
+		if (usersCount == null) {
+			_availableObjects.onSharedObjectReleased(sharedObject);
+			return;
+		}
+		if (usersCount[0] == 0)
+			return;
+
+		usersCount[0]--;
+		if (!_notAvailableObjects.remove(sharedObject)) {
+			_availableObjects.onSharedObjectReleased(sharedObject);
+			return;
+		}
+
+		if (closeIfBad(sharedObject))
+			return;
+
+		if (_waiters.tryHandOff(sharedObject))
+			markBeforeGiving(sharedObject);
+		else
+			_availableObjects.add(sharedObject, usersCount[0]);
+	}
+
+	private void giveBack(List<TV> notGiven) {
+
+		if (!_settings.getMarkObtainedObjectAsNotAvailable()) {
+			for (TV toGiveBack : notGiven)
+				releaseSharedUnderLock(toGiveBack);
+			return;
+		}
+
+		for (TV toGiveBack : notGiven) {
+			_notAvailableObjects.remove(toGiveBack);
+			if (_waiters.tryHandOff(toGiveBack))
+				_notAvailableObjects.add(toGiveBack);
+			else
+				_availableObjects.add(toGiveBack);
+		}
+	}
 
+	private void freeReservedSlots(int slotsCount) {
+
+		for (int i = 0; i < slotsCount; i++) {
+			_capacity.free();
+			_waiters.signalOne();
+		}
+	}
+
+	// delegate is run outside the lock: slow creation mustn't hold back obtains and releases of the same key
+	private TV createInReservedSlot(FunctionThatMayThrow<TK, TV> createDelegate) throws ObjectCreationFailedException {
+
+		TV created;
 		try {
-			out.set(createDelegateIfNoObjectIsAvailable.apply(_settings.getKey()));
-			return true;
+			created = createDelegate.apply(_settings.getKey());
 		} catch (Exception e) {
-			throw new ObjectCreationFailedException(_settings.getKey(), createDelegateIfNoObjectIsAvailable, e);
+			lockImportantUninterruptibly();
+			try {
+				_capacity.free();
+				_waiters.signalOne();
+			} finally {
+				_obtainReleaseLock.unlock();
+			}
+			throw new ObjectCreationFailedException(_settings.getKey(), createDelegate, e);
+		}
+
+		lockImportantUninterruptibly();
+		try {
+			markBeforeGiving(created);
+		} finally {
+			_obtainReleaseLock.unlock();
+		}
+		return created;
+	}
+
+	private void lockImportantUninterruptibly() {
+
+		boolean wasInterrupted = false;
+		while (true) {
+			try {
+				_obtainReleaseLock.lockImportant();
+				break;
+			} catch (InterruptedException e) {
+				wasInterrupted = true;
+			}
 		}
+
+		if (wasInterrupted)
+			Thread.currentThread().interrupt();
 	}
 
 	private boolean closeIfBad(TV object) {
@@ -145,15 +524,32 @@ public class PoolItem<TK, TV> implements AutoCloseable {
 		if (!_objectsToKill.remove(object) && _objectActions.isValid(object))
 			return false;
 
-		_objectActions.close(object);
+		closeAndFreeCapacity(object);
 		return true;
 	}
 
+	private void closeAndFreeCapacity(TV object) {
+
+		_sharedObjectToUsersCount.remove(object);
+		_objectActions.close(object);
+		_capacity.free();
+		_waiters.signalOne();
+	}
+
 	private void markBeforeGiving(TV toProvide) {
 
 		if (_settings.getMarkObtainedObjectAsNotAvailable())
 			_notAvailableObjects.add(toProvide);
 		else
-			_availableObjects.add(toProvide);
+			markSharedBeforeGiving(toProvide);
+	}
+
+	private void markSharedBeforeGiving(TV toProvide) {
+
+		int[] usersCount = _sharedObjectToUsersCount.computeIfAbsent(toProvide, object -> new int[1]);
+		if (++usersCount[0] >= _settings.getMaxConcurrentUsersPerObject() && _settings.getIsSharingBounded())
+			_notAvailableObjects.add(toProvide);
+		else
+			_availableObjects.add(toProvide, usersCount[0]);
 	}
 }
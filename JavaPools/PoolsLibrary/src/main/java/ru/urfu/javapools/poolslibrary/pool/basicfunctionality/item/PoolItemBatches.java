@@ -0,0 +1,70 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.controller.PoolException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+
+public class PoolItemBatches {
+
+	public static <TK, TV> List<TV> obtainOneByOne(IPoolItem<TK, TV> poolItem, PoolItemSettings<TK> settings,
+												   int count, BatchObtainingMode mode,
+												   FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		List<TV> obtained = new ArrayList<TV>(count);
+		try {
+			while (obtained.size() < count)
+				obtained.add(poolItem.obtain(createDelegateIfNoObjectIsAvailable));
+		} catch (NoAvailableObjectException | ObjectsMaxCountReachedException e) {
+			if (mode == BatchObtainingMode.ALL_OR_NOTHING) {
+				giveBackQuietly(poolItem, settings, obtained);
+				throw e;
+			}
+		} catch (ObjectCreationFailedException e) {
+			if (mode == BatchObtainingMode.ALL_OR_NOTHING || obtained.isEmpty()) {
+				giveBackQuietly(poolItem, settings, obtained);
+				throw e;
+			}
+		} catch (PoolObjectObtainingInterruptedException e) {
+			giveBackQuietly(poolItem, settings, obtained);
+			throw e;
+		}
+
+		return obtained;
+	}
+
+	public static <TK, TV> void releaseOneByOne(IPoolItem<TK, TV> poolItem, Collection<TV> objectsToUnmark)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		InvalidPoolOperationException firstInvalidOperation = null;
+		for (TV objectToUnmark : objectsToUnmark)
+			try {
+				poolItem.release(objectToUnmark);
+			} catch (InvalidPoolOperationException e) {
+				if (firstInvalidOperation == null)
+					firstInvalidOperation = e;
+			}
+
+		if (firstInvalidOperation != null)
+			throw firstInvalidOperation;
+	}
+
+	private static <TK, TV> void giveBackQuietly(IPoolItem<TK, TV> poolItem, PoolItemSettings<TK> settings, List<TV> notGiven) {
+
+		if (!settings.getMarkObtainedObjectAsNotAvailable())
+			return;
+
+		for (TV toGiveBack : notGiven)
+			try {
+				poolItem.release(toGiveBack);
+			} catch (PoolException e) {}
+	}
+}
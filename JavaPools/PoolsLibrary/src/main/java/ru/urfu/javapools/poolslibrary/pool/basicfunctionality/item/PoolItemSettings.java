@@ -1,10 +1,15 @@
 package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
 
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
+
 public class PoolItemSettings<TK> {
 	
 	private TK _key;
 	private int _maxObjectsCount;
 	private boolean _markObtainedObjectAsNotAvailable;
+	private int _maxConcurrentUsersPerObject;
+	private ObjectsTrackingMode _objectsTrackingMode = ObjectsTrackingMode.BY_EQUALITY;
+	private IAvailableObjectsStorageFactory _availableObjectsStorageFactory;
 	
 	public TK getKey() {
 		return _key;
@@ -14,10 +19,26 @@ public class PoolItemSettings<TK> {
 		return _markObtainedObjectAsNotAvailable;
 	}
 	
+	public int getMaxConcurrentUsersPerObject() {
+		return _maxConcurrentUsersPerObject;
+	}
+
+	public boolean getIsSharingBounded() {
+		return !_markObtainedObjectAsNotAvailable && _maxConcurrentUsersPerObject > 0;
+	}
+	
 	public int getMaxObjectsCount() {
 		return _maxObjectsCount;
 	}
 
+	public ObjectsTrackingMode getObjectsTrackingMode() {
+		return _objectsTrackingMode;
+	}
+
+	public IAvailableObjectsStorageFactory getAvailableObjectsStorageFactory() {
+		return _availableObjectsStorageFactory;
+	}
+
 	public PoolItemSettings<TK> setKey(TK key) {
 		_key = key;
 		return this;
@@ -32,4 +53,19 @@ public class PoolItemSettings<TK> {
 		_markObtainedObjectAsNotAvailable = markObtainedObjectAsNotAvailable;
 		return this;
 	}	
-}
+
+	public PoolItemSettings<TK> setMaxConcurrentUsersPerObject(int maxConcurrentUsersPerObject) {
+		_maxConcurrentUsersPerObject = maxConcurrentUsersPerObject;
+		return this;
+	}
+
+	public PoolItemSettings<TK> setObjectsTrackingMode(ObjectsTrackingMode objectsTrackingMode) {
+		_objectsTrackingMode = objectsTrackingMode;
+		return this;
+	}
+
+	public PoolItemSettings<TK> setAvailableObjectsStorageFactory(IAvailableObjectsStorageFactory availableObjectsStorageFactory) {
+		_availableObjectsStorageFactory = availableObjectsStorageFactory;
+		return this;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PoolItemSlot<TV> {
+
+	private final TV _object;
+	private final AtomicReference<PoolItemSlotState> _state;
+
+	public PoolItemSlot(TV object, PoolItemSlotState initialState) {
+
+		_object = object;
+		_state = new AtomicReference<PoolItemSlotState>(initialState);
+	}
+
+	public TV getObject() {
+		return _object;
+	}
+
+	public PoolItemSlotState getState() {
+		return _state.get();
+	}
+
+	public boolean tryChangeState(PoolItemSlotState expectedState, PoolItemSlotState newState) {
+		return _state.compareAndSet(expectedState, newState);
+	}
+
+	public PoolItemSlotState changeState(PoolItemSlotState newState) {
+		return _state.getAndSet(newState);
+	}
+}
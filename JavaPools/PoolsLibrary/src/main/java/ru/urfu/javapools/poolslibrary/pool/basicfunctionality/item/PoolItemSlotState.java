@@ -0,0 +1,9 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+public enum PoolItemSlotState {
+
+	AVAILABLE,
+	IN_USE,
+	TO_KILL,
+	CLOSED;
+}
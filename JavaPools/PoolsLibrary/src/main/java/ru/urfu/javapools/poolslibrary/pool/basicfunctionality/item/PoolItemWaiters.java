@@ -0,0 +1,180 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import ru.urfu.javapools.poolslibrary.controller.PoolException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+
+public class PoolItemWaiters<TK, TV> {
+
+	private final PoolItemSettings<TK> _settings;
+	private final ConcurrentLinkedQueue<CompletableFuture<TV>> _waiters = new ConcurrentLinkedQueue<CompletableFuture<TV>>();
+	private final Executor _asyncContinuationExecutor;
+
+	public PoolItemWaiters(PoolItemSettings<TK> settings) {
+		this(settings, ForkJoinPool.commonPool());
+	}
+
+	public PoolItemWaiters(PoolItemSettings<TK> settings, Executor asyncContinuationExecutor) {
+		_settings = settings;
+		_asyncContinuationExecutor = asyncContinuationExecutor;
+	}
+
+	public CompletableFuture<TV> enqueue() {
+
+		CompletableFuture<TV> waiter = new CompletableFuture<TV>();
+		_waiters.add(waiter);
+		return waiter;
+	}
+
+	public boolean hasWaiters() {
+		return !_waiters.isEmpty();
+	}
+
+	public boolean tryHandOff(TV released) {
+
+		CompletableFuture<TV> waiter;
+		while ((waiter = _waiters.poll()) != null)
+			if (waiter.complete(released))
+				return true;
+
+		return false;
+	}
+
+	public void signalOne() {
+
+		CompletableFuture<TV> waiter;
+		while ((waiter = _waiters.poll()) != null)
+			if (waiter.complete(null))
+				return;
+	}
+
+	public boolean cancel(CompletableFuture<TV> waiter) {
+
+		if (waiter.cancel(false)) {
+			_waiters.remove(waiter);
+			return true;
+		}
+
+		if (!waiter.isCompletedExceptionally() && waiter.getNow(null) == null)
+			signalOne();
+		return false;
+	}
+
+	public void failAll() {
+
+		CompletableFuture<TV> waiter;
+		while ((waiter = _waiters.poll()) != null)
+			waiter.completeExceptionally(new NoAvailableObjectException(_settings.getKey()));
+	}
+
+	public TV await(IPoolItem<TK, TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable,
+					long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		while (true) {
+			CompletableFuture<TV> waiter = poolItem.obtainOrEnqueue(createDelegateIfNoObjectIsAvailable);
+
+			try {
+				TV obtained = waiter.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				if (obtained != null)
+					return obtained;
+			} catch (TimeoutException e) {
+				TV handedOffMeanwhile = cancel(waiter) ? null : getHandedOffObject(waiter);
+				if (handedOffMeanwhile != null)
+					return handedOffMeanwhile;
+				if (createDelegateIfNoObjectIsAvailable != null)
+					throw new ObjectsMaxCountReachedException(_settings.getKey(), _settings.getMaxObjectsCount());
+				throw new NoAvailableObjectException(_settings.getKey());
+			} catch (InterruptedException e) {
+				giveBackQuietly(poolItem, waiter);
+				Thread.currentThread().interrupt();
+				throw new PoolObjectObtainingInterruptedException(_settings.getKey(), e);
+			} catch (ExecutionException e) {
+				throw new NoAvailableObjectException(_settings.getKey(), e.getCause().getMessage(), e.getCause());
+			}
+		}
+	}
+
+	public CompletableFuture<TV> obtainAsync(IPoolItem<TK, TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+
+		CompletableFuture<TV> result = new CompletableFuture<TV>();
+		obtainAsync(poolItem, createDelegateIfNoObjectIsAvailable, result);
+		return result;
+	}
+
+	private void obtainAsync(IPoolItem<TK, TV> poolItem, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable,
+							 CompletableFuture<TV> result) {
+
+		if (result.isDone())
+			return;
+
+		CompletableFuture<TV> waiter;
+		try {
+			waiter = poolItem.obtainOrEnqueue(createDelegateIfNoObjectIsAvailable);
+		} catch (PoolException e) {
+			result.completeExceptionally(e);
+			return;
+		}
+
+		if (waiter.isDone() && getHandedOffObject(waiter) != null) {
+			giveOrReturn(poolItem, result, waiter.getNow(null));
+			return;
+		}
+
+		result.whenComplete((obtained, e) -> {
+			if (result.isCancelled())
+				giveBackQuietly(poolItem, waiter);
+		});
+
+		// continuation is run asynchronously: waiters may be completed by a releaser holding pool item's lock
+		waiter.whenCompleteAsync((obtained, e) -> {
+			if (e instanceof CancellationException || e instanceof CompletionException && e.getCause() instanceof CancellationException)
+				return;
+			if (e != null)
+				result.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+			else if (obtained == null)
+				obtainAsync(poolItem, createDelegateIfNoObjectIsAvailable, result);
+			else
+				giveOrReturn(poolItem, result, obtained);
+		}, _asyncContinuationExecutor);
+	}
+
+	private void giveOrReturn(IPoolItem<TK, TV> poolItem, CompletableFuture<TV> result, TV obtained) {
+
+		if (result.complete(obtained))
+			return;
+
+		try {
+			poolItem.release(obtained);
+		} catch (PoolException e) {}
+	}
+
+	private void giveBackQuietly(IPoolItem<TK, TV> poolItem, CompletableFuture<TV> waiter) {
+
+		if (cancel(waiter))
+			return;
+
+		TV handedOffMeanwhile = getHandedOffObject(waiter);
+		if (handedOffMeanwhile != null)
+			try {
+				poolItem.release(handedOffMeanwhile);
+			} catch (PoolException e) {}
+	}
+
+	private TV getHandedOffObject(CompletableFuture<TV> completedWaiter) {
+		return completedWaiter.isCompletedExceptionally() ? null : completedWaiter.getNow(null);
+	}
+}
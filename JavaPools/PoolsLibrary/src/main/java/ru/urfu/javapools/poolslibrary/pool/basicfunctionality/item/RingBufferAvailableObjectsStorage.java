@@ -0,0 +1,45 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.ArrayDeque;
+
+// array ring buffer: adding and polling don't allocate once the buffer has grown to the objects count
+public class RingBufferAvailableObjectsStorage<TV> implements IAvailableObjectsStorage<TV> {
+
+	private final ArrayDeque<TV> _objects;
+	private final boolean _isLastInFirstOut;
+
+	public RingBufferAvailableObjectsStorage(boolean isLastInFirstOut) {
+		_objects = new ArrayDeque<TV>();
+		_isLastInFirstOut = isLastInFirstOut;
+	}
+
+	public RingBufferAvailableObjectsStorage(boolean isLastInFirstOut, int expectedObjectsCount) {
+		_objects = new ArrayDeque<TV>(expectedObjectsCount);
+		_isLastInFirstOut = isLastInFirstOut;
+	}
+
+	@Override
+	public boolean add(TV availableObject) {
+		return _objects.add(availableObject);
+	}
+
+	@Override
+	public TV poll() {
+		return _isLastInFirstOut ? _objects.pollLast() : _objects.pollFirst();
+	}
+
+	@Override
+	public boolean remove(Object availableObject) {
+		return _isLastInFirstOut ? _objects.removeLastOccurrence(availableObject) : _objects.removeFirstOccurrence(availableObject);
+	}
+
+	@Override
+	public boolean contains(Object availableObject) {
+		return _objects.contains(availableObject);
+	}
+
+	@Override
+	public int size() {
+		return _objects.size();
+	}
+}
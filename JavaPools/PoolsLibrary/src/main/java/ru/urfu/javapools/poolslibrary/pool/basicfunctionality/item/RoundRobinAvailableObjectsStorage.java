@@ -0,0 +1,165 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.Arrays;
+
+// objects sit in stable slots and are given by a cursor going round the slots; a polled slot is reused first,
+// so a shared object re-added right after polling keeps its place in the round.
+// When preferring least loaded, the slot with the fewest users is given, round-robin among equally loaded ones
+public class RoundRobinAvailableObjectsStorage<TV> implements IAvailableObjectsStorage<TV> {
+
+	private Object[] _slots;
+	private int[] _usersCounts;
+	private int[] _freeSlots;
+	private int _freeSlotsCount;
+	private int _usedSlotsBound;
+	private int _size;
+	private int _cursor;
+
+	private int _lastPolledSlot = -1;
+	private Object _lastPolled;
+
+	private final boolean _isPreferringLeastLoaded;
+	private final boolean _isComparingByIdentity;
+
+	private static final int _INITIAL_SLOTS_COUNT = 8;
+
+	public RoundRobinAvailableObjectsStorage(boolean isPreferringLeastLoaded, boolean isComparingByIdentity) {
+
+		_isPreferringLeastLoaded = isPreferringLeastLoaded;
+		_isComparingByIdentity = isComparingByIdentity;
+
+		_slots = new Object[_INITIAL_SLOTS_COUNT];
+		_usersCounts = new int[_INITIAL_SLOTS_COUNT];
+		_freeSlots = new int[_INITIAL_SLOTS_COUNT];
+	}
+
+	@Override
+	public boolean add(TV availableObject) {
+
+		int slot = put(availableObject);
+
+		// the object polled from this slot comes back right away only in shared mode, and keeps its users then
+		if (slot != _lastPolledSlot || !isSame(availableObject, _lastPolled))
+			_usersCounts[slot] = 0;
+		_lastPolledSlot = -1;
+		_lastPolled = null;
+		return true;
+	}
+
+	@Override
+	public boolean add(TV sharedObject, int usersCount) {
+
+		_usersCounts[put(sharedObject)] = usersCount;
+		_lastPolledSlot = -1;
+		_lastPolled = null;
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public TV poll() {
+
+		if (_size == 0)
+			return null;
+
+		int slot = _isPreferringLeastLoaded ? findLeastLoadedSlot() : findNextSlot();
+		TV polled = (TV) _slots[slot];
+		freeSlot(slot);
+
+		_usersCounts[slot]++;
+		_lastPolledSlot = slot;
+		_lastPolled = polled;
+		_cursor = slot + 1 == _usedSlotsBound ? 0 : slot + 1;
+		return polled;
+	}
+
+	@Override
+	public boolean remove(Object availableObject) {
+
+		int slot = indexOf(availableObject);
+		if (slot < 0)
+			return false;
+
+		freeSlot(slot);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object availableObject) {
+		return indexOf(availableObject) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return _size;
+	}
+
+	@Override
+	public void onSharedObjectReleased(TV sharedObject) {
+
+		int slot = indexOf(sharedObject);
+		if (slot >= 0 && _usersCounts[slot] > 0)
+			_usersCounts[slot]--;
+	}
+
+	public int getUsersCount(Object availableObject) {
+
+		int slot = indexOf(availableObject);
+		return slot < 0 ? 0 : _usersCounts[slot];
+	}
+
+	private int put(TV object) {
+
+		int slot = _freeSlotsCount > 0 ? _freeSlots[--_freeSlotsCount] : takeNewSlot();
+		_slots[slot] = object;
+		_size++;
+		return slot;
+	}
+
+	private int findNextSlot() {
+
+		int slot = _cursor;
+		while (_slots[slot] == null)
+			slot = slot + 1 == _usedSlotsBound ? 0 : slot + 1;
+		return slot;
+	}
+
+	private int findLeastLoadedSlot() {
+
+		int leastLoadedSlot = -1;
+		for (int i = 0, slot = _cursor; i < _usedSlotsBound; i++, slot = slot + 1 == _usedSlotsBound ? 0 : slot + 1)
+			if (_slots[slot] != null && (leastLoadedSlot < 0 || _usersCounts[slot] < _usersCounts[leastLoadedSlot]))
+				leastLoadedSlot = slot;
+		return leastLoadedSlot;
+	}
+
+	private int indexOf(Object object) {
+
+		for (int slot = 0; slot < _usedSlotsBound; slot++)
+			if (_slots[slot] != null && isSame(_slots[slot], object))
+				return slot;
+		return -1;
+	}
+
+	private void freeSlot(int slot) {
+
+		_slots[slot] = null;
+		_freeSlots[_freeSlotsCount++] = slot;
+		_size--;
+	}
+
+	private int takeNewSlot() {
+
+		if (_usedSlotsBound == _slots.length) {
+			int newLength = _slots.length * 2;
+			_slots = Arrays.copyOf(_slots, newLength);
+			_usersCounts = Arrays.copyOf(_usersCounts, newLength);
+			_freeSlots = Arrays.copyOf(_freeSlots, newLength);
+		}
+		return _usedSlotsBound++;
+	}
+
+	private boolean isSame(Object object, Object other) {
+		return _isComparingByIdentity ? object == other : object.equals(other);
+	}
+}
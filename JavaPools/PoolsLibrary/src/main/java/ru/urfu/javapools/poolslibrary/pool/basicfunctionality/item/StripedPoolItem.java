@@ -0,0 +1,285 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemConcurrencyMode;
+
+public class StripedPoolItem<TK, TV> implements IPoolItem<TK, TV> {
+
+	private final PoolItemSettings<TK> _settings;
+	private final List<IPoolItem<TK, TV>> _stripes;
+	private final ConcurrentMap<TV, IPoolItem<TK, TV>> _objectToStripe;
+	private final ObjectsCapacity _capacity;
+	private final PoolItemWaiters<TK, TV> _waiters;
+
+	private static final String _MESSAGE_MARKING_IS_OFF = "Operation of marking object as available is invalid because marking was ordered to be off";
+	private static final String _MESSAGE_UNMARKING_DECLINED = "Marking object as available has been declined";
+	private static final String _MESSAGE_REASON_STRANGER = "because this object wasn't created by pool, it's a stranger";
+	// 2^32 divided by the golden ratio: multiplying by it (Fibonacci hashing) spreads sequential thread ids across stripes
+	private static final int _GOLDEN_RATIO_HASH_MULTIPLIER = 0x9E3779B9;
+
+	public StripedPoolItem(PoolItemSettings<TK> settings,
+						   int stripesCount,
+						   PoolItemConcurrencyMode stripeConcurrencyMode,
+						   LoadBalancingStrategy balancingStrategy,
+						   IPoolObjectActions<TV> objectActions) {
+
+		_settings = settings;
+		_capacity = new ObjectsCapacity(settings::getMaxObjectsCount);
+		_waiters = new PoolItemWaiters<TK, TV>(settings);
+		_objectToStripe = settings.getObjectsTrackingMode().createConcurrentMap();
+
+		IPoolObjectActions<TV> forgettingObjectActions = new StripeObjectActions(objectActions);
+
+		_stripes = new ArrayList<IPoolItem<TK, TV>>(stripesCount);
+		for (int i = 0; i < stripesCount; i++)
+			_stripes.add(stripeConcurrencyMode.createPoolItem(settings, balancingStrategy, forgettingObjectActions, _capacity));
+	}
+
+	@Override
+	public TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		int homeStripeIndex = getHomeStripeIndex();
+
+		TV existing = tryObtainExistingStartingFrom(homeStripeIndex);
+		if (existing != null)
+			return existing;
+
+		return createInHomeStripe(homeStripeIndex, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public TV obtain(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		return _waiters.await(this, createDelegateIfNoObjectIsAvailable, timeout, unit);
+	}
+
+	@Override
+	public List<TV> obtainMany(int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		return PoolItemBatches.obtainOneByOne(this, _settings, count, mode, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+		return _waiters.obtainAsync(this, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainOrEnqueue(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		int homeStripeIndex = getHomeStripeIndex();
+
+		while (true) {
+			TV obtained = tryObtainExistingStartingFrom(homeStripeIndex);
+			if (obtained == null && canCreateNewObject(createDelegateIfNoObjectIsAvailable)) {
+				try {
+					obtained = createInHomeStripe(homeStripeIndex, createDelegateIfNoObjectIsAvailable);
+				} catch (NoAvailableObjectException | ObjectsMaxCountReachedException e) {}
+			}
+
+			if (obtained != null)
+				return CompletableFuture.completedFuture(obtained);
+
+			CompletableFuture<TV> waiter = _waiters.enqueue();
+
+			obtained = tryObtainExistingStartingFrom(homeStripeIndex);
+			if (obtained != null) {
+				_waiters.cancel(waiter);
+				return CompletableFuture.completedFuture(obtained);
+			}
+
+			if (!canCreateNewObject(createDelegateIfNoObjectIsAvailable))
+				return waiter;
+
+			_waiters.cancel(waiter);
+		}
+	}
+
+	@Override
+	public TV tryObtainExisting() throws PoolObjectObtainingInterruptedException {
+		return tryObtainExistingStartingFrom(getHomeStripeIndex());
+	}
+
+	@Override
+	public boolean tryCreateIdleObject(FunctionThatMayThrow<TK, TV> createDelegate) throws ObjectCreationFailedException {
+
+		IPoolItem<TK, TV> leastFilledStripe = _stripes.get(0);
+		for (IPoolItem<TK, TV> stripe : _stripes)
+			if (stripe.getAvailableObjectsCount() < leastFilledStripe.getAvailableObjectsCount())
+				leastFilledStripe = stripe;
+
+		IPoolItem<TK, TV> homeStripe = leastFilledStripe;
+		boolean isCreated = homeStripe.tryCreateIdleObject(key -> {
+			TV created = createDelegate.apply(key);
+			_objectToStripe.put(created, homeStripe);
+			return created;
+		});
+
+		if (isCreated)
+			_waiters.signalOne();
+		return isCreated;
+	}
+
+	@Override
+	public void release(TV objectToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		if (!_settings.getMarkObtainedObjectAsNotAvailable())
+			throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark, _MESSAGE_MARKING_IS_OFF);
+
+		IPoolItem<TK, TV> owningStripe = _objectToStripe.get(objectToUnmark);
+		if (owningStripe == null)
+			throw new InvalidPoolOperationException(_settings.getKey(), objectToUnmark,
+													_MESSAGE_UNMARKING_DECLINED + " " + _MESSAGE_REASON_STRANGER);
+
+		owningStripe.release(objectToUnmark);
+		_waiters.signalOne();
+	}
+
+	@Override
+	public void releaseAll(Collection<TV> objectsToUnmark) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+		PoolItemBatches.releaseOneByOne(this, objectsToUnmark);
+	}
+
+	@Override
+	public void releaseShared(TV sharedObject) throws PoolObjectReleasingInterruptedException {
+
+		IPoolItem<TK, TV> owningStripe = _objectToStripe.get(sharedObject);
+		if (owningStripe != null)
+			owningStripe.releaseShared(sharedObject);
+	}
+
+	@Override
+	public void markObjectForKilling(TV toKill) {
+
+		IPoolItem<TK, TV> owningStripe = _objectToStripe.get(toKill);
+		if (owningStripe != null)
+			owningStripe.markObjectForKilling(toKill);
+	}
+
+	@Override
+	public boolean evictIfAvailable(TV toEvict, Predicate<TV> shouldEvict) {
+
+		IPoolItem<TK, TV> owningStripe = _objectToStripe.get(toEvict);
+		return owningStripe != null && owningStripe.evictIfAvailable(toEvict, shouldEvict);
+	}
+
+	@Override
+	public void close() throws Exception {
+
+		_waiters.failAll();
+
+		for (IPoolItem<TK, TV> stripe : _stripes)
+			stripe.close();
+	}
+
+	@Override
+	public int getAllObjectsCount() {
+
+		int allObjectsCount = 0;
+		for (IPoolItem<TK, TV> stripe : _stripes)
+			allObjectsCount += stripe.getAllObjectsCount();
+		return allObjectsCount;
+	}
+
+	@Override
+	public int getAvailableObjectsCount() {
+
+		int availableObjectsCount = 0;
+		for (IPoolItem<TK, TV> stripe : _stripes)
+			availableObjectsCount += stripe.getAvailableObjectsCount();
+		return availableObjectsCount;
+	}
+
+	public int getStripesCount() {
+		return _stripes.size();
+	}
+
+	private TV createInHomeStripe(int homeStripeIndex, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,
+			   ObjectCreationFailedException, PoolObjectObtainingInterruptedException {
+
+		IPoolItem<TK, TV> homeStripe = _stripes.get(homeStripeIndex);
+		if (createDelegateIfNoObjectIsAvailable == null)
+			return homeStripe.obtain(null);
+
+		return homeStripe.obtain(key -> {
+			TV created = createDelegateIfNoObjectIsAvailable.apply(key);
+			_objectToStripe.put(created, homeStripe);
+			return created;
+		});
+	}
+
+	private boolean canCreateNewObject(FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+		return createDelegateIfNoObjectIsAvailable != null && !_capacity.isExhausted();
+	}
+
+	private TV tryObtainExistingStartingFrom(int homeStripeIndex) throws PoolObjectObtainingInterruptedException {
+
+		for (int i = 0; i < _stripes.size(); i++) {
+			TV existing = _stripes.get((homeStripeIndex + i) % _stripes.size()).tryObtainExisting();
+			if (existing != null)
+				return existing;
+		}
+
+		return null;
+	}
+
+	private int getHomeStripeIndex() {
+
+		long threadId = Thread.currentThread().getId();
+		int hash = (int) (threadId ^ (threadId >>> 32)) * _GOLDEN_RATIO_HASH_MULTIPLIER;
+		return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % _stripes.size();
+	}
+
+	private class StripeObjectActions implements IPoolObjectActions<TV> {
+
+		private final IPoolObjectActions<TV> _objectActions;
+
+		public StripeObjectActions(IPoolObjectActions<TV> objectActions) {
+			_objectActions = objectActions;
+		}
+
+		@Override
+		public boolean isValid(TV poolObject) {
+			return _objectActions.isValid(poolObject);
+		}
+
+		@Override
+		public boolean ping(TV poolObject) {
+			return _objectActions.ping(poolObject);
+		}
+
+		@Override
+		public boolean reset(TV poolObject) {
+			return _objectActions.reset(poolObject);
+		}
+
+		@Override
+		public void close(TV poolObject) {
+			_objectToStripe.remove(poolObject);
+			_objectActions.close(poolObject);
+			_waiters.signalOne();
+		}
+	}
+}
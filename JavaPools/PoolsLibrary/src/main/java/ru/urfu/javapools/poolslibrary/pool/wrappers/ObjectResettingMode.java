@@ -0,0 +1,10 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers;
+
+public enum ObjectResettingMode {
+
+	ON_RELEASE,
+	// released object is quarantined until a resetting thread has reset it, only then it's given back to pool
+	IN_BACKGROUND,
+	// released object is given back to pool at once and reset by whoever obtains it next
+	ON_NEXT_OBTAIN
+}
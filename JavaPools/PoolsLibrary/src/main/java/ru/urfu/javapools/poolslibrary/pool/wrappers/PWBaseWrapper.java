@@ -1,16 +1,22 @@
 package ru.urfu.javapools.poolslibrary.pool.wrappers;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.CircuitBreakerState;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
-import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItem;
 
 public abstract class PWBaseWrapper<TK,TV> implements IPool<TK,TV> {
 
@@ -28,6 +34,27 @@ public abstract class PWBaseWrapper<TK,TV> implements IPool<TK,TV> {
 		return _basePool.obtain(key, createDelegateIfNoObjectIsAvailable);
 	}
 
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		return _basePool.obtain(key, createDelegateIfNoObjectIsAvailable, timeout, unit);
+	}
+
+	@Override
+	public List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		return _basePool.obtainMany(key, count, mode, createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+		return _basePool.obtainAsync(key, createDelegateIfNoObjectIsAvailable);
+	}
+
 	@Override
 	public void release(TK key, TV objectToRelease)
 		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
@@ -35,13 +62,25 @@ public abstract class PWBaseWrapper<TK,TV> implements IPool<TK,TV> {
 		_basePool.release(key, objectToRelease);
 	}
 	
+	@Override
+	public void releaseAll(TK key, Collection<TV> objectsToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		_basePool.releaseAll(key, objectsToRelease);
+	}
+	
 	@Override
 	public void close() throws Exception {
 		_basePool.close();	
 	}
 
 	@Override
-	public ConcurrentMap<TK, PoolItem<TK, TV>> getKeyToPoolItem() {
+	public ConcurrentMap<TK, IPoolItem<TK, TV>> getKeyToPoolItem() {
 		return _basePool.getKeyToPoolItem();
 	}
+
+	@Override
+	public CircuitBreakerState getCircuitBreakerState(TK key) {
+		return _basePool.getCircuitBreakerState(key);
+	}
 }
@@ -0,0 +1,48 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers;
+
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
+
+public class PWObjectResettingSettings {
+
+	private ObjectResettingMode _resettingMode = ObjectResettingMode.ON_RELEASE;
+	private int _resettingThreadsCount = 1;
+	private int _quarantineCapacity = 1024;
+	private ObjectsTrackingMode _objectsTrackingMode = ObjectsTrackingMode.BY_EQUALITY;
+
+	public ObjectResettingMode getResettingMode() {
+		return _resettingMode;
+	}
+
+	public int getResettingThreadsCount() {
+		return _resettingThreadsCount;
+	}
+
+	public int getQuarantineCapacity() {
+		return _quarantineCapacity;
+	}
+
+	public ObjectsTrackingMode getObjectsTrackingMode() {
+		return _objectsTrackingMode;
+	}
+
+	public PWObjectResettingSettings setResettingMode(ObjectResettingMode resettingMode) {
+		_resettingMode = resettingMode;
+		return this;
+	}
+
+	public PWObjectResettingSettings setResettingThreadsCount(int resettingThreadsCount) {
+		_resettingThreadsCount = resettingThreadsCount;
+		return this;
+	}
+
+	// released objects beyond it are reset on the releasing thread
+	public PWObjectResettingSettings setQuarantineCapacity(int quarantineCapacity) {
+		_quarantineCapacity = quarantineCapacity;
+		return this;
+	}
+
+	public PWObjectResettingSettings setObjectsTrackingMode(ObjectsTrackingMode objectsTrackingMode) {
+		_objectsTrackingMode = objectsTrackingMode;
+		return this;
+	}
+}
@@ -1,32 +1,210 @@
 package ru.urfu.javapools.poolslibrary.pool.wrappers;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.lang.ObtainingFutures;
 import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
 import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizer;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
 
 public class PWObjectResettingWrapper<TK,TV> extends PWBaseWrapper<TK,TV> {
 
 	private final IPoolObjectActions<TV> _objectActions;
 	private final IObjectUtilizer<TK,TV> _objectUtilizer;
+	private final ObjectResettingMode _resettingMode;
+	private final ThreadPoolExecutor _resettingExecutor;
+	private final Set<TV> _objectsToReset;
+
+	private static final String _THREAD_NAME = "pool-objects-resetter";
+	private static final int _MILLS_TO_FINISH_RESETTING = 1000;
 	
 	public PWObjectResettingWrapper(IPool<TK, TV> basePool,
 									IPoolObjectActions<TV> objectActions,
 									IObjectUtilizer<TK,TV> objectUtilizer) {
+
+		this(basePool, objectActions, objectUtilizer, new PWObjectResettingSettings());
+	}
+
+	public PWObjectResettingWrapper(IPool<TK, TV> basePool,
+									IPoolObjectActions<TV> objectActions,
+									IObjectUtilizer<TK,TV> objectUtilizer,
+									PWObjectResettingSettings settings) {
 		
 		super(basePool);
 		_objectActions = objectActions;
 		_objectUtilizer = objectUtilizer;
+		_resettingMode = settings.getResettingMode();
+
+		_resettingExecutor = _resettingMode == ObjectResettingMode.IN_BACKGROUND ? createResettingExecutor(settings) : null;
+		_objectsToReset = _resettingMode == ObjectResettingMode.ON_NEXT_OBTAIN
+						  ? Collections.newSetFromMap(settings.getObjectsTrackingMode().<TV,Boolean>createConcurrentMap())
+						  : null;
+	}
+
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		return resetIfDeferred(key, _basePool.obtain(key, createDelegateIfNoObjectIsAvailable), createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		return resetIfDeferred(key, _basePool.obtain(key, createDelegateIfNoObjectIsAvailable, timeout, unit),
+							   createDelegateIfNoObjectIsAvailable);
+	}
+
+	@Override
+	public List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		List<TV> obtained = _basePool.obtainMany(key, count, mode, createDelegateIfNoObjectIsAvailable);
+		if (_objectsToReset == null)
+			return obtained;
+
+		List<TV> resetObjects = new ArrayList<TV>(obtained.size());
+		for (TV obtainedObject : obtained)
+			resetObjects.add(resetIfDeferred(key, obtainedObject, createDelegateIfNoObjectIsAvailable));
+		return resetObjects;
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+
+		if (_objectsToReset == null)
+			return _basePool.obtainAsync(key, createDelegateIfNoObjectIsAvailable);
+
+		return ObtainingFutures.thenApplyKeepingCancellation(_basePool.obtainAsync(key, createDelegateIfNoObjectIsAvailable),
+															 obtained -> resetIfDeferred(key, obtained, createDelegateIfNoObjectIsAvailable),
+															 obtained -> releaseQuietly(key, Collections.singletonList(obtained)));
 	}
 
 	@Override
 	public void release(TK key, TV objectToRelease)
 		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
 		
-		if (!_objectActions.reset(objectToRelease))
-			_objectUtilizer.utilize(key, objectToRelease, this);
+		switch (_resettingMode) {
+			case IN_BACKGROUND:
+				quarantine(key, Collections.singletonList(objectToRelease));
+				return;
+			case ON_NEXT_OBTAIN:
+				_objectsToReset.add(objectToRelease);
+				break;
+			case ON_RELEASE:
+			default:
+				resetOrUtilize(key, objectToRelease);
+		}
 		
 		_basePool.release(key, objectToRelease);
 	}
+
+	@Override
+	public void releaseAll(TK key, Collection<TV> objectsToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		switch (_resettingMode) {
+			case IN_BACKGROUND:
+				quarantine(key, objectsToRelease);
+				return;
+			case ON_NEXT_OBTAIN:
+				_objectsToReset.addAll(objectsToRelease);
+				break;
+			case ON_RELEASE:
+			default:
+				for (TV objectToRelease : objectsToRelease)
+					resetOrUtilize(key, objectToRelease);
+		}
+
+		_basePool.releaseAll(key, objectsToRelease);
+	}
+
+	// quarantine is drained before base pool is closed, so reset objects still get back to it
+	@Override
+	public void close() throws Exception {
+
+		if (_resettingExecutor != null) {
+			_resettingExecutor.shutdown();
+			_resettingExecutor.awaitTermination(_MILLS_TO_FINISH_RESETTING, TimeUnit.MILLISECONDS);
+		}
+		super.close();
+	}
+
+	// quarantined objects stay obtained in base pool, so nobody gets them before their reset is over;
+	// when quarantine is full, releasing thread resets its objects itself
+	private void quarantine(TK key, Collection<TV> objectsToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		Collection<TV> quarantined = new ArrayList<TV>(objectsToRelease);
+		try {
+			_resettingExecutor.execute(() -> {
+				for (TV objectToRelease : quarantined)
+					resetOrUtilize(key, objectToRelease);
+				releaseQuietly(key, quarantined);
+			});
+			return;
+		} catch (RejectedExecutionException e) {}
+
+		for (TV objectToRelease : quarantined)
+			resetOrUtilize(key, objectToRelease);
+		_basePool.releaseAll(key, quarantined);
+	}
+
+	// object that fails its deferred reset is released for killing and replaced by another one
+	private TV resetIfDeferred(TK key, TV obtained, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		while (_objectsToReset != null && _objectsToReset.remove(obtained) && !_objectActions.reset(obtained)) {
+			_objectUtilizer.utilize(key, obtained, this);
+			releaseQuietly(key, Collections.singletonList(obtained));
+			obtained = _basePool.obtain(key, createDelegateIfNoObjectIsAvailable);
+		}
+		return obtained;
+	}
+
+	private void resetOrUtilize(TK key, TV objectToRelease) {
+
+		if (!_objectActions.reset(objectToRelease))
+			_objectUtilizer.utilize(key, objectToRelease, this);
+	}
+
+	private void releaseQuietly(TK key, Collection<TV> objectsToRelease) {
+
+		try {
+			_basePool.releaseAll(key, objectsToRelease);
+		} catch (InvalidPoolOperationException | PoolObjectReleasingInterruptedException e) {}
+	}
+
+	private static ThreadPoolExecutor createResettingExecutor(PWObjectResettingSettings settings) {
+
+		return new ThreadPoolExecutor(settings.getResettingThreadsCount(), settings.getResettingThreadsCount(), 0, TimeUnit.MILLISECONDS,
+									  new ArrayBlockingQueue<Runnable>(settings.getQuarantineCapacity()),
+									  runnable -> {
+										  Thread thread = new Thread(runnable, _THREAD_NAME);
+										  thread.setDaemon(true);
+										  return thread;
+									  });
+	}
 }
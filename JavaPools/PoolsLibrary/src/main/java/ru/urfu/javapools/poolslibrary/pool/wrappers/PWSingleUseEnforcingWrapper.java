@@ -1,9 +1,11 @@
 package ru.urfu.javapools.poolslibrary.pool.wrappers;
 
+import java.util.Collection;
+
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
-import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItem;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
 
 public class PWSingleUseEnforcingWrapper<TK,TV> extends PWBaseWrapper<TK,TV> {
 
@@ -15,9 +17,19 @@ public class PWSingleUseEnforcingWrapper<TK,TV> extends PWBaseWrapper<TK,TV> {
 	public void release(TK key, TV objectToRelease)
 		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
 		
-		PoolItem<TK,TV> poolItem = getKeyToPoolItem().get(key);
+		IPoolItem<TK,TV> poolItem = getKeyToPoolItem().get(key);
 		poolItem.release(objectToRelease);
 		
 		_basePool.release(key, objectToRelease);
 	}
+
+	@Override
+	public void releaseAll(TK key, Collection<TV> objectsToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		IPoolItem<TK,TV> poolItem = getKeyToPoolItem().get(key);
+		poolItem.releaseAll(objectsToRelease);
+
+		_basePool.releaseAll(key, objectsToRelease);
+	}
 }
@@ -1,12 +1,18 @@
 package ru.urfu.javapools.poolslibrary.pool.wrappers.autoreleasing;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolController;
 import ru.urfu.javapools.poolslibrary.controller.PoolException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.lang.ObtainingFutures;
 import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizer;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
@@ -36,19 +42,66 @@ public class PWAutoReleasingWrapper<TK, TV extends ISelfReleasingObject<TV>> ext
 		return obtained;
 	}
 
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		becomeSureControllerIsSet();
+
+		TV obtained = _basePool.obtain(key, createDelegateIfNoObjectIsAvailable, timeout, unit);
+		obtained.setListener(this);
+		return obtained;
+	}
+
+	@Override
+	public List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		becomeSureControllerIsSet();
+
+		List<TV> obtained = _basePool.obtainMany(key, count, mode, createDelegateIfNoObjectIsAvailable);
+		for (TV obtainedObject : obtained)
+			obtainedObject.setListener(this);
+		return obtained;
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+
+		try {
+			becomeSureControllerIsSet();
+		} catch (InvalidPoolOperationException e) {
+			return ObtainingFutures.failed(e);
+		}
+
+		return ObtainingFutures.thenApplyKeepingCancellation(_basePool.obtainAsync(key, createDelegateIfNoObjectIsAvailable),
+															 obtained -> {
+																 obtained.setListener(this);
+																 return obtained;
+															 },
+															 obtained -> releaseQuietly(key, obtained));
+	}
+
 	@Override
 	public void onSelfReleasing(TV selfReleasedObject) {
 
 		try {
 			_controller.release(selfReleasedObject);
 		} catch (PoolException e) {
-			try {
-				TK key = _controller.getKeyByObject(selfReleasedObject);
-				_objectUtilizer.utilize(key, selfReleasedObject, this);
-			} catch (InterruptedException ee) {}
+			TK key = _controller.findKeyByObject(selfReleasedObject);
+			_objectUtilizer.utilize(key, selfReleasedObject, this);
 		}
 	}
 
+	private void releaseQuietly(TK key, TV obtainedObject) {
+
+		try {
+			_basePool.release(key, obtainedObject);
+		} catch (PoolException e) {}
+	}
+
 	public void setPoolController(PoolController<TK, TV> controller) {
 		_controller = controller;
 	}
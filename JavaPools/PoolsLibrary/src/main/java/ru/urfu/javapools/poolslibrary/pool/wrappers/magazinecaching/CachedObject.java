@@ -0,0 +1,38 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers.magazinecaching;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// object given by the wrapper together with its own cache state, so that taking it from a magazine
+// and putting it back touch only this object and not state shared by all of them
+class CachedObject<TV> {
+
+	private final TV _object;
+	private final AtomicBoolean _isGiven = new AtomicBoolean(true);
+	private volatile boolean _isKilled;
+
+	public CachedObject(TV object) {
+		_object = object;
+	}
+
+	public TV getObject() {
+		return _object;
+	}
+
+	public boolean getIsKilled() {
+		return _isKilled;
+	}
+
+	// base pool destroys killed object only when it gets the object back, so the cache must not keep it
+	public void markKilled() {
+		_isKilled = true;
+	}
+
+	public void markGiven() {
+		_isGiven.set(true);
+	}
+
+	// only one of concurrent releases of the same object wins
+	public boolean tryMarkReleased() {
+		return _isGiven.compareAndSet(true, false);
+	}
+}
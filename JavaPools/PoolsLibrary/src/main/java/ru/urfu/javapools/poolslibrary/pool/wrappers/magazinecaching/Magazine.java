@@ -0,0 +1,68 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers.magazinecaching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class Magazine<TV> {
+
+	private final AtomicReferenceArray<TV> _objects;
+	private int _top;
+
+	public Magazine(int capacity) {
+		_objects = new AtomicReferenceArray<TV>(capacity);
+	}
+
+	public boolean push(TV object) {
+
+		if (_top == _objects.length())
+			return false;
+
+		// volatile write: closing wrapper either drains the object or is seen by the pushing thread afterwards
+		_objects.set(_top++, object);
+		return true;
+	}
+
+	public TV pop() {
+
+		while (_top > 0) {
+			TV object = _objects.getAndSet(--_top, null);
+			if (object != null)
+				return object;
+		}
+
+		return null;
+	}
+
+	public boolean tryRemove(TV object) {
+
+		for (int i = 0; i < _objects.length(); i++)
+			if (_objects.get(i) == object && _objects.compareAndSet(i, object, null))
+				return true;
+
+		return false;
+	}
+
+	public TV tryStealAny() {
+
+		for (int i = 0; i < _objects.length(); i++) {
+			TV object = _objects.get(i);
+			if (object != null && _objects.compareAndSet(i, object, null))
+				return object;
+		}
+
+		return null;
+	}
+
+	public List<TV> drain() {
+
+		List<TV> drained = new ArrayList<TV>();
+		for (int i = 0; i < _objects.length(); i++) {
+			TV object = _objects.getAndSet(i, null);
+			if (object != null)
+				drained.add(object);
+		}
+
+		return drained;
+	}
+}
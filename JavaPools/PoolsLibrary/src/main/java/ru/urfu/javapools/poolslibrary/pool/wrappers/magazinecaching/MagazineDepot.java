@@ -0,0 +1,64 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers.magazinecaching;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MagazineDepot<TV> {
+
+	private final int _magazineCapacity;
+	private final int _maxFullMagazinesCount;
+
+	private final ConcurrentLinkedQueue<Magazine<TV>> _fullMagazines = new ConcurrentLinkedQueue<Magazine<TV>>();
+	private final ConcurrentLinkedQueue<Magazine<TV>> _emptyMagazines = new ConcurrentLinkedQueue<Magazine<TV>>();
+	private final AtomicInteger _fullMagazinesCount = new AtomicInteger();
+
+	private final ConcurrentLinkedQueue<Magazine<TV>> _allMagazines = new ConcurrentLinkedQueue<Magazine<TV>>();
+
+	public MagazineDepot(int magazineCapacity, int maxFullMagazinesCount) {
+
+		_magazineCapacity = magazineCapacity;
+		_maxFullMagazinesCount = maxFullMagazinesCount;
+	}
+
+	public Magazine<TV> takeEmpty() {
+
+		Magazine<TV> empty = _emptyMagazines.poll();
+		if (empty != null)
+			return empty;
+
+		empty = new Magazine<TV>(_magazineCapacity);
+		_allMagazines.add(empty);
+		return empty;
+	}
+
+	public void putEmpty(Magazine<TV> empty) {
+		_emptyMagazines.add(empty);
+	}
+
+	public Magazine<TV> takeFull() {
+
+		Magazine<TV> full = _fullMagazines.poll();
+		if (full != null)
+			_fullMagazinesCount.decrementAndGet();
+
+		return full;
+	}
+
+	public boolean tryPutFull(Magazine<TV> full) {
+
+		int currentCount;
+		do {
+			currentCount = _fullMagazinesCount.get();
+			if (currentCount >= _maxFullMagazinesCount)
+				return false;
+		} while (!_fullMagazinesCount.compareAndSet(currentCount, currentCount + 1));
+
+		_fullMagazines.add(full);
+		return true;
+	}
+
+	public Collection<Magazine<TV>> getAllMagazines() {
+		return _allMagazines;
+	}
+}
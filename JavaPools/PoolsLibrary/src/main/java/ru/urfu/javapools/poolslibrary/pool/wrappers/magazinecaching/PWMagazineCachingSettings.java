@@ -0,0 +1,25 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers.magazinecaching;
+
+public class PWMagazineCachingSettings {
+
+	private int _magazineCapacity;
+	private int _maxFullMagazinesInDepotPerKey;
+
+	public int getMagazineCapacity() {
+		return _magazineCapacity;
+	}
+
+	public int getMaxFullMagazinesInDepotPerKey() {
+		return _maxFullMagazinesInDepotPerKey;
+	}
+
+	public PWMagazineCachingSettings setMagazineCapacity(int magazineCapacity) {
+		_magazineCapacity = magazineCapacity;
+		return this;
+	}
+
+	public PWMagazineCachingSettings setMaxFullMagazinesInDepotPerKey(int maxFullMagazinesInDepotPerKey) {
+		_maxFullMagazinesInDepotPerKey = maxFullMagazinesInDepotPerKey;
+		return this;
+	}
+}
@@ -0,0 +1,344 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers.magazinecaching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.controller.PoolException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
+import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.lang.ConcurrentIdentityHashMap;
+import ru.urfu.javapools.poolslibrary.lang.ObtainingFutures;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.objectutilization.GoneObjectEvent;
+import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizationListener;
+import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizer;
+import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
+import ru.urfu.javapools.poolslibrary.pool.wrappers.PWBaseWrapper;
+
+public class PWMagazineCachingWrapper<TK,TV> extends PWBaseWrapper<TK,TV>
+											 implements IObjectUtilizationListener<TK,TV> {
+
+	private final PWMagazineCachingSettings _settings;
+
+	private final ThreadLocal<HashMap<TK, Magazine<CachedObject<TV>>>> _threadMagazines = ThreadLocal.withInitial(HashMap::new);
+	private final ConcurrentHashMap<TK, MagazineDepot<CachedObject<TV>>> _keyToDepot = new ConcurrentHashMap<TK, MagazineDepot<CachedObject<TV>>>();
+	// cached objects are marked as not available in base pool, so its release validation can't catch their double release;
+	// object is put here when base pool gives it and removed when it goes back, so cache hits and misses only read it
+	private final ConcurrentIdentityHashMap<TV, CachedObject<TV>> _objectToCachedObject = new ConcurrentIdentityHashMap<TV, CachedObject<TV>>();
+	private volatile boolean _isClosed;
+
+	private final IPoolObjectActions<TV> _objectActions;
+	private final IObjectUtilizer<TK, TV> _objectUtilizer;
+
+	private static final String _MESSAGE_ALREADY_RELEASED = "Object has already been released and is waiting in cache";
+	private static final String _MESSAGE_NOT_GIVEN = "Object isn't given by the pool: it has already been released or wasn't obtained from the pool";
+
+	public PWMagazineCachingWrapper(PWMagazineCachingSettings settings,
+									IPool<TK, TV> basePool,
+									IPoolObjectActions<TV> objectActions,
+									IObjectUtilizer<TK, TV> objectUtilizer) {
+
+		super(basePool);
+
+		_settings = settings;
+		_objectActions = objectActions;
+		_objectUtilizer = objectUtilizer;
+
+		_objectUtilizer.addListener(this);
+	}
+
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		if (!_isClosed) {
+			CachedObject<TV> cached = tryTakeFromOwnMagazine(key);
+			if (cached != null)
+				return cached.getObject();
+		}
+
+		try {
+			return rememberGiven(_basePool.obtain(key, createDelegateIfNoObjectIsAvailable));
+		} catch (NoAvailableObjectException | ObjectsMaxCountReachedException e) {
+			CachedObject<TV> stolen = tryStealFromAnyMagazine(key);
+			if (stolen == null)
+				throw e;
+			return stolen.getObject();
+		}
+	}
+
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		if (!_isClosed) {
+			CachedObject<TV> cached = tryTakeFromOwnMagazine(key);
+			if (cached == null)
+				cached = tryStealFromAnyMagazine(key);
+			if (cached != null)
+				return cached.getObject();
+		}
+
+		return rememberGiven(_basePool.obtain(key, createDelegateIfNoObjectIsAvailable, timeout, unit));
+	}
+
+	@Override
+	public List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		List<TV> obtained = new ArrayList<TV>(count);
+		if (!_isClosed) {
+			CachedObject<TV> cached;
+			while (obtained.size() < count && (cached = tryTakeFromOwnMagazine(key)) != null)
+				obtained.add(cached.getObject());
+		}
+
+		if (obtained.size() == count)
+			return obtained;
+
+		try {
+			for (TV obtainedFromBase : _basePool.obtainMany(key, count - obtained.size(), mode, createDelegateIfNoObjectIsAvailable))
+				obtained.add(rememberGiven(obtainedFromBase));
+		} catch (NoAvailableObjectException | ObjectsMaxCountReachedException | ObjectCreationFailedException e) {
+			if (mode == BatchObtainingMode.BEST_EFFORT && !obtained.isEmpty())
+				return obtained;
+			releaseAllQuietly(key, obtained);
+			throw e;
+		} catch (InvalidPoolOperationException | PoolObjectObtainingInterruptedException e) {
+			releaseAllQuietly(key, obtained);
+			throw e;
+		}
+
+		return obtained;
+	}
+
+	@Override
+	public CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+
+		if (!_isClosed) {
+			try {
+				CachedObject<TV> cached = tryTakeFromOwnMagazine(key);
+				if (cached == null)
+					cached = tryStealFromAnyMagazine(key);
+				if (cached != null)
+					return CompletableFuture.completedFuture(cached.getObject());
+			} catch (PoolException e) {
+				return ObtainingFutures.failed(e);
+			}
+		}
+
+		return ObtainingFutures.thenApplyKeepingCancellation(_basePool.obtainAsync(key, createDelegateIfNoObjectIsAvailable),
+															 this::rememberGiven,
+															 obtained -> {
+																 _objectToCachedObject.remove(obtained);
+																 releaseToBaseQuietly(key, obtained);
+															 });
+	}
+
+	@Override
+	public void release(TK key, TV objectToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		if (_isClosed) {
+			_objectToCachedObject.remove(objectToRelease);
+			_basePool.release(key, objectToRelease);
+			return;
+		}
+
+		CachedObject<TV> cached = _objectToCachedObject.get(objectToRelease);
+		if (cached == null || !cached.tryMarkReleased())
+			throw new InvalidPoolOperationException(key, objectToRelease, cached != null ? _MESSAGE_ALREADY_RELEASED : _MESSAGE_NOT_GIVEN);
+
+		if (cached.getIsKilled()) {
+			forgetAndReleaseToBase(key, objectToRelease);
+			return;
+		}
+
+		HashMap<TK, Magazine<CachedObject<TV>>> ownMagazines = _threadMagazines.get();
+		Magazine<CachedObject<TV>> magazine = ownMagazines.get(key);
+		if (magazine == null) {
+			magazine = getDepot(key).takeEmpty();
+			ownMagazines.put(key, magazine);
+		}
+
+		if (!magazine.push(cached)) {
+			MagazineDepot<CachedObject<TV>> depot = getDepot(key);
+			if (!depot.tryPutFull(magazine)) {
+				forgetAndReleaseToBase(key, objectToRelease);
+				return;
+			}
+
+			magazine = depot.takeEmpty();
+			ownMagazines.put(key, magazine);
+			magazine.push(cached);
+		}
+
+		// closing may have drained magazines before the push, then the object is taken back from the cache
+		if (_isClosed && magazine.tryRemove(cached))
+			forgetAndReleaseToBase(key, objectToRelease);
+	}
+
+	@Override
+	public void releaseAll(TK key, Collection<TV> objectsToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		List<TV> given = new ArrayList<TV>(objectsToRelease.size());
+		TV firstNotGiven = null;
+		for (TV objectToRelease : objectsToRelease) {
+			CachedObject<TV> cached = _objectToCachedObject.get(objectToRelease);
+			if (cached != null && cached.tryMarkReleased()) {
+				_objectToCachedObject.remove(objectToRelease);
+				given.add(objectToRelease);
+			} else if (firstNotGiven == null)
+				firstNotGiven = objectToRelease;
+		}
+
+		if (!given.isEmpty())
+			_basePool.releaseAll(key, given);
+		if (firstNotGiven != null)
+			throw new InvalidPoolOperationException(key, firstNotGiven, _MESSAGE_NOT_GIVEN);
+	}
+
+	@Override
+	public void onObjectUtilization(GoneObjectEvent<TK, TV> goneObjectEvent) {
+
+		CachedObject<TV> cached = _objectToCachedObject.get(goneObjectEvent.getPoolObject());
+		if (cached == null)
+			return;
+
+		// object in use is marked too, so that its release doesn't put it into a magazine
+		cached.markKilled();
+		MagazineDepot<CachedObject<TV>> depot = _keyToDepot.get(goneObjectEvent.getKey());
+		if (depot == null)
+			return;
+
+		for (Magazine<CachedObject<TV>> magazine : depot.getAllMagazines())
+			if (magazine.tryRemove(cached)) {
+				_objectToCachedObject.remove(goneObjectEvent.getPoolObject());
+				releaseToBaseQuietly(goneObjectEvent.getKey(), goneObjectEvent.getPoolObject());
+				return;
+			}
+	}
+
+	@Override
+	public void close() throws Exception {
+
+		_isClosed = true;
+		_objectUtilizer.removeListener(this);
+
+		for (TK key : _keyToDepot.keySet())
+			for (Magazine<CachedObject<TV>> magazine : _keyToDepot.get(key).getAllMagazines())
+				for (CachedObject<TV> cached : magazine.drain()) {
+					_objectToCachedObject.remove(cached.getObject());
+					releaseToBaseQuietly(key, cached.getObject());
+				}
+
+		super.close();
+	}
+
+	private TV rememberGiven(TV obtainedFromBase) {
+
+		_objectToCachedObject.put(obtainedFromBase, new CachedObject<TV>(obtainedFromBase));
+		return obtainedFromBase;
+	}
+
+	private CachedObject<TV> tryTakeFromOwnMagazine(TK key) throws InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		HashMap<TK, Magazine<CachedObject<TV>>> ownMagazines = _threadMagazines.get();
+		Magazine<CachedObject<TV>> magazine = ownMagazines.get(key);
+		if (magazine == null)
+			return null;
+
+		while (true) {
+			CachedObject<TV> cached = magazine.pop();
+
+			if (cached == null) {
+				MagazineDepot<CachedObject<TV>> depot = getDepot(key);
+				Magazine<CachedObject<TV>> full = depot.takeFull();
+				if (full == null)
+					return null;
+
+				depot.putEmpty(magazine);
+				ownMagazines.put(key, full);
+				magazine = full;
+				continue;
+			}
+
+			if (tryGive(key, cached))
+				return cached;
+		}
+	}
+
+	private CachedObject<TV> tryStealFromAnyMagazine(TK key) throws InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		MagazineDepot<CachedObject<TV>> depot = _keyToDepot.get(key);
+		if (depot == null)
+			return null;
+
+		for (Magazine<CachedObject<TV>> magazine : depot.getAllMagazines()) {
+			CachedObject<TV> stolen;
+			while ((stolen = magazine.tryStealAny()) != null)
+				if (tryGive(key, stolen))
+					return stolen;
+		}
+
+		return null;
+	}
+
+	// object taken from a magazine is given only if it's neither killed nor invalid, otherwise it goes back to base pool
+	private boolean tryGive(TK key, CachedObject<TV> taken) throws InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		if (!taken.getIsKilled() && _objectActions.isValid(taken.getObject())) {
+			taken.markGiven();
+			return true;
+		}
+
+		_objectToCachedObject.remove(taken.getObject());
+		try {
+			_basePool.release(key, taken.getObject());
+		} catch (PoolObjectReleasingInterruptedException e) {
+			throw new PoolObjectObtainingInterruptedException(key, e);
+		}
+		return false;
+	}
+
+	private void forgetAndReleaseToBase(TK key, TV object) throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		_objectToCachedObject.remove(object);
+		_basePool.release(key, object);
+	}
+
+	private void releaseAllQuietly(TK key, List<TV> objects) {
+
+		for (TV object : objects)
+			try {
+				release(key, object);
+			} catch (PoolException e) {}
+	}
+
+	private void releaseToBaseQuietly(TK key, TV object) {
+
+		try {
+			_basePool.release(key, object);
+		} catch (PoolException e) {}
+	}
+
+	private MagazineDepot<CachedObject<TV>> getDepot(TK key) {
+		return _keyToDepot.computeIfAbsent(key, k -> new MagazineDepot<CachedObject<TV>>(_settings.getMagazineCapacity(),
+																		   _settings.getMaxFullMagazinesInDepotPerKey()));
+	}
+}
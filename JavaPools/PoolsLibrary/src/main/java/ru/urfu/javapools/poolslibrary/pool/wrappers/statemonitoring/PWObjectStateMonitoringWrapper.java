@@ -1,17 +1,23 @@
 package ru.urfu.javapools.poolslibrary.pool.wrappers.statemonitoring;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedException;
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.lang.ObtainingFutures;
 import ru.urfu.javapools.poolslibrary.locks.CleaningSynchronizer;
 import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
 import ru.urfu.javapools.poolslibrary.objectutilization.IObjectUtilizer;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
@@ -84,6 +90,45 @@ public class PWObjectStateMonitoringWrapper<TK,TV> extends PWBaseWrapper<TK,TV>
 		}
 	}
 	
+	@Override
+	public TV obtain(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable, long timeout, TimeUnit unit)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		// waiting is done outside of pool operation section: cleaning must not be blocked by sleeping obtainers
+		TV obtained = _basePool.obtain(key, createDelegateIfNoObjectIsAvailable, timeout, unit);
+		return rememberLifetimeData(key, obtained);
+	}
+	
+	@Override
+	public List<TV> obtainMany(TK key, int count, BatchObtainingMode mode, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable)
+		throws NoAvailableObjectException, ObjectsMaxCountReachedException,	ObjectCreationFailedException,
+			   InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+		try {
+			_cleaningSynchronizer.lockPoolOperation();
+		} catch (InterruptedException e) {
+			throw new PoolObjectObtainingInterruptedException(key, e);
+		}
+
+		try {
+			List<TV> obtained = _basePool.obtainMany(key, count, mode, createDelegateIfNoObjectIsAvailable);
+			for (TV obtainedObject : obtained)
+				putOrUpdateLifetimeData(key, obtainedObject);
+			return obtained;
+		} finally {
+			_cleaningSynchronizer.unlockPoolOperation();
+		}
+	}
+	
+	@Override
+	public CompletableFuture<TV> obtainAsync(TK key, FunctionThatMayThrow<TK, TV> createDelegateIfNoObjectIsAvailable) {
+
+		return ObtainingFutures.thenApplyKeepingCancellation(_basePool.obtainAsync(key, createDelegateIfNoObjectIsAvailable),
+															 obtained -> rememberLifetimeData(key, obtained),
+															 obtained -> releaseQuietly(key, obtained));
+	}
+	
 	@Override
 	public void release(TK key, TV objectToRelease)
 		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
@@ -104,6 +149,27 @@ public class PWObjectStateMonitoringWrapper<TK,TV> extends PWBaseWrapper<TK,TV>
 		}
 	}
 	
+	@Override
+	public void releaseAll(TK key, Collection<TV> objectsToRelease)
+		throws InvalidPoolOperationException, PoolObjectReleasingInterruptedException {
+
+		try {
+			_cleaningSynchronizer.lockPoolOperation();
+		} catch (InterruptedException e) {
+			throw new PoolObjectReleasingInterruptedException(key, null, e);
+		}
+
+		if (_shouldWatchTimestamps)
+			for (TV objectToRelease : objectsToRelease)
+				putOrUpdateLifetimeData(key, objectToRelease);
+
+		try {
+			super.releaseAll(key, objectsToRelease);
+		} finally {
+			_cleaningSynchronizer.unlockPoolOperation();
+		}
+	}
+	
 	@Override
 	public void close() throws Exception {
 		
@@ -137,6 +203,30 @@ public class PWObjectStateMonitoringWrapper<TK,TV> extends PWBaseWrapper<TK,TV>
 		}
 	}
 		
+	private TV rememberLifetimeData(TK key, TV obtained) throws PoolObjectObtainingInterruptedException {
+
+		try {
+			_cleaningSynchronizer.lockPoolOperation();
+		} catch (InterruptedException e) {
+			releaseQuietly(key, obtained);
+			throw new PoolObjectObtainingInterruptedException(key, e);
+		}
+
+		try {
+			putOrUpdateLifetimeData(key, obtained);
+			return obtained;
+		} finally {
+			_cleaningSynchronizer.unlockPoolOperation();
+		}
+	}
+
+	private void releaseQuietly(TK key, TV obtainedObject) {
+
+		try {
+			_basePool.release(key, obtainedObject);
+		} catch (InvalidPoolOperationException | PoolObjectReleasingInterruptedException e) {}
+	}
+		
 	private synchronized void putOrUpdateLifetimeData(TK key, TV poolobject) {
 		
 		ObjectLifetimeData<TK> previousLifetimeData = _objectToLifetimeData.get(poolobject);
@@ -0,0 +1,77 @@
+package ru.urfu.javapools.poolslibrary.benchmarks;
+
+import java.util.LinkedList;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.CollectionAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.RingBufferAvailableObjectsStorage;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+// cycle of lock-based pool item under steady load: the object to give is polled and the released one is added back
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class AvailableObjectsStorageBenchmark {
+
+	@Param({"LINKED_LIST", "STACK", "RING_BUFFER_FIFO", "RING_BUFFER_LIFO"})
+	public String _storageKind;
+
+	@Param({"16", "1024"})
+	public int _availableObjectsCount;
+
+	private IAvailableObjectsStorage<TestResource> _storage;
+
+	@Setup
+	public void setup() {
+
+		_storage = createStorage();
+		for (int i = 0; i < _availableObjectsCount; i++)
+			_storage.add(new TestResource(String.valueOf(i)));
+	}
+
+	@Benchmark
+	public TestResource pollAndAddBack() {
+
+		TestResource polled = _storage.poll();
+		_storage.add(polled);
+		return polled;
+	}
+
+	private IAvailableObjectsStorage<TestResource> createStorage() {
+
+		switch (_storageKind) {
+			case "LINKED_LIST":
+				return new CollectionAvailableObjectsStorage<TestResource>(new LinkedList<TestResource>());
+			case "STACK":
+				return new CollectionAvailableObjectsStorage<TestResource>(new Stack<TestResource>());
+			case "RING_BUFFER_FIFO":
+				return new RingBufferAvailableObjectsStorage<TestResource>(false);
+			default:
+				return new RingBufferAvailableObjectsStorage<TestResource>(true);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AvailableObjectsStorageBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,95 @@
+package ru.urfu.javapools.poolslibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ru.urfu.javapools.poolslibrary.locks.FairLockWithPrecedence;
+import ru.urfu.javapools.poolslibrary.locks.ILockWithPrecedence;
+import ru.urfu.javapools.poolslibrary.locks.QueuedLockWithPrecedence;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockWithPrecedenceBenchmark {
+
+	public enum LockKind {
+		FAIR_WITH_PRECEDENCE,
+		QUEUED_FAIR,
+		QUEUED_BARGING
+	}
+
+	@Param({"FAIR_WITH_PRECEDENCE", "QUEUED_FAIR", "QUEUED_BARGING"})
+	public LockKind _lockKind;
+
+	private ILockWithPrecedence _lock;
+	private long _guardedCounter;
+
+	@Setup
+	public void setup() {
+
+		switch (_lockKind) {
+			case FAIR_WITH_PRECEDENCE:
+				_lock = new FairLockWithPrecedence();
+				break;
+			case QUEUED_FAIR:
+				_lock = new QueuedLockWithPrecedence(false);
+				break;
+			case QUEUED_BARGING:
+				_lock = new QueuedLockWithPrecedence(true);
+				break;
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public long lockAndUnlock_1Thread() throws Exception {
+		return lockAndUnlock(false);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public long lockAndUnlock_8Threads() throws Exception {
+		return lockAndUnlock(false);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public long lockImportantAndUnlock_8Threads() throws Exception {
+		return lockAndUnlock(true);
+	}
+
+	private long lockAndUnlock(boolean isImportant) throws Exception {
+
+		if (isImportant)
+			_lock.lockImportant();
+		else
+			_lock.lock();
+		try {
+			return ++_guardedCounter;
+		} finally {
+			_lock.unlock();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LockWithPrecedenceBenchmark.class.getSimpleName()).build()).run();
+	}
+}
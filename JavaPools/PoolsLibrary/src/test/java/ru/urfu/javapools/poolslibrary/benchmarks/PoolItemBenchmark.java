@@ -0,0 +1,90 @@
+package ru.urfu.javapools.poolslibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.objectactions.ExplicitlyDefinedObjectActions;
+import ru.urfu.javapools.poolslibrary.objectactions.ObjectActionsBasedOnDelegateOrInterface;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemConcurrencyMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.IPoolItem;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.PoolItemSettings;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolItemBenchmark {
+
+	@Param({"LOCK_BASED", "LOCK_FREE"})
+	public PoolItemConcurrencyMode _concurrencyMode;
+
+	private IPoolItem<TestKey, TestResource> _poolItem;
+
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = key -> new TestResource("");
+
+	private static final int _MAX_OBJECTS_COUNT = 128;
+
+	@Setup
+	public void setup() {
+
+		PoolItemSettings<TestKey> settings = new PoolItemSettings<TestKey>()
+			.setKey(new TestKey(1))
+			.setMarkObtainedObjectAsNotAvailable(true)
+			.setMaxObjectsCount(_MAX_OBJECTS_COUNT);
+
+		_poolItem = _concurrencyMode.createPoolItem(settings,
+													LoadBalancingStrategy.INTENSIVE_ON_RECENTLY_USED_OBJECTS,
+													new ObjectActionsBasedOnDelegateOrInterface<TestResource>(
+														TestResource.class, new ExplicitlyDefinedObjectActions<TestResource>()));
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		_poolItem.close();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public TestResource obtainAndRelease_1Thread() throws Exception {
+		return obtainAndRelease();
+	}
+
+	@Benchmark
+	@Threads(64)
+	public TestResource obtainAndRelease_64Threads() throws Exception {
+		return obtainAndRelease();
+	}
+
+	private TestResource obtainAndRelease() throws Exception {
+
+		TestResource obtained = _poolItem.obtain(_createDelegate);
+		_poolItem.release(obtained);
+		return obtained;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PoolItemBenchmark.class.getSimpleName()).build()).run();
+	}
+}
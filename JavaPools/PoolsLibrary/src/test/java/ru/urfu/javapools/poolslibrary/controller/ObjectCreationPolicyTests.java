@@ -0,0 +1,112 @@
+package ru.urfu.javapools.poolslibrary.controller;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class ObjectCreationPolicyTests {
+
+	private final TestKey _key = new TestKey(15);
+
+	@Test
+	public void createDelegateFailsTwice_thirdAttemptSucceeds() throws Exception {
+
+		AtomicInteger callsCount = new AtomicInteger();
+		FunctionThatMayThrow<TestKey, TestResource> createDelegate = key -> {
+			if (callsCount.incrementAndGet() < 3)
+				throw new FileNotFoundException();
+			return new TestResource("created");
+		};
+		ObjectCreationPolicy policy = new ObjectCreationPolicy().setMaxAttemptsCount(3).setBackoffInMillis(1, 10);
+
+		TestResource created = policy.applyTo(createDelegate).apply(_key);
+
+		assertThat(created.getValue(), is("created"));
+		assertThat(callsCount.get(), is(3));
+	}
+
+	@Test
+	public void createDelegateAlwaysFails_lastFailureIsThrownAfterMaxAttempts() throws Exception {
+
+		AtomicInteger callsCount = new AtomicInteger();
+		FunctionThatMayThrow<TestKey, TestResource> createDelegate = key -> {
+			callsCount.incrementAndGet();
+			throw new FileNotFoundException();
+		};
+		ObjectCreationPolicy policy = new ObjectCreationPolicy().setMaxAttemptsCount(4).setBackoffInMillis(1, 10);
+
+		try {
+			policy.applyTo(createDelegate).apply(_key);
+			fail("Creation should fail");
+		} catch (FileNotFoundException e) {}
+
+		assertThat(callsCount.get(), is(4));
+	}
+
+	@Test
+	public void createDelegateHangs_callerGetsTimeoutAndHangingAttemptIsInterrupted() throws Exception {
+
+		CountDownLatch interruptedLatch = new CountDownLatch(1);
+		FunctionThatMayThrow<TestKey, TestResource> createDelegate = key -> {
+			try {
+				Thread.sleep(60_000);
+			} catch (InterruptedException e) {
+				interruptedLatch.countDown();
+				throw e;
+			}
+			return new TestResource("too late");
+		};
+		ObjectCreationPolicy policy = new ObjectCreationPolicy().setAttemptTimeout(50, TimeUnit.MILLISECONDS);
+
+		long startTime = System.nanoTime();
+		try {
+			policy.applyTo(createDelegate).apply(_key);
+			fail("Creation should time out");
+		} catch (TimeoutException e) {}
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) < 5_000, is(true));
+		assertThat(interruptedLatch.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test @SuppressWarnings("unchecked")
+	public void policyIsSpecifiedForObtain_itOverridesControllerDefaultPolicy() throws Exception {
+
+		IPool<TestKey, TestResource> poolMock = mock(IPool.class);
+		when(poolMock.obtain(eq(_key), org.mockito.Mockito.any(FunctionThatMayThrow.class)))
+			.thenAnswer(invocation -> ((FunctionThatMayThrow<TestKey, TestResource>) invocation.getArguments()[1]).apply(_key));
+		PoolController<TestKey, TestResource> controller = new PoolController<TestKey, TestResource>(poolMock)
+			.setDefaultCreationPolicy(new ObjectCreationPolicy().setMaxAttemptsCount(1));
+
+		AtomicInteger callsCount = new AtomicInteger();
+		DirectionIfNoObjectIsAvailable<TestKey, TestResource> noObjectDirection = new DirectionIfNoObjectIsAvailable<TestKey, TestResource>()
+			.setAttemptsNumber(1)
+			.setCreateMethod(key -> {
+				if (callsCount.incrementAndGet() < 2)
+					throw new FileNotFoundException();
+				return new TestResource("created");
+			})
+			.setCreationPolicy(new ObjectCreationPolicy().setMaxAttemptsCount(2).setBackoffInMillis(1, 10));
+
+		TestResource obtained = controller.obtain(_key, noObjectDirection);
+
+		assertThat(obtained.getValue(), is("created"));
+		assertThat(callsCount.get(), is(2));
+		ArgumentCaptor<FunctionThatMayThrow<TestKey, TestResource>> usedDelegate = ArgumentCaptor.forClass(FunctionThatMayThrow.class);
+		verify(poolMock).obtain(eq(_key), usedDelegate.capture());
+		assertThat(usedDelegate.getValue(), not(sameInstance(noObjectDirection.getCreateMethod())));
+	}
+}
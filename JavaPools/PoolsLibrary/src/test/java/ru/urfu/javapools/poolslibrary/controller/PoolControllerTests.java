@@ -5,6 +5,12 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.mockito.Mockito.*;
 import static ru.urfu.javapools.poolslibrary.utils.DateUtils.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -19,6 +25,8 @@ import ru.urfu.javapools.poolslibrary.matchers.InvalidOperationExceptionMatcher;
 import ru.urfu.javapools.poolslibrary.matchers.PoolExceptionMatcher;
 import ru.urfu.javapools.poolslibrary.mocks.PoolMocks;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
 import ru.urfu.javapools.poolslibrary.testentities.TestKey;
@@ -184,6 +192,72 @@ public class PoolControllerTests {
         verify(_throwingPoolMock).obtain(_key, null);
     }
     
+    @Test
+    public void waitingTimeoutIsSpecified_poolIsCalledOnceWithTimeoutAndCreateDelegate() throws Exception {
+
+    	_createDelegate = key -> new TestResource("");
+    	_noObjectDirection.setWaitingTimeout(250, TimeUnit.MILLISECONDS);
+    	_noObjectDirection.setCreateMethod(_createDelegate);
+    	initWith(_successfulPoolMock);
+
+    	TestResource obtained = _controller.obtain(_key, _noObjectDirection);
+
+    	assertThat(_controller.findKeyByObject(obtained), is(_key));
+    	verify(_successfulPoolMock).obtain(_key, _createDelegate, 250, TimeUnit.MILLISECONDS);
+    	verify(_successfulPoolMock, never()).obtain(_key, _createDelegate);
+    }
+
+    @Test
+    public void poolThrewMaxCountReachedExceptionAfterWaiting_controllerRethrowsItAsIs() throws Exception {
+
+    	initWith(PoolMocks.getNewThrowingMaxCountReachedExceptionAfterWaiting());
+
+    	_thrown.expect(ObjectsMaxCountReachedException.class);
+    	_thrown.expect(new PoolExceptionMatcher(_key));
+
+    	_controller.obtain(_key, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void obtainAsyncWasCalled_poolIsCalledAndControllerRemembersKey() throws Exception {
+
+    	initWith(_successfulPoolMock);
+
+    	TestResource obtained = _controller.obtainAsync(_key, null).get();
+
+    	assertThat(obtained.getValue(), is(_key.getIdentifier() + " 1"));
+    	assertThat(_controller.findKeyByObject(obtained), is(_key));
+    	verify(_successfulPoolMock).obtainAsync(_key, null);
+    }
+
+    @Test
+    public void usageStageOfAsyncObtainingFinished_objectIsReleasedAutomatically() throws Exception {
+
+    	initWith(_successfulPoolMock);
+    	CompletableFuture<String> usage = new CompletableFuture<String>();
+
+    	CompletableFuture<String> result = _controller.obtainAsync(_key, null, obtained -> usage);
+    	verify(_successfulPoolMock, never()).release(org.mockito.Mockito.any(TestKey.class), org.mockito.Mockito.any(TestResource.class));
+    	usage.complete("used");
+
+    	assertThat(result.get(), is("used"));
+    	verify(_successfulPoolMock).release(org.mockito.Mockito.eq(_key), org.mockito.Mockito.any(TestResource.class));
+    }
+
+    @Test
+    public void usageStageOfAsyncObtainingFailed_objectIsReleasedAndFailureIsPropagated() throws Exception {
+
+    	initWith(_successfulPoolMock);
+    	IllegalStateException usageFailure = new IllegalStateException();
+    	CompletableFuture<String> usage = new CompletableFuture<String>();
+    	usage.completeExceptionally(usageFailure);
+
+    	CompletableFuture<String> result = _controller.obtainAsync(_key, null, obtained -> usage);
+
+    	assertThat(result.isCompletedExceptionally(), is(true));
+    	verify(_successfulPoolMock).release(org.mockito.Mockito.eq(_key), org.mockito.Mockito.any(TestResource.class));
+    }
+
     @Test
     public void controllerCanRecallKeyForEachObtainedValue() throws Exception {
     
@@ -193,9 +267,9 @@ public class PoolControllerTests {
         TestResource obtained12 = _controller.obtain(_key1, null);
         TestResource obtained2 = _controller.obtain(_key2, null);
 
-        assertThat(_controller.getKeyByObject(obtained11), is(_key1));
-        assertThat(_controller.getKeyByObject(obtained12), is(_key1));
-        assertThat(_controller.getKeyByObject(obtained2), is(_key2));
+        assertThat(_controller.findKeyByObject(obtained11), is(_key1));
+        assertThat(_controller.findKeyByObject(obtained12), is(_key1));
+        assertThat(_controller.findKeyByObject(obtained2), is(_key2));
     }
     
     @Test
@@ -225,7 +299,7 @@ public class PoolControllerTests {
     	TestResource obtained2 = _controller.obtain(_key, null);
     	_controller.release(obtained2);
     	
-    	assertThat(_controller.getKeyByObject(obtained1), is(_key));
+    	assertThat(_controller.findKeyByObject(obtained1), is(_key));
     	assertThat(obtained1, allOf(is(obtained2), is(PoolMocks.SAME_OBTAINED_RESOURCE)));
     }
     
@@ -286,4 +360,115 @@ public class PoolControllerTests {
     	
     	assertThat(obtainedByAnotherThread.getValue(), is(PoolMocks.RESOURCE_VALUE_AFTER_WAITINGS));
     }
+
+    @Test
+    public void obtainManyWasCalled_allObjectsAreRememberedAndCanBeReleased() throws Exception {
+
+    	initWith(_successfulPoolMock);
+
+    	List<TestResource> obtained = _controller.obtainMany(_key, 3, BatchObtainingMode.ALL_OR_NOTHING, _createDelegate);
+
+    	assertThat(obtained.size(), is(3));
+    	for (TestResource obtainedObject : obtained)
+    		assertThat(_controller.findKeyByObject(obtainedObject), is(_key));
+    	verify(_successfulPoolMock).obtainMany(_key, 3, BatchObtainingMode.ALL_OR_NOTHING, _createDelegate);
+    }
+
+    @Test
+    public void releaseAllWasCalledWithObjectsOfSeveralKeys_poolReleasesThemGroupedByKey() throws Exception {
+
+    	initWith(_successfulPoolMock);
+    	List<TestResource> obtained1 = _controller.obtainMany(_key1, 2, BatchObtainingMode.BEST_EFFORT, _createDelegate);
+    	List<TestResource> obtained2 = _controller.obtainMany(_key2, 1, BatchObtainingMode.BEST_EFFORT, _createDelegate);
+    	List<TestResource> toRelease = new ArrayList<TestResource>();
+    	toRelease.add(obtained1.get(0));
+    	toRelease.add(obtained2.get(0));
+    	toRelease.add(obtained1.get(1));
+
+    	_controller.releaseAll(toRelease);
+
+    	verify(_successfulPoolMock).releaseAll(_key1, obtained1);
+    	verify(_successfulPoolMock).releaseAll(_key2, Arrays.asList(obtained2.get(0)));
+    }
+
+    @Test
+    public void releaseAllGotStranger_invalidOperationExceptionIsThrownAndNothingIsReleased() throws Exception {
+
+    	initWith(_successfulPoolMock);
+    	List<TestResource> obtained = _controller.obtainMany(_key, 1, BatchObtainingMode.BEST_EFFORT, _createDelegate);
+    	TestResource stranger = new TestResource("stranger");
+
+    	try {
+    		_controller.releaseAll(Arrays.asList(obtained.get(0), stranger));
+    		fail("Releasing of stranger should be declined");
+    	} catch (InvalidPoolOperationException e) {
+    		assertThat(e.getObject(), is(stranger));
+    	}
+    	verify(_successfulPoolMock, never()).releaseAll(org.mockito.Mockito.any(TestKey.class), anyCollection());
+    }
+
+    @Test @SuppressWarnings("unchecked")
+    public void trackingByIdentity_equalObjectsOfDifferentKeysAreReleasedWithOwnKeys() throws Exception {
+
+    	IPool<TestKey, TestResource> poolMock = mock(IPool.class);
+    	TestResource obtained1 = new TestResource("equal");
+    	TestResource obtained2 = new TestResource("equal");
+    	when(poolMock.obtain(_key1, null)).thenReturn(obtained1);
+    	when(poolMock.obtain(_key2, null)).thenReturn(obtained2);
+    	_controller = new PoolController<TestKey, TestResource>(poolMock, ObjectsTrackingMode.BY_IDENTITY);
+    	_controller.obtain(_key1, null);
+    	_controller.obtain(_key2, null);
+
+    	_controller.release(obtained2);
+    	_controller.release(obtained1);
+
+    	verify(poolMock).release(_key2, obtained2);
+    	verify(poolMock).release(_key1, obtained1);
+    }
+
+    @Test
+    public void leaseWasClosed_objectIsReleasedWithLeaseKeyWithoutBeingRemembered() throws Exception {
+
+    	initWith(_successfulPoolMock);
+
+    	TestResource leased;
+    	try (Lease<TestKey, TestResource> lease = _controller.obtainLease(_key, null)) {
+    		leased = lease.getObject();
+    		assertThat(_controller.findKeyByObject(leased), nullValue());
+    	}
+
+    	verify(_successfulPoolMock).release(_key, leased);
+    }
+
+    @Test
+    public void leasedObjectIsReleasedThroughController_itIsDeclinedAsStranger() throws Exception {
+
+    	initWith(_successfulPoolMock);
+
+    	try (Lease<TestKey, TestResource> lease = _controller.obtainLease(_key, null)) {
+    		try {
+    			_controller.release(lease.getObject());
+    			fail("Leased object must be released by closing its lease");
+    		} catch (InvalidPoolOperationException e) {}
+    	}
+
+    	verify(_successfulPoolMock, times(1)).release(org.mockito.Mockito.any(TestKey.class), org.mockito.Mockito.any(TestResource.class));
+    }
+
+    @Test
+    public void leaseWasClosedTwice_secondClosingIsDeclinedAndObjectIsReleasedOnce() throws Exception {
+
+    	initWith(_successfulPoolMock);
+    	Lease<TestKey, TestResource> lease = _controller.obtainLease(_key, null);
+    	lease.close();
+
+    	try {
+    		lease.close();
+    		fail("Second closing of lease should be declined");
+    	} catch (InvalidPoolOperationException e) {
+    		assertThat(e.getObject(), is(lease.getObject()));
+    	}
+    	assertThat(lease.getIsReleased(), is(true));
+    	verify(_successfulPoolMock, times(1)).release(_key, lease.getObject());
+    }
 }
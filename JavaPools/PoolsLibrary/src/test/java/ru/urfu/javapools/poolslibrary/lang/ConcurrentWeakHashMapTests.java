@@ -0,0 +1,53 @@
+package ru.urfu.javapools.poolslibrary.lang;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class ConcurrentWeakHashMapTests {
+
+	private static final int _MAX_GC_ATTEMPTS = 50;
+
+	@Test
+	public void comparingByIdentity_equalButDifferentObjectIsNotFound() {
+
+		ConcurrentWeakHashMap<TestResource, TestKey> map = new ConcurrentWeakHashMap<TestResource, TestKey>(true);
+		TestResource stored = new TestResource("equal");
+		map.put(stored, new TestKey(1));
+
+		assertThat(map.get(stored), is(new TestKey(1)));
+		assertThat(map.get(new TestResource("equal")), nullValue());
+	}
+
+	@Test
+	public void comparingByEquality_equalObjectIsFound() {
+
+		ConcurrentWeakHashMap<TestKey, String> map = new ConcurrentWeakHashMap<TestKey, String>(false);
+		TestKey stored = new TestKey(1);
+		map.put(stored, "value");
+
+		assertThat(map.get(new TestKey(1)), is("value"));
+		assertThat(map.containsKey(stored), is(true));
+	}
+
+	@Test
+	public void keyWasCollected_itsEntryIsExpungedByNextWrites() throws Exception {
+
+		ConcurrentWeakHashMap<Object, TestKey> map = new ConcurrentWeakHashMap<Object, TestKey>(true);
+		map.put(new Object(), new TestKey(1));
+		Object alive = new Object();
+
+		for (int i = 0; i < _MAX_GC_ATTEMPTS && map.size() > 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+			map.remove(alive);
+		}
+
+		assertThat(map.size(), is(0));
+		assertThat(map.entrySet().isEmpty(), is(true));
+	}
+}
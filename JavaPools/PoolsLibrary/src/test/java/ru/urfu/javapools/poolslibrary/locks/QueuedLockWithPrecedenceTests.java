@@ -0,0 +1,159 @@
+package ru.urfu.javapools.poolslibrary.locks;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class QueuedLockWithPrecedenceTests {
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	@Test
+	public void importantWaiterCameLater_itObtainsLockBeforeOtherWaiters() throws Exception {
+
+		QueuedLockWithPrecedence lock = new QueuedLockWithPrecedence(false, 0);
+		ConcurrentLinkedQueue<String> lockingOrder = new ConcurrentLinkedQueue<String>();
+		lock.lock();
+
+		Thread otherWaiter = startLockingThread(() -> lock.lock(), lock, lockingOrder, "other");
+		waitUntilParked(otherWaiter);
+		Thread importantWaiter = startLockingThread(() -> lock.lockImportant(), lock, lockingOrder, "important");
+		waitUntilParked(importantWaiter);
+
+		lock.unlock();
+		otherWaiter.join();
+		importantWaiter.join();
+
+		assertThat(new ArrayList<String>(lockingOrder), is(Arrays.asList("important", "other")));
+	}
+
+	@Test
+	public void fairModeAndSeveralOtherWaiters_theyObtainLockInArrivalOrder() throws Exception {
+
+		QueuedLockWithPrecedence lock = new QueuedLockWithPrecedence(false, 0);
+		ConcurrentLinkedQueue<String> lockingOrder = new ConcurrentLinkedQueue<String>();
+		lock.lock();
+
+		List<Thread> waiters = new ArrayList<Thread>();
+		for (int i = 0; i < 3; i++) {
+			Thread waiter = startLockingThread(() -> lock.lock(), lock, lockingOrder, String.valueOf(i));
+			waitUntilParked(waiter);
+			waiters.add(waiter);
+		}
+
+		lock.unlock();
+		for (Thread waiter : waiters)
+			waiter.join();
+
+		assertThat(new ArrayList<String>(lockingOrder), is(Arrays.asList("0", "1", "2")));
+	}
+
+	@Test
+	public void waiterWasInterrupted_nextWaiterStillObtainsLock() throws Exception {
+
+		QueuedLockWithPrecedence lock = new QueuedLockWithPrecedence(false, 0);
+		ConcurrentLinkedQueue<String> lockingOrder = new ConcurrentLinkedQueue<String>();
+		lock.lock();
+
+		Thread interruptedWaiter = startLockingThread(() -> lock.lockImportant(), lock, lockingOrder, "interrupted");
+		waitUntilParked(interruptedWaiter);
+		Thread otherWaiter = startLockingThread(() -> lock.lock(), lock, lockingOrder, "other");
+		waitUntilParked(otherWaiter);
+
+		interruptedWaiter.interrupt();
+		interruptedWaiter.join();
+		lock.unlock();
+		otherWaiter.join(5000);
+
+		assertThat(otherWaiter.isAlive(), is(false));
+		assertThat(new ArrayList<String>(lockingOrder), is(Arrays.asList("other")));
+	}
+
+	@Test
+	public void unlockingByThreadWhichDidntLock_illegalMonitorStateExceptionIsThrown() throws Exception {
+
+		QueuedLockWithPrecedence lock = new QueuedLockWithPrecedence();
+
+		_thrown.expect(IllegalMonitorStateException.class);
+
+		lock.unlock();
+	}
+
+	@Test
+	public void manyThreadsInBargingMode_lockKeepsMutualExclusion() throws Exception {
+
+		QueuedLockWithPrecedence lock = new QueuedLockWithPrecedence(true);
+		int[] counter = new int[1];
+		AtomicInteger failuresCount = new AtomicInteger();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 16; i++) {
+			boolean isImportant = i % 4 == 0;
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 10000; j++) {
+					try {
+						if (isImportant)
+							lock.lockImportant();
+						else
+							lock.lock();
+						try {
+							counter[0]++;
+						} finally {
+							lock.unlock();
+						}
+					} catch (Exception e) {
+						failuresCount.incrementAndGet();
+					}
+				}
+			}));
+		}
+
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		assertThat(failuresCount.get(), is(0));
+		lock.lock();
+		try {
+			assertThat(counter[0], is(16 * 10000));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Thread startLockingThread(LockingAction locking, QueuedLockWithPrecedence lock,
+									  ConcurrentLinkedQueue<String> lockingOrder, String name) {
+		Thread thread = new Thread(() -> {
+			try {
+				locking.lock();
+			} catch (InterruptedException e) {
+				return;
+			}
+			lockingOrder.add(name);
+			lock.unlock();
+		});
+		thread.start();
+		return thread;
+	}
+
+	private void waitUntilParked(Thread thread) throws InterruptedException {
+
+		while (thread.getState() != Thread.State.WAITING)
+			Thread.sleep(1);
+	}
+
+	private interface LockingAction {
+		void lock() throws InterruptedException;
+	}
+}
@@ -0,0 +1,147 @@
+package ru.urfu.javapools.poolslibrary.locks;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.controller.DirectionIfNoObjectIsAvailable;
+import ru.urfu.javapools.poolslibrary.controller.PoolController;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.objectactions.ExplicitlyDefinedObjectActions;
+import ru.urfu.javapools.poolslibrary.objectactions.ObjectActionsBasedOnDelegateOrInterface;
+import ru.urfu.javapools.poolslibrary.objectutilization.ObjectUtilizer;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorageSettings;
+import ru.urfu.javapools.poolslibrary.pool.wrappers.PWSingleUseEnforcingWrapper;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class VirtualThreadsLoadTests {
+
+	private static final int _VIRTUAL_THREADS_COUNT = 100_000;
+	private static final int _MAX_OBJECTS_COUNT = 16;
+	private static final int _SECONDS_TO_FINISH = 120;
+
+	private ExecutorService _virtualThreadsExecutor;
+
+	@Before
+	public void before() {
+
+		try {
+			_virtualThreadsExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			Assume.assumeNoException("Virtual threads aren't supported by current JVM", e);
+		}
+	}
+
+	@Test
+	public void manyVirtualThreadsObtainAndReleaseThroughController_allOfThemAreServedAndObjectIsNeverShared() throws Exception {
+
+		PoolItemsStorageSettings storageSettings = new PoolItemsStorageSettings()
+			.setBalancingStrategy(LoadBalancingStrategy.INTENSIVE_ON_RECENTLY_USED_OBJECTS)
+			.setAllowOnlyOneUserPerObject(true)
+			.setMaxObjectsCountPerKey(_MAX_OBJECTS_COUNT);
+		ObjectActionsBasedOnDelegateOrInterface<TestResource> objectActions =
+			new ObjectActionsBasedOnDelegateOrInterface<TestResource>(TestResource.class, new ExplicitlyDefinedObjectActions<TestResource>());
+		PoolItemsStorage<TestKey, TestResource> storage =
+			new PoolItemsStorage<TestKey, TestResource>(storageSettings, objectActions, new ObjectUtilizer<TestKey, TestResource>());
+		PoolController<TestKey, TestResource> controller =
+			new PoolController<TestKey, TestResource>(new PWSingleUseEnforcingWrapper<TestKey, TestResource>(storage));
+
+		TestKey key = new TestKey(1);
+		AtomicInteger createdCount = new AtomicInteger();
+		FunctionThatMayThrow<TestKey, TestResource> createDelegate = k -> new TestResource(String.valueOf(createdCount.incrementAndGet()));
+		DirectionIfNoObjectIsAvailable<TestKey, TestResource> noObjectDirection = new DirectionIfNoObjectIsAvailable<TestKey, TestResource>()
+			.setCreateMethod(createDelegate)
+			.setWaitingTimeout(_SECONDS_TO_FINISH, TimeUnit.SECONDS);
+		ConcurrentHashMap<TestResource, Boolean> objectsInUse = new ConcurrentHashMap<TestResource, Boolean>();
+		AtomicInteger servedCount = new AtomicInteger();
+		AtomicInteger violationsCount = new AtomicInteger();
+
+		for (int i = 0; i < _VIRTUAL_THREADS_COUNT; i++)
+			_virtualThreadsExecutor.execute(() -> {
+				try {
+					TestResource obtained = controller.obtain(key, noObjectDirection);
+					if (objectsInUse.putIfAbsent(obtained, true) != null)
+						violationsCount.incrementAndGet();
+					Thread.yield();
+					objectsInUse.remove(obtained);
+					controller.release(obtained);
+					servedCount.incrementAndGet();
+				} catch (Exception e) {
+					violationsCount.incrementAndGet();
+				}
+			});
+
+		_virtualThreadsExecutor.shutdown();
+		boolean allFinished = _virtualThreadsExecutor.awaitTermination(_SECONDS_TO_FINISH, TimeUnit.SECONDS);
+
+		assertThat(allFinished, is(true));
+		assertThat(violationsCount.get(), is(0));
+		assertThat(servedCount.get(), is(_VIRTUAL_THREADS_COUNT));
+		assertThat(createdCount.get() <= _MAX_OBJECTS_COUNT, is(true));
+		controller.close();
+	}
+
+	@Test
+	public void manyVirtualThreadsUseLocks_eachLockKeepsMutualExclusion() throws Exception {
+
+		FairLockWithPrecedence lockWithPrecedence = new FairLockWithPrecedence();
+		NotReentrantReadWriteLock readWriteLock = new NotReentrantReadWriteLock();
+		CleaningSynchronizer cleaningSynchronizer = new CleaningSynchronizer();
+		int[] counters = new int[2];
+		AtomicInteger failuresCount = new AtomicInteger();
+
+		for (int i = 0; i < _VIRTUAL_THREADS_COUNT; i++) {
+			boolean isImportant = i % 2 == 0;
+			_virtualThreadsExecutor.execute(() -> {
+				try {
+					if (isImportant)
+						lockWithPrecedence.lockImportant();
+					else
+						lockWithPrecedence.lock();
+					try {
+						counters[0]++;
+					} finally {
+						lockWithPrecedence.unlock();
+					}
+
+					readWriteLock.lockWrite();
+					try {
+						counters[1]++;
+					} finally {
+						readWriteLock.unlockWrite();
+					}
+
+					cleaningSynchronizer.lockPoolOperation();
+					cleaningSynchronizer.unlockPoolOperation();
+				} catch (Exception e) {
+					failuresCount.incrementAndGet();
+				}
+			});
+		}
+
+		_virtualThreadsExecutor.shutdown();
+		boolean allFinished = _virtualThreadsExecutor.awaitTermination(_SECONDS_TO_FINISH, TimeUnit.SECONDS);
+
+		assertThat(allFinished, is(true));
+		assertThat(failuresCount.get(), is(0));
+		readWriteLock.lockRead();
+		try {
+			assertThat(counters[0], is(_VIRTUAL_THREADS_COUNT));
+			assertThat(counters[1], is(_VIRTUAL_THREADS_COUNT));
+		} finally {
+			readWriteLock.unlockRead();
+		}
+	}
+}
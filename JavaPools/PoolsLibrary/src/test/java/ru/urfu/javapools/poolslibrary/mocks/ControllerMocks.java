@@ -21,7 +21,7 @@ public class ControllerMocks {
 		PoolController<TestKey,TestResource> throwingControllerMock = mock(PoolController.class, new UnstubbedMethodAnswer());
 		
 		doThrow(new PoolException(key, "error")).when(throwingControllerMock).release(any(TestResource.class));	
-		doReturn(null).when(throwingControllerMock).getKeyByObject(any(TestResource.class));
+		doReturn(null).when(throwingControllerMock).findKeyByObject(any(TestResource.class));
 		
 		return throwingControllerMock;
 	}
@@ -2,6 +2,8 @@ package ru.urfu.javapools.poolslibrary.mocks;
 
 import static org.mockito.Mockito.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.mockito.stubbing.Answer;
 
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
@@ -43,6 +45,11 @@ public class CreateDelegateMocks {
 		return delegate;
 	}
 	
+	// real delegate, safe to call concurrently: every created resource is valued with its creation number
+	public static FunctionThatMayThrow<TestKey, TestResource> getNewCounting(AtomicInteger createdCount) {
+		return key -> new TestResource(String.valueOf(createdCount.incrementAndGet()));
+	}
+	
 	public static FunctionThatMayThrow<TestKey, TestResource> getNewThrowing(Throwable throwable)
 		throws Exception
 	{
@@ -0,0 +1,59 @@
+package ru.urfu.javapools.poolslibrary.mocks;
+
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.objectutilization.ObjectUtilizer;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolCapacityBudget;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorageSettings;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageMocks {
+
+	public static final int DEFAULT_MAX_OBJECTS_COUNT_PER_KEY = 10;
+
+	public static PoolItemsStorage<TestKey, TestResource> getNewExclusive(PoolItemsStorageSettings settings) {
+		return getNewExclusive(settings, ObjectActionsMocks.getNewSuccessful(), null);
+	}
+
+	public static PoolItemsStorage<TestKey, TestResource> getNewExclusive(PoolItemsStorageSettings settings,
+																		  IPoolObjectActions<TestResource> objectActions) {
+		return getNewExclusive(settings, objectActions, null);
+	}
+
+	public static PoolItemsStorage<TestKey, TestResource> getNewExclusive(PoolItemsStorageSettings settings,
+																		  IPoolObjectActions<TestResource> objectActions,
+																		  PoolCapacityBudget<TestKey, TestResource> capacityBudget) {
+		settings
+			.setBalancingStrategy(LoadBalancingStrategy.INTENSIVE_ON_RECENTLY_USED_OBJECTS)
+			.setAllowOnlyOneUserPerObject(true);
+		return getNew(settings, objectActions, capacityBudget);
+	}
+
+	public static PoolItemsStorage<TestKey, TestResource> getNewSharing(PoolItemsStorageSettings settings) {
+		return getNewSharing(settings, ObjectActionsMocks.getNewSuccessful(), null);
+	}
+
+	public static PoolItemsStorage<TestKey, TestResource> getNewSharing(PoolItemsStorageSettings settings,
+																		IPoolObjectActions<TestResource> objectActions) {
+		return getNewSharing(settings, objectActions, null);
+	}
+
+	public static PoolItemsStorage<TestKey, TestResource> getNewSharing(PoolItemsStorageSettings settings,
+																		IPoolObjectActions<TestResource> objectActions,
+																		PoolCapacityBudget<TestKey, TestResource> capacityBudget) {
+		settings
+			.setBalancingStrategy(LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS)
+			.setAllowOnlyOneUserPerObject(false);
+		return getNew(settings, objectActions, capacityBudget);
+	}
+
+	private static PoolItemsStorage<TestKey, TestResource> getNew(PoolItemsStorageSettings settings,
+																  IPoolObjectActions<TestResource> objectActions,
+																  PoolCapacityBudget<TestKey, TestResource> capacityBudget) {
+		if (settings.getMaxObjectsCountPerKey() == 0)
+			settings.setMaxObjectsCountPerKey(DEFAULT_MAX_OBJECTS_COUNT_PER_KEY);
+		return new PoolItemsStorage<TestKey, TestResource>(settings, objectActions, new ObjectUtilizer<TestKey, TestResource>(), capacityBudget);
+	}
+}
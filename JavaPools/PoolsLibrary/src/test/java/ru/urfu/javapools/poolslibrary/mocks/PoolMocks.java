@@ -1,6 +1,11 @@
 package ru.urfu.javapools.poolslibrary.mocks;
 
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
 
@@ -12,6 +17,7 @@ import ru.urfu.javapools.poolslibrary.controller.PoolObjectObtainingInterruptedE
 import ru.urfu.javapools.poolslibrary.controller.PoolObjectReleasingInterruptedException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
 import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
 import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
@@ -39,8 +45,19 @@ public class PoolMocks {
        
 		IPool<TestKey,TestResource> successPoolMock = mock(IPool.class, new UnstubbedMethodAnswer());
 
-        doAnswer(new SerialWithKeyAnswer()).when(successPoolMock).obtain(any(TestKey.class), any(FunctionThatMayThrow.class));        
+        SerialWithKeyAnswer serialWithKeyAnswer = new SerialWithKeyAnswer();
+        doAnswer(serialWithKeyAnswer).when(successPoolMock).obtain(any(TestKey.class), any(FunctionThatMayThrow.class));        
+        doAnswer(serialWithKeyAnswer).when(successPoolMock).obtain(any(TestKey.class), any(FunctionThatMayThrow.class), anyLong(), any(TimeUnit.class));
+        doAnswer(invocation -> CompletableFuture.completedFuture(serialWithKeyAnswer.answer(invocation)))
+        .when(successPoolMock).obtainAsync(any(TestKey.class), any(FunctionThatMayThrow.class));
+        doAnswer(invocation -> {
+        	List<TestResource> obtained = new ArrayList<TestResource>();
+        	for (int i = 0; i < invocation.getArgumentAt(1, Integer.class); i++)
+        		obtained.add(serialWithKeyAnswer.answer(invocation));
+        	return obtained;
+        }).when(successPoolMock).obtainMany(any(TestKey.class), anyInt(), any(BatchObtainingMode.class), any(FunctionThatMayThrow.class));
         doNothing().when(successPoolMock).release(any(TestKey.class), any(TestResource.class));
+        doNothing().when(successPoolMock).releaseAll(any(TestKey.class), any(Collection.class));
         
         return successPoolMock;
     }
@@ -78,6 +95,14 @@ public class PoolMocks {
         return noObjectThreeTimesPoolMock;
     }
 	
+    public static IPool<TestKey, TestResource> getNewThrowingMaxCountReachedExceptionAfterWaiting()
+        throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException, InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
+
+    	IPool<TestKey,TestResource> noObjectPoolMock = mock(IPool.class, new UnstubbedMethodAnswer());
+    	doAnswer(_MAX_COUNT_REACHED_ANSWER).when(noObjectPoolMock).obtain(any(TestKey.class), any(FunctionThatMayThrow.class), anyLong(), any(TimeUnit.class));
+        return noObjectPoolMock;
+    }
+
     public static IPool<TestKey, TestResource> getNewThrowingMaxCountReachedException()
         throws NoAvailableObjectException, ObjectsMaxCountReachedException, ObjectCreationFailedException, InvalidPoolOperationException, PoolObjectObtainingInterruptedException {
         	
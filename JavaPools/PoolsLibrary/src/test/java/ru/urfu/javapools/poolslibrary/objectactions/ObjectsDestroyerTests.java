@@ -0,0 +1,157 @@
+package ru.urfu.javapools.poolslibrary.objectactions;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.notification.INotifier;
+import ru.urfu.javapools.poolslibrary.objectactions.notification.UserDefinedActionError;
+import ru.urfu.javapools.poolslibrary.objectactions.notification.UserDefinedActionType;
+import ru.urfu.javapools.poolslibrary.objectutilization.ObjectUtilizer;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorageSettings;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class ObjectsDestroyerTests {
+
+	private ObjectsDestroyer<TestResource> _destroyer;
+
+	private final IPoolObjectActions<TestResource> _objectActions = ObjectActionsMocks.getNewSuccessful();
+	private final List<UserDefinedActionError<?>> _notifiedErrors = new CopyOnWriteArrayList<UserDefinedActionError<?>>();
+	private final INotifier _notifier = new INotifier() {
+		@Override
+		public <TV> void notify(UserDefinedActionError<TV> actionError) {
+			_notifiedErrors.add(actionError);
+		}
+	};
+
+	@After
+	public void after() throws Exception {
+		if (_destroyer != null)
+			_destroyer.close();
+	}
+
+	@Test
+	public void closeIsSlow_callerDoesNotWaitForIt() throws Exception {
+
+		CountDownLatch closingIsAllowed = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			closingIsAllowed.await();
+			return null;
+		}).when(_objectActions).close(org.mockito.Mockito.any(TestResource.class));
+		_destroyer = new ObjectsDestroyer<TestResource>(_objectActions, new ObjectsDestroyerSettings());
+
+		_destroyer.close(new TestResource("1"));
+		_destroyer.close(new TestResource("2"));
+		assertThat(_destroyer.getClosesCount(), is(0L));
+
+		closingIsAllowed.countDown();
+		awaitUntil(() -> _destroyer.getClosesCount() == 2);
+		assertThat(_destroyer.getMaxCloseTimeInNanos() > 0, is(true));
+	}
+
+	@Test
+	public void closeTakesLongerThanTimeout_itIsInterruptedAndReportedAndNextCloseRuns() throws Exception {
+
+		TestResource hanging = new TestResource("hanging");
+		TestResource next = new TestResource("next");
+		doAnswer(invocation -> {
+			Thread.sleep(10000);
+			return null;
+		}).when(_objectActions).close(hanging);
+		_destroyer = new ObjectsDestroyer<TestResource>(_objectActions, new ObjectsDestroyerSettings()
+			.setCloseTimeoutInMillis(50)
+			.setNotifier(_notifier));
+
+		_destroyer.close(hanging);
+		_destroyer.close(next);
+
+		awaitUntil(() -> _destroyer.getClosesCount() == 2);
+		assertThat(_destroyer.getTimedOutClosesCount(), is(1L));
+		assertThat(_notifiedErrors.size(), is(1));
+		assertThat(_notifiedErrors.get(0).getUserDefinedActionType(), is(UserDefinedActionType.CLOSING));
+		assertThat(_notifiedErrors.get(0).getException(), is(instanceOf(TimeoutException.class)));
+		verify(_objectActions).close(next);
+	}
+
+	@Test
+	public void closesDoNotFinishBeforeShutdownGivesUp_unfinishedClosesAreCounted() throws Exception {
+
+		CountDownLatch closingIsAllowed = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			closingIsAllowed.await();
+			return null;
+		}).when(_objectActions).close(org.mockito.Mockito.any(TestResource.class));
+		_destroyer = new ObjectsDestroyer<TestResource>(_objectActions, new ObjectsDestroyerSettings().setThreadsCount(1));
+
+		_destroyer.close(new TestResource("1"));
+		_destroyer.close(new TestResource("2"));
+		_destroyer.close(new TestResource("3"));
+		awaitUntil(() -> _destroyer.getPendingClosesCount() == 2);
+		_destroyer.close();
+
+		assertThat(_destroyer.getUnfinishedClosesCountAtShutdown(), is(3));
+		closingIsAllowed.countDown();
+		awaitUntil(() -> _destroyer.getClosesCount() == 3);
+	}
+
+	@Test
+	public void closeFails_failureIsCountedAndReported() throws Exception {
+
+		doThrow(new IllegalStateException()).when(_objectActions).close(org.mockito.Mockito.any(TestResource.class));
+		_destroyer = new ObjectsDestroyer<TestResource>(_objectActions, new ObjectsDestroyerSettings().setNotifier(_notifier));
+
+		_destroyer.close(new TestResource("1"));
+
+		awaitUntil(() -> _destroyer.getClosesCount() == 1);
+		assertThat(_destroyer.getFailedClosesCount(), is(1L));
+		assertThat(_notifiedErrors.get(0).getException(), is(instanceOf(IllegalStateException.class)));
+	}
+
+	@Test
+	public void storageHasDestroyer_invalidReleasedObjectIsClosedOffReleasingThread() throws Exception {
+
+		List<Thread> closingThreads = new CopyOnWriteArrayList<Thread>();
+		doAnswer(invocation -> {
+			closingThreads.add(Thread.currentThread());
+			return null;
+		}).when(_objectActions).close(org.mockito.Mockito.any(TestResource.class));
+		PoolItemsStorageSettings settings = new PoolItemsStorageSettings()
+			.setBalancingStrategy(LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS)
+			.setAllowOnlyOneUserPerObject(true)
+			.setMaxObjectsCountPerKey(10)
+			.setObjectsDestroyerSettings(new ObjectsDestroyerSettings());
+		TestKey key = new TestKey(1);
+
+		try (PoolItemsStorage<TestKey, TestResource> storage = new PoolItemsStorage<TestKey, TestResource>(
+				settings, _objectActions, new ObjectUtilizer<TestKey, TestResource>())) {
+			TestResource obtained = storage.obtain(key, k -> new TestResource("resource"));
+			obtained.appendValue(ObjectActionsMocks.SUBSTRING_OF_INVALID_OBJECT);
+			storage.getKeyToPoolItem().get(key).release(obtained);
+
+			awaitUntil(() -> storage.getObjectsDestroyer().getClosesCount() == 1);
+		}
+		assertThat(closingThreads.get(0), is(not(sameInstance(Thread.currentThread()))));
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertThat(condition.getAsBoolean(), is(true));
+	}
+}
@@ -0,0 +1,116 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageBatchCreationTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+	private final IPoolObjectActions<TestResource> _objectActions = ObjectActionsMocks.getNewSuccessful();
+
+	private final TestKey _key = new TestKey(1);
+	private final AtomicInteger _createdCount = new AtomicInteger();
+	private final List<Integer> _requestedBatchSizes = new CopyOnWriteArrayList<Integer>();
+
+	@After
+	public void after() throws Exception {
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void prewarmWithBatchDelegate_eachKeyIsCreatedInOneBatch() throws Exception {
+
+		_storage = createStorage(10);
+		TestKey otherKey = new TestKey(2);
+
+		_storage.prewarm(Arrays.asList(_key, otherKey), 3, createBatchDelegate(0));
+
+		assertThat(_requestedBatchSizes, is(Arrays.asList(3, 3)));
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAvailableObjectsCount(), is(3));
+		assertThat(_storage.getKeyToPoolItem().get(otherKey).getAvailableObjectsCount(), is(3));
+	}
+
+	@Test
+	public void obtainManyWithBatchDelegate_missingObjectsAreCreatedInOneBatch() throws Exception {
+
+		_storage = createStorage(10);
+
+		List<TestResource> obtained = _storage.obtainMany(_key, 4, BatchObtainingMode.ALL_OR_NOTHING, createBatchDelegate(0));
+
+		assertThat(new HashSet<TestResource>(obtained).size(), is(4));
+		assertThat(_requestedBatchSizes, is(Arrays.asList(4)));
+	}
+
+	@Test
+	public void batchDelegateReturnsSurplus_surplusObjectsBecomeAvailable() throws Exception {
+
+		_storage = createStorage(10);
+
+		List<TestResource> obtained = _storage.obtainMany(_key, 2, BatchObtainingMode.ALL_OR_NOTHING, createBatchDelegate(3));
+
+		assertThat(obtained.size(), is(2));
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAvailableObjectsCount(), is(3));
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(5));
+	}
+
+	@Test
+	public void surplusDoesNotFitIntoMaxCount_extraObjectsAreClosed() throws Exception {
+
+		_storage = createStorage(3);
+
+		_storage.obtainMany(_key, 2, BatchObtainingMode.ALL_OR_NOTHING, createBatchDelegate(3));
+
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(3));
+		verify(_objectActions, times(2)).close(org.mockito.Mockito.any(TestResource.class));
+	}
+
+	@Test
+	public void surplusDoesNotFitIntoFullBudget_extraObjectsAreClosed() throws Exception {
+
+		PoolCapacityBudget<TestKey, TestResource> budget = new PoolCapacityBudget<TestKey, TestResource>(2);
+		_storage = PoolItemsStorageMocks.getNewExclusive(new PoolItemsStorageSettings(), _objectActions, budget);
+
+		List<TestResource> obtained = _storage.obtainMany(_key, 2, BatchObtainingMode.ALL_OR_NOTHING, createBatchDelegate(2));
+
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(2));
+		assertThat(budget.getUsedWeight(), is(2L));
+		verify(_objectActions, times(2)).close(org.mockito.Mockito.any(TestResource.class));
+		verify(_objectActions, never()).close(obtained.get(0));
+		verify(_objectActions, never()).close(obtained.get(1));
+	}
+
+	private BatchCreateDelegate<TestKey, TestResource> createBatchDelegate(int surplusCount) {
+
+		return new BatchCreateDelegate<TestKey, TestResource>((key, count) -> {
+			_requestedBatchSizes.add(count);
+			List<TestResource> created = new ArrayList<TestResource>();
+			for (int i = 0; i < count + surplusCount; i++)
+				created.add(new TestResource(String.valueOf(_createdCount.incrementAndGet())));
+			return created;
+		});
+	}
+
+	private PoolItemsStorage<TestKey, TestResource> createStorage(int maxObjectsCountPerKey) {
+
+		return PoolItemsStorageMocks.getNewExclusive(new PoolItemsStorageSettings().setMaxObjectsCountPerKey(maxObjectsCountPerKey),
+													 _objectActions);
+	}
+}
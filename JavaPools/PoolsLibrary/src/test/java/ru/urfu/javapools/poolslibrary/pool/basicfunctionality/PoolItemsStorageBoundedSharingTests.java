@@ -0,0 +1,108 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.CreateDelegateMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectsMaxCountReachedException;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageBoundedSharingTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+
+	private final TestKey _key = new TestKey(1);
+	private final AtomicInteger _createdCount = new AtomicInteger();
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = CreateDelegateMocks.getNewCounting(_createdCount);
+
+	@After
+	public void after() throws Exception {
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void objectsAreObtainedConcurrently_newObjectIsCreatedOnlyWhenOthersAreSaturated() throws Exception {
+
+		_storage = createStorage(2, 10);
+
+		TestResource first = _storage.obtain(_key, _createDelegate);
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(first)));
+		TestResource second = _storage.obtain(_key, _createDelegate);
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(second)));
+
+		assertThat(second, is(not(sameInstance(first))));
+		assertThat(_createdCount.get(), is(2));
+	}
+
+	@Test
+	public void allObjectsAreSaturatedAndMaxCountIsReached_obtainingFailsUntilOneUserReleases() throws Exception {
+
+		_storage = createStorage(2, 1);
+		TestResource shared = _storage.obtain(_key, _createDelegate);
+		_storage.obtain(_key, _createDelegate);
+
+		try {
+			_storage.obtain(_key, _createDelegate);
+			fail();
+		} catch (ObjectsMaxCountReachedException e) {}
+
+		_storage.release(_key, shared);
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(shared)));
+	}
+
+	@Test
+	public void usersReleaseObject_leastLoadedObjectIsGivenNext() throws Exception {
+
+		_storage = createStorage(3, 10);
+		TestResource first = _storage.obtain(_key, _createDelegate);
+		_storage.obtain(_key, _createDelegate);
+		_storage.obtain(_key, _createDelegate);
+		TestResource second = _storage.obtain(_key, _createDelegate);
+		_storage.obtain(_key, _createDelegate);
+
+		for (int i = 0; i < 3; i++)
+			_storage.release(_key, first);
+
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(first)));
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(first)));
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(second)));
+	}
+
+	@Test
+	public void waitingForSaturatedObject_releasedUserSlotIsHandedToWaiter() throws Exception {
+
+		_storage = createStorage(1, 1);
+		TestResource shared = _storage.obtain(_key, _createDelegate);
+
+		CompletableFuture<TestResource> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return _storage.obtain(_key, _createDelegate, 5, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(100);
+		_storage.release(_key, shared);
+
+		assertThat(waiting.get(5, TimeUnit.SECONDS), is(sameInstance(shared)));
+		assertThat(_createdCount.get(), is(1));
+	}
+
+	private PoolItemsStorage<TestKey, TestResource> createStorage(int maxConcurrentUsersPerObject, int maxObjectsCount) {
+
+		return PoolItemsStorageMocks.getNewSharing(new PoolItemsStorageSettings()
+			.setMaxConcurrentUsersPerObject(maxConcurrentUsersPerObject)
+			.setMaxObjectsCountPerKey(maxObjectsCount));
+	}
+}
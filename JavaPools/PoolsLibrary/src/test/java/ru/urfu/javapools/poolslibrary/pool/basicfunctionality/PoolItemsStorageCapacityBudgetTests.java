@@ -0,0 +1,190 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+import ru.urfu.javapools.poolslibrary.pool.wrappers.PWSingleUseEnforcingWrapper;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageCapacityBudgetTests {
+
+	private IPoolObjectActions<TestResource> _objectActionsMock;
+
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = key -> new TestResource(String.valueOf(key));
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	@Before
+	public void before() {
+		_objectActionsMock = ObjectActionsMocks.getNewSuccessful();
+	}
+
+	@Test
+	public void budgetWasExhausted_leastRecentlyUsedIdleObjectOfOtherKeyIsEvicted() throws Exception {
+
+		IPool<TestKey, TestResource> pool = createPool(new PoolCapacityBudget<TestKey, TestResource>(2));
+		TestResource leastRecentlyUsed = obtainAndRelease(pool, new TestKey(1));
+		TestResource recentlyUsed = obtainAndRelease(pool, new TestKey(2));
+
+		TestResource created = pool.obtain(new TestKey(3), _createDelegate);
+
+		assertThat(created, notNullValue());
+		verify(_objectActionsMock).close(leastRecentlyUsed);
+		verify(_objectActionsMock, never()).close(recentlyUsed);
+		assertThat(pool.getKeyToPoolItem().get(new TestKey(1)).getAllObjectsCount(), is(0));
+	}
+
+	@Test
+	public void budgetWasExhaustedAndNoObjectIsIdle_creationFailsWithCapacityExhaustedCause() throws Exception {
+
+		IPool<TestKey, TestResource> pool = createPool(new PoolCapacityBudget<TestKey, TestResource>(1));
+		pool.obtain(new TestKey(1), _createDelegate);
+
+		_thrown.expect(ObjectCreationFailedException.class);
+		_thrown.expectCause(org.hamcrest.CoreMatchers.isA(PoolCapacityExhaustedException.class));
+
+		pool.obtain(new TestKey(2), _createDelegate);
+	}
+
+	@Test
+	public void idleObjectsAreOfSameKeyOnly_theyAreNotEvicted() throws Exception {
+
+		IPool<TestKey, TestResource> pool = createPool(new PoolCapacityBudget<TestKey, TestResource>(1));
+		TestKey key = new TestKey(1);
+		TestResource idle = obtainAndRelease(pool, key);
+		pool.obtain(key, _createDelegate);
+
+		try {
+			pool.obtain(key, _createDelegate);
+			fail("Object of the same key mustn't be evicted to make room");
+		} catch (ObjectCreationFailedException e) {
+			assertThat(e.getCause(), instanceOf(PoolCapacityExhaustedException.class));
+		}
+		verify(_objectActionsMock, never()).close(idle);
+	}
+
+	@Test
+	public void budgetIsWeighted_objectsAreEvictedUntilNewObjectWeightFits() throws Exception {
+
+		PoolCapacityBudget<TestKey, TestResource> budget =
+			new PoolCapacityBudget<TestKey, TestResource>(10, object -> object.getValue().length());
+		IPool<TestKey, TestResource> pool = createPool(budget);
+		TestResource light1 = obtainAndRelease(pool, new TestKey(1), "aaa");
+		TestResource light2 = obtainAndRelease(pool, new TestKey(2), "bbb");
+		TestResource light3 = obtainAndRelease(pool, new TestKey(3), "ccc");
+
+		pool.obtain(new TestKey(4), key -> new TestResource("dddddd"));
+
+		verify(_objectActionsMock).close(light1);
+		verify(_objectActionsMock).close(light2);
+		verify(_objectActionsMock, never()).close(light3);
+		assertThat(budget.getUsedWeight(), is(9L));
+	}
+
+	@Test
+	public void evictedObjectWasClosed_itsWeightIsReturnedToBudget() throws Exception {
+
+		PoolCapacityBudget<TestKey, TestResource> budget = new PoolCapacityBudget<TestKey, TestResource>(2);
+		IPool<TestKey, TestResource> pool = createPool(budget);
+		obtainAndRelease(pool, new TestKey(1));
+		obtainAndRelease(pool, new TestKey(2));
+		pool.obtain(new TestKey(3), _createDelegate);
+
+		pool.close();
+
+		assertThat(budget.getUsedWeight(), is(0L));
+	}
+
+	@Test
+	public void sharedObjectOfOtherKeyIsStillUsed_itIsNotEvicted() throws Exception {
+
+		IPool<TestKey, TestResource> pool = createSharingPool(new PoolCapacityBudget<TestKey, TestResource>(1));
+		TestKey sharedKey = new TestKey(1);
+		TestResource shared = pool.obtain(sharedKey, _createDelegate);
+		assertThat(pool.obtain(sharedKey, _createDelegate), sameInstance(shared));
+		pool.release(sharedKey, shared);
+
+		try {
+			pool.obtain(new TestKey(2), _createDelegate);
+			fail("Shared object with a user left mustn't be evicted");
+		} catch (ObjectCreationFailedException e) {
+			assertThat(e.getCause(), instanceOf(PoolCapacityExhaustedException.class));
+		}
+		verify(_objectActionsMock, never()).close(shared);
+	}
+
+	@Test
+	public void lastUserReleasedSharedObjectOfOtherKey_itIsEvicted() throws Exception {
+
+		IPool<TestKey, TestResource> pool = createSharingPool(new PoolCapacityBudget<TestKey, TestResource>(1));
+		TestKey sharedKey = new TestKey(1);
+		TestResource shared = pool.obtain(sharedKey, _createDelegate);
+		pool.obtain(sharedKey, _createDelegate);
+		pool.release(sharedKey, shared);
+		pool.release(sharedKey, shared);
+
+		pool.obtain(new TestKey(2), _createDelegate);
+
+		verify(_objectActionsMock).close(shared);
+		assertThat(pool.getKeyToPoolItem().get(sharedKey).getAllObjectsCount(), is(0));
+	}
+
+	@Test
+	public void circuitOfCreatingKeyIsOpen_idleObjectOfOtherKeyIsNotEvicted() throws Exception {
+
+		PoolItemsStorage<TestKey, TestResource> storage = PoolItemsStorageMocks.getNewExclusive(
+			new PoolItemsStorageSettings().setCircuitBreakerFailuresThreshold(1).setCircuitBreakerOpenStateDurationInMillis(60000),
+			_objectActionsMock, new PoolCapacityBudget<TestKey, TestResource>(1));
+		TestKey brokenKey = new TestKey(2);
+		try {
+			storage.obtain(brokenKey, key -> { throw new IllegalStateException(); });
+			fail();
+		} catch (ObjectCreationFailedException e) {}
+		TestResource idle = obtainAndRelease(new PWSingleUseEnforcingWrapper<TestKey, TestResource>(storage), new TestKey(1));
+
+		try {
+			storage.prewarm(Collections.singletonList(brokenKey), 1, _createDelegate);
+		} catch (ObjectCreationFailedException e) {}
+
+		assertThat(storage.getCircuitBreakerState(brokenKey), is(CircuitBreakerState.OPEN));
+		verify(_objectActionsMock, never()).close(idle);
+	}
+
+	private IPool<TestKey, TestResource> createSharingPool(PoolCapacityBudget<TestKey, TestResource> budget) {
+
+		return PoolItemsStorageMocks.getNewSharing(new PoolItemsStorageSettings(), _objectActionsMock, budget);
+	}
+
+	private IPool<TestKey, TestResource> createPool(PoolCapacityBudget<TestKey, TestResource> budget) {
+
+		return new PWSingleUseEnforcingWrapper<TestKey, TestResource>(
+			PoolItemsStorageMocks.getNewExclusive(new PoolItemsStorageSettings(), _objectActionsMock, budget));
+	}
+
+	private TestResource obtainAndRelease(IPool<TestKey, TestResource> pool, TestKey key) throws Exception {
+		return obtainAndRelease(pool, key, String.valueOf(key));
+	}
+
+	private TestResource obtainAndRelease(IPool<TestKey, TestResource> pool, TestKey key, String value) throws Exception {
+
+		TestResource obtained = pool.obtain(key, k -> new TestResource(value));
+		pool.release(key, obtained);
+		return obtained;
+	}
+}
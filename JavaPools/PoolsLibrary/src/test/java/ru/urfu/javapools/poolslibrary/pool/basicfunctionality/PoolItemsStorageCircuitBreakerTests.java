@@ -0,0 +1,163 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageCircuitBreakerTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+
+	private final TestKey _key = new TestKey(1);
+	private final AtomicBoolean _isFactoryBroken = new AtomicBoolean(true);
+	private final AtomicInteger _creationCallsCount = new AtomicInteger();
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = key -> {
+		_creationCallsCount.incrementAndGet();
+		if (_isFactoryBroken.get())
+			throw new IllegalStateException();
+		return new TestResource("created");
+	};
+
+	@After
+	public void after() throws Exception {
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void creationFailsThresholdTimesInARow_circuitOpensAndObtainFailsFastWithoutCallingFactory() throws Exception {
+
+		_storage = createStorage(3, 60000);
+		failCreations(3);
+
+		assertThat(_storage.getCircuitBreakerState(_key), is(CircuitBreakerState.OPEN));
+		try {
+			_storage.obtain(_key, _createDelegate);
+			fail();
+		} catch (CircuitBreakerOpenException e) {
+			assertThat(e.getKey(), is((Object) _key));
+			assertThat(e.getStackTrace().length, is(0));
+		}
+		assertThat(_creationCallsCount.get(), is(3));
+	}
+
+	@Test
+	public void circuitIsOpen_timedAndAsyncObtainsFailFastWithoutWaiting() throws Exception {
+
+		_storage = createStorage(1, 60000);
+		failCreations(1);
+
+		long startTimeStamp = System.nanoTime();
+		try {
+			_storage.obtain(_key, _createDelegate, 5, TimeUnit.SECONDS);
+			fail();
+		} catch (CircuitBreakerOpenException e) {}
+		try {
+			_storage.obtainAsync(_key, _createDelegate).get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(instanceOf(CircuitBreakerOpenException.class)));
+		}
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTimeStamp) < 1, is(true));
+		assertThat(_creationCallsCount.get(), is(1));
+	}
+
+	@Test
+	public void successBetweenFailures_failuresAreNotConsecutiveAndCircuitStaysClosed() throws Exception {
+
+		_storage = createStorage(2, 60000);
+		failCreations(1);
+		_isFactoryBroken.set(false);
+		_storage.obtain(_key, _createDelegate);
+		_isFactoryBroken.set(true);
+		failCreations(1);
+
+		assertThat(_storage.getCircuitBreakerState(_key), is(CircuitBreakerState.CLOSED));
+	}
+
+	@Test
+	public void openStateExpiresAndTrialCreationSucceeds_circuitCloses() throws Exception {
+
+		_storage = createStorage(1, 50);
+		failCreations(1);
+		_isFactoryBroken.set(false);
+		Thread.sleep(100);
+
+		TestResource obtained = _storage.obtain(_key, _createDelegate);
+
+		assertThat(obtained, is(notNullValue()));
+		assertThat(_storage.getCircuitBreakerState(_key), is(CircuitBreakerState.CLOSED));
+	}
+
+	@Test
+	public void openStateExpiresAndTrialCreationFails_circuitReopens() throws Exception {
+
+		_storage = createStorage(1, 50);
+		failCreations(1);
+		Thread.sleep(100);
+
+		failCreations(1);
+
+		assertThat(_storage.getCircuitBreakerState(_key), is(CircuitBreakerState.OPEN));
+		assertThat(_creationCallsCount.get(), is(2));
+	}
+
+	@Test
+	public void circuitIsOpenButIdleObjectExists_idleObjectIsStillGiven() throws Exception {
+
+		_storage = createStorage(1, 60000);
+		_isFactoryBroken.set(false);
+		TestResource created = _storage.obtain(_key, _createDelegate);
+		_isFactoryBroken.set(true);
+		failCreations(1);
+		_storage.getKeyToPoolItem().get(_key).release(created);
+
+		assertThat(_storage.getCircuitBreakerState(_key), is(CircuitBreakerState.OPEN));
+		assertThat(_storage.obtain(_key, _createDelegate), is(sameInstance(created)));
+	}
+
+	@Test
+	public void objectsAreShared_creationFailuresOpenCircuitAndObtainFailsFast() throws Exception {
+
+		_storage = PoolItemsStorageMocks.getNewSharing(new PoolItemsStorageSettings()
+			.setCircuitBreakerFailuresThreshold(2)
+			.setCircuitBreakerOpenStateDurationInMillis(60000));
+		failCreations(2);
+
+		assertThat(_storage.getCircuitBreakerState(_key), is(CircuitBreakerState.OPEN));
+		try {
+			_storage.obtain(_key, _createDelegate);
+			fail();
+		} catch (CircuitBreakerOpenException e) {}
+		assertThat(_creationCallsCount.get(), is(2));
+	}
+
+	private void failCreations(int count) throws Exception {
+
+		for (int i = 0; i < count; i++)
+			try {
+				_storage.obtain(_key, _createDelegate);
+				fail();
+			} catch (ObjectCreationFailedException e) {}
+	}
+
+	private PoolItemsStorage<TestKey, TestResource> createStorage(int failuresThreshold, long openStateDurationInMillis) {
+
+		return PoolItemsStorageMocks.getNewExclusive(new PoolItemsStorageSettings()
+			.setCircuitBreakerFailuresThreshold(failuresThreshold)
+			.setCircuitBreakerOpenStateDurationInMillis(openStateDurationInMillis));
+	}
+}
@@ -0,0 +1,111 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.CreateDelegateMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageRateLimitTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+
+	private final AtomicInteger _createdCount = new AtomicInteger();
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = CreateDelegateMocks.getNewCounting(_createdCount);
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	@After
+	public void after() throws Exception {
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void perKeyBurstIsUsedUp_nextCreationIsRejectedWithoutCallingFactory() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxCreationsPerSecondPerKey(0.1, 2));
+		TestKey key = new TestKey(1);
+		_storage.obtain(key, _createDelegate);
+		_storage.obtain(key, _createDelegate);
+
+		try {
+			_storage.obtain(key, _createDelegate);
+			fail();
+		} catch (CreationRateLimitExceededException e) {
+			assertThat(_createdCount.get(), is(2));
+		}
+	}
+
+	@Test
+	public void poolWideBurstIsUsedUpByOneKey_creationForOtherKeyIsRejected() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxCreationsPerSecond(0.1, 1));
+		_storage.obtain(new TestKey(1), _createDelegate);
+
+		_thrown.expect(CreationRateLimitExceededException.class);
+
+		_storage.obtain(new TestKey(2), _createDelegate);
+	}
+
+	@Test
+	public void timedObtainExceedsRateLimit_releasedObjectIsWaitedForInsteadOfCreating() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxCreationsPerSecondPerKey(0.1, 1));
+		TestKey key = new TestKey(1);
+		TestResource inUse = _storage.obtain(key, _createDelegate);
+
+		CompletableFuture.runAsync(() -> {
+			try {
+				Thread.sleep(100);
+				_storage.getKeyToPoolItem().get(key).release(inUse);
+			} catch (Exception e) {}
+		});
+		TestResource obtained = _storage.obtain(key, _createDelegate, 5, TimeUnit.SECONDS);
+
+		assertThat(obtained, is(sameInstance(inUse)));
+		assertThat(_createdCount.get(), is(1));
+	}
+
+	@Test
+	public void timedObtainExceedsRateLimit_objectIsCreatedOncePermitIsRefilled() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxCreationsPerSecondPerKey(20, 1));
+		TestKey key = new TestKey(1);
+		TestResource inUse = _storage.obtain(key, _createDelegate);
+
+		TestResource obtained = _storage.obtain(key, _createDelegate, 5, TimeUnit.SECONDS);
+
+		assertThat(obtained, is(not(sameInstance(inUse))));
+		assertThat(_createdCount.get(), is(2));
+	}
+
+	@Test
+	public void objectsAreShared_obtainsReuseSharedObjectWithoutTakingCreationPermits() throws Exception {
+
+		_storage = PoolItemsStorageMocks.getNewSharing(new PoolItemsStorageSettings().setMaxCreationsPerSecondPerKey(0.1, 1));
+		TestKey key = new TestKey(1);
+		TestResource shared = _storage.obtain(key, _createDelegate);
+
+		assertThat(_storage.obtain(key, _createDelegate), is(sameInstance(shared)));
+		assertThat(_storage.obtain(key, _createDelegate, 5, TimeUnit.SECONDS), is(sameInstance(shared)));
+		assertThat(_createdCount.get(), is(1));
+	}
+
+	private static PoolItemsStorage<TestKey, TestResource> createStorage(PoolItemsStorageSettings settings) {
+		return PoolItemsStorageMocks.getNewExclusive(settings);
+	}
+}
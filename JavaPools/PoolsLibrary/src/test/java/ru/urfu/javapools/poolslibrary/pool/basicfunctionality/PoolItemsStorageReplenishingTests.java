@@ -0,0 +1,135 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.CreateDelegateMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageReplenishingTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+
+	private final AtomicInteger _createdCount = new AtomicInteger();
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = CreateDelegateMocks.getNewCounting(_createdCount);
+
+	private static final int _MILLIS_TO_WAIT_FOR_REPLENISHING = 5000;
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	@After
+	public void after() throws Exception {
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void prewarmForSeveralKeys_eachKeyHasRequestedCountOfIdleObjects() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxObjectsCountPerKey(10));
+		TestKey firstKey = new TestKey(1);
+		TestKey secondKey = new TestKey(2);
+
+		_storage.prewarm(Arrays.asList(firstKey, secondKey), 3, _createDelegate);
+
+		assertThat(_storage.getKeyToPoolItem().get(firstKey).getAvailableObjectsCount(), is(3));
+		assertThat(_storage.getKeyToPoolItem().get(secondKey).getAvailableObjectsCount(), is(3));
+		assertThat(_createdCount.get(), is(6));
+	}
+
+	@Test
+	public void prewarmForMoreThanMaxCount_onlyMaxCountIsCreated() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxObjectsCountPerKey(2));
+		TestKey key = new TestKey(1);
+
+		_storage.prewarm(Arrays.asList(key), 5, _createDelegate);
+
+		assertThat(_storage.getKeyToPoolItem().get(key).getAllObjectsCount(), is(2));
+		assertThat(_createdCount.get(), is(2));
+	}
+
+	@Test
+	public void createDelegateFailsDuringPrewarm_creationFailedExceptionIsThrown() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings().setMaxObjectsCountPerKey(2));
+
+		_thrown.expect(ObjectCreationFailedException.class);
+
+		_storage.prewarm(Arrays.asList(new TestKey(1)), 2, key -> { throw new IllegalStateException(); });
+	}
+
+	@Test
+	public void availableCountDropsBelowLowWatermark_itIsReplenishedUpToMinIdleInBackground() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setMaxObjectsCountPerKey(10)
+			.setMinIdleObjectsCountPerKey(4)
+			.setIdleObjectsLowWatermarkPerKey(2));
+		TestKey key = new TestKey(1);
+
+		_storage.obtain(key, _createDelegate);
+
+		assertThat(waitForAvailableCount(key, 4), is(true));
+		assertThat(_storage.getKeyToPoolItem().get(key).getAllObjectsCount(), is(5));
+	}
+
+	@Test
+	public void availableCountStaysAboveLowWatermark_nothingIsCreated() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setMaxObjectsCountPerKey(10)
+			.setMinIdleObjectsCountPerKey(4)
+			.setIdleObjectsLowWatermarkPerKey(2));
+		TestKey key = new TestKey(1);
+		_storage.prewarm(Arrays.asList(key), 4, _createDelegate);
+
+		_storage.obtain(key, _createDelegate);
+
+		assertThat(_storage.getKeyToPoolItem().get(key).getAvailableObjectsCount(), is(3));
+		assertThat(_createdCount.get(), is(4));
+	}
+
+	@Test
+	public void objectsAreShared_objectInUseCountsAsIdleAndOnlyShortageIsReplenished() throws Exception {
+
+		_storage = PoolItemsStorageMocks.getNewSharing(new PoolItemsStorageSettings()
+			.setMinIdleObjectsCountPerKey(4)
+			.setIdleObjectsLowWatermarkPerKey(2));
+		TestKey key = new TestKey(1);
+
+		_storage.obtain(key, _createDelegate);
+
+		assertThat(waitForAvailableCount(key, 4), is(true));
+		assertThat(_storage.getKeyToPoolItem().get(key).getAllObjectsCount(), is(4));
+		assertThat(_createdCount.get(), is(4));
+	}
+
+	private boolean waitForAvailableCount(TestKey key, int expectedCount) throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + _MILLIS_TO_WAIT_FOR_REPLENISHING;
+		while (_storage.getKeyToPoolItem().get(key).getAvailableObjectsCount() < expectedCount) {
+			if (System.currentTimeMillis() > deadline)
+				return false;
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
+	private static PoolItemsStorage<TestKey, TestResource> createStorage(PoolItemsStorageSettings settings) {
+		return PoolItemsStorageMocks.getNewExclusive(settings);
+	}
+}
@@ -0,0 +1,103 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.ObjectCreationFailedException;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageSharedCreationTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+	private final ExecutorService _executor = Executors.newFixedThreadPool(_OBTAINERS_COUNT);
+
+	private final TestKey _key = new TestKey(1);
+	private final AtomicInteger _creationCallsCount = new AtomicInteger();
+	private final CountDownLatch _creationIsAllowed = new CountDownLatch(1);
+
+	private static final int _OBTAINERS_COUNT = 8;
+
+	@After
+	public void after() throws Exception {
+		_executor.shutdownNow();
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void concurrentFirstObtainsOfSharedObject_oneObjectIsCreatedAndGivenToEveryone() throws Exception {
+
+		_storage = createStorage();
+		List<Future<TestResource>> obtainings = obtainConcurrently(key -> new TestResource("shared"));
+
+		_creationIsAllowed.countDown();
+
+		TestResource created = obtainings.get(0).get(5, TimeUnit.SECONDS);
+		for (Future<TestResource> obtaining : obtainings)
+			assertThat(obtaining.get(5, TimeUnit.SECONDS), is(sameInstance(created)));
+		assertThat(_creationCallsCount.get(), is(1));
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(1));
+	}
+
+	@Test
+	public void coalescedCreationFails_everyoneGetsCreationFailureAndFactoryIsCalledOnce() throws Exception {
+
+		_storage = createStorage();
+		List<Future<TestResource>> obtainings = obtainConcurrently(key -> { throw new IllegalStateException(); });
+
+		_creationIsAllowed.countDown();
+
+		for (Future<TestResource> obtaining : obtainings)
+			try {
+				obtaining.get(5, TimeUnit.SECONDS);
+				fail();
+			} catch (ExecutionException e) {
+				assertThat(e.getCause(), is(instanceOf(ObjectCreationFailedException.class)));
+			}
+		assertThat(_creationCallsCount.get(), is(1));
+	}
+
+	private List<Future<TestResource>> obtainConcurrently(FunctionThatMayThrow<TestKey, TestResource> createDelegate) throws Exception {
+
+		FunctionThatMayThrow<TestKey, TestResource> blockingCreateDelegate = key -> {
+			_creationCallsCount.incrementAndGet();
+			_creationIsAllowed.await();
+			return createDelegate.apply(key);
+		};
+
+		CountDownLatch allAreStarted = new CountDownLatch(_OBTAINERS_COUNT);
+		List<Future<TestResource>> obtainings = new ArrayList<Future<TestResource>>();
+		for (int i = 0; i < _OBTAINERS_COUNT; i++)
+			obtainings.add(_executor.submit(() -> {
+				allAreStarted.countDown();
+				return _storage.obtain(_key, blockingCreateDelegate);
+			}));
+
+		allAreStarted.await();
+		while (_creationCallsCount.get() == 0)
+			Thread.sleep(10);
+		Thread.sleep(50);
+		return obtainings;
+	}
+
+	private PoolItemsStorage<TestKey, TestResource> createStorage() {
+
+		return PoolItemsStorageMocks.getNewSharing(new PoolItemsStorageSettings().setMaxObjectsCountPerKey(_OBTAINERS_COUNT));
+	}
+}
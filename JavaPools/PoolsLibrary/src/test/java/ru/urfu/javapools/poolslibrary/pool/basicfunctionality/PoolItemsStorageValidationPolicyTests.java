@@ -0,0 +1,156 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolItemsStorageMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PoolItemsStorageValidationPolicyTests {
+
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+	private final IPoolObjectActions<TestResource> _objectActions = ObjectActionsMocks.getNewSuccessful();
+
+	private final TestKey _key = new TestKey(1);
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = key -> new TestResource("resource");
+
+	@After
+	public void after() throws Exception {
+		if (_storage != null)
+			_storage.close();
+	}
+
+	@Test
+	public void objectIsReusedBeforeIdleThreshold_itIsValidatedOnlyAtFirstCheck() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setValidationMode(ObjectValidationMode.IF_IDLE_LONGER_THAN_THRESHOLD)
+			.setValidationIdleThresholdInMillis(60000));
+
+		obtainAndReleaseTimes(5);
+
+		verify(_objectActions, times(1)).isValid(org.mockito.Mockito.any(TestResource.class));
+	}
+
+	@Test
+	public void objectIsIdleLongerThanThreshold_itIsValidatedOnObtaining() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setValidationMode(ObjectValidationMode.IF_IDLE_LONGER_THAN_THRESHOLD)
+			.setValidationIdleThresholdInMillis(20));
+
+		obtainAndReleaseTimes(1);
+		Thread.sleep(50);
+		_storage.obtain(_key, _createDelegate);
+
+		verify(_objectActions, times(2)).isValid(org.mockito.Mockito.any(TestResource.class));
+	}
+
+	@Test
+	public void everyThirdCheckIsValidated_onlyFirstAndEveryThirdCheckReachValidation() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setValidationMode(ObjectValidationMode.EVERY_NTH_CHECK)
+			.setChecksCountBetweenValidations(3));
+
+		obtainAndReleaseTimes(5);
+
+		// 9 checks: the first one and then checks 4, 7 after it
+		verify(_objectActions, times(3)).isValid(org.mockito.Mockito.any(TestResource.class));
+	}
+
+	@Test
+	public void idleObjectBecomesInvalid_backgroundValidatorUtilizesItWithoutObtaining() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setObjectsTrackingMode(ObjectsTrackingMode.BY_IDENTITY)
+			.setValidationMode(ObjectValidationMode.IN_BACKGROUND_ONLY)
+			.setBackgroundValidationPeriodInMillis(20));
+		TestResource resource = _storage.obtain(_key, _createDelegate);
+		_storage.getKeyToPoolItem().get(_key).release(resource);
+
+		resource.appendValue(ObjectActionsMocks.SUBSTRING_OF_INVALID_OBJECT);
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (_storage.getKeyToPoolItem().get(_key).getAllObjectsCount() > 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(0));
+		verify(_objectActions).close(resource);
+	}
+
+	@Test
+	public void validationIsAlwaysAndBackgroundPeriodIsSet_backgroundValidatorUtilizesIdleInvalidObject() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setObjectsTrackingMode(ObjectsTrackingMode.BY_IDENTITY)
+			.setValidationMode(ObjectValidationMode.ALWAYS)
+			.setBackgroundValidationPeriodInMillis(20));
+
+		assertBackgroundValidatorUtilizesIdleInvalidObject();
+	}
+
+	@Test
+	public void lockFreeItemObjectBecomesInvalid_backgroundValidatorUtilizesIt() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setObjectsTrackingMode(ObjectsTrackingMode.BY_IDENTITY)
+			.setConcurrencyMode(PoolItemConcurrencyMode.LOCK_FREE)
+			.setValidationMode(ObjectValidationMode.IN_BACKGROUND_ONLY)
+			.setBackgroundValidationPeriodInMillis(20));
+
+		assertBackgroundValidatorUtilizesIdleInvalidObject();
+	}
+
+	@Test
+	public void objectInUseBecomesInvalid_backgroundValidatorLeavesItToItsUser() throws Exception {
+
+		_storage = createStorage(new PoolItemsStorageSettings()
+			.setObjectsTrackingMode(ObjectsTrackingMode.BY_IDENTITY)
+			.setValidationMode(ObjectValidationMode.IN_BACKGROUND_ONLY)
+			.setBackgroundValidationPeriodInMillis(20));
+		obtainAndReleaseTimes(1);
+		TestResource resource = _storage.obtain(_key, _createDelegate);
+
+		resource.appendValue(ObjectActionsMocks.SUBSTRING_OF_INVALID_OBJECT);
+		Thread.sleep(200);
+
+		// validated only at its first check, before it was obtained again
+		verify(_objectActions, times(1)).isValid(resource);
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(1));
+		verify(_objectActions, never()).close(resource);
+	}
+
+	private void assertBackgroundValidatorUtilizesIdleInvalidObject() throws Exception {
+
+		TestResource resource = _storage.obtain(_key, _createDelegate);
+		_storage.getKeyToPoolItem().get(_key).release(resource);
+
+		resource.appendValue(ObjectActionsMocks.SUBSTRING_OF_INVALID_OBJECT);
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (_storage.getKeyToPoolItem().get(_key).getAllObjectsCount() > 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(_storage.getKeyToPoolItem().get(_key).getAllObjectsCount(), is(0));
+		verify(_objectActions).close(resource);
+	}
+
+	private void obtainAndReleaseTimes(int times) throws Exception {
+
+		for (int i = 0; i < times; i++) {
+			TestResource obtained = _storage.obtain(_key, _createDelegate);
+			_storage.getKeyToPoolItem().get(_key).release(obtained);
+		}
+	}
+
+	private PoolItemsStorage<TestKey, TestResource> createStorage(PoolItemsStorageSettings settings) {
+		return PoolItemsStorageMocks.getNewExclusive(settings, _objectActions);
+	}
+}
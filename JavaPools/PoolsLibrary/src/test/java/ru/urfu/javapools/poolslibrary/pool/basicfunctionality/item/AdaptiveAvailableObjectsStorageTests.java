@@ -0,0 +1,51 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Test;
+
+public class AdaptiveAvailableObjectsStorageTests {
+
+	@Test
+	public void surplusIsPersistent_recentlyAddedObjectIsGivenAndSurplusIsLeftIdle() {
+
+		AdaptiveAvailableObjectsStorage<String> storage = new AdaptiveAvailableObjectsStorage<String>(2, false);
+		for (int i = 0; i < 5; i++)
+			storage.add(String.valueOf(i));
+
+		for (int i = 0; i < 50; i++)
+			storage.add(storage.poll());
+
+		assertThat(storage.getIsLowLoad(), is(true));
+		String polled = storage.poll();
+		storage.add(polled);
+		assertThat(storage.poll(), is(polled));
+	}
+
+	@Test
+	public void storageIsMostlyDrained_objectsAreGivenInAddingOrder() {
+
+		AdaptiveAvailableObjectsStorage<String> storage = new AdaptiveAvailableObjectsStorage<String>(2, false);
+
+		for (int i = 0; i < 50; i++)
+			assertThat(storage.poll(), is(nullValue()));
+		storage.add("0");
+		storage.add("1");
+
+		assertThat(storage.getIsLowLoad(), is(false));
+		assertThat(storage.poll(), is("0"));
+	}
+
+	@Test
+	public void comparingByIdentity_equalButDifferentObjectIsNotRemoved() {
+
+		AdaptiveAvailableObjectsStorage<String> storage = new AdaptiveAvailableObjectsStorage<String>(2, true);
+		String added = new String("a");
+		storage.add(added);
+
+		assertThat(storage.contains(new String("a")), is(false));
+		assertThat(storage.remove(new String("a")), is(false));
+		assertThat(storage.remove(added), is(true));
+	}
+}
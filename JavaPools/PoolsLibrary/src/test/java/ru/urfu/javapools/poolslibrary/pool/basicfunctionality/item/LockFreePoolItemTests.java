@@ -0,0 +1,310 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.internal.matchers.LessThan;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.matchers.InvalidOperationExceptionMatcher;
+import ru.urfu.javapools.poolslibrary.matchers.MaxCountReachedExceptionMatcher;
+import ru.urfu.javapools.poolslibrary.matchers.PoolExceptionMatcher;
+import ru.urfu.javapools.poolslibrary.mocks.CreateDelegateMocks;
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class LockFreePoolItemTests {
+
+	private LockFreePoolItem<TestKey, TestResource> _poolItem;
+
+	private final PoolItemSettings<TestKey> _settings;
+	private final TestKey _key;
+
+	private IPoolObjectActions<TestResource> _objectActionsMock;
+	private FunctionThatMayThrow<TestKey,TestResource> _createDelegateMock;
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	public LockFreePoolItemTests() {
+
+		_key = new TestKey(5113);
+
+		_settings = new PoolItemSettings<TestKey>() {{
+			setKey(_key);
+			setMarkObtainedObjectAsNotAvailable(true);
+			setMaxObjectsCount(100);
+		}};
+	}
+
+	@Before
+	public void before() throws Exception {
+
+		_createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+		_objectActionsMock = ObjectActionsMocks.getNewSuccessful();
+
+		_poolItem = new LockFreePoolItem<TestKey, TestResource>(_settings,
+																LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS,
+																_objectActionsMock);
+	}
+
+	@Test
+	public void poolItemIsEmpty_obtainWithCreateDelegateReturnsNewlyCreatedObject() throws Exception {
+
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+		assertThat(obtained.getValue(), is("1"));
+		assertThat(_poolItem.getAllObjectsCount(), is(1));
+		verify(_createDelegateMock).apply(_key);
+	}
+
+	@Test
+	public void neitherCreateDelegateNorAvailableObject_obtainThrowsNoAvailableObjectException() throws Exception {
+
+		_thrown.expect(NoAvailableObjectException.class);
+		_thrown.expect(new PoolExceptionMatcher(_key));
+
+		_poolItem.obtain(null);
+	}
+
+	@Test
+	public void objectWasObtainedAndReleased_obtainReturnsItWithoutCreation() throws Exception {
+
+		TestResource obtainedFirst = _poolItem.obtain(_createDelegateMock);
+		_poolItem.release(obtainedFirst);
+
+		TestResource obtainedSecond = _poolItem.obtain(null);
+
+		assertThat(obtainedSecond, is(obtainedFirst));
+		verify(_createDelegateMock, times(1)).apply(_key);
+	}
+
+	@Test
+	public void markingIsOffAndObjectWasObtained_obtainReturnsIt() throws Exception {
+
+		_settings.setMarkObtainedObjectAsNotAvailable(false);
+		TestResource obtainedFirst = _poolItem.obtain(_createDelegateMock);
+
+		TestResource obtainedSecond = _poolItem.obtain(null);
+
+		assertThat(obtainedSecond, is(obtainedFirst));
+	}
+
+	@Test
+	public void maxCountWasReached_obtainThrowsMaxCountReachedException() throws Exception {
+
+		_settings.setMaxObjectsCount(2);
+		_poolItem.obtain(_createDelegateMock);
+		_poolItem.obtain(_createDelegateMock);
+
+		_thrown.expect(ObjectsMaxCountReachedException.class);
+		_thrown.expect(new MaxCountReachedExceptionMatcher(_key, 2));
+
+		_poolItem.obtain(_createDelegateMock);
+	}
+
+	@Test
+	public void unmarkingOfStrangeObject_invalidOperationExceptionIsThrown() throws Exception {
+
+		TestResource unknownObject = new TestResource("asd");
+
+		_thrown.expect(InvalidPoolOperationException.class);
+		_thrown.expectMessage("Marking object as available has been declined because " +
+							  "this object wasn't created by pool, it's a stranger");
+		_thrown.expect(new InvalidOperationExceptionMatcher(_key, unknownObject));
+
+		_poolItem.release(unknownObject);
+	}
+
+	@Test
+	public void unmarkingOfAvailableObject_invalidOperationExceptionIsThrown() throws Exception {
+
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+		_poolItem.release(obtained);
+
+		_thrown.expect(InvalidPoolOperationException.class);
+		_thrown.expectMessage("Marking object as available has been declined " +
+							  "because it's currently available. Object should " +
+							  "be marked as not available first");
+		_thrown.expect(new InvalidOperationExceptionMatcher(_key, obtained));
+
+		_poolItem.release(obtained);
+	}
+
+	@Test
+	public void releasedObjectBecameInvalid_itIsClosedAndForgotten() throws Exception {
+
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+		obtained.appendValue(ObjectActionsMocks.SUBSTRING_OF_INVALID_OBJECT);
+		_poolItem.release(obtained);
+
+		assertThat(_poolItem.getAllObjectsCount(), is(0));
+		verify(_objectActionsMock).close(obtained);
+	}
+
+	@Test
+	public void invalidObjectIsSaidToBeKilledWhileItIsReleased_itIsClosedAndItsCapacityIsFreed() throws Exception {
+
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+		// killing lands between the validation of releasing and its state change
+		doAnswer(invocation -> {
+			_poolItem.markObjectForKilling(obtained);
+			return false;
+		}).when(_objectActionsMock).isValid(obtained);
+
+		_poolItem.release(obtained);
+
+		assertThat(_poolItem.getAllObjectsCount(), is(0));
+		verify(_objectActionsMock, times(1)).close(obtained);
+	}
+
+	@Test
+	public void availableObjectWasSaidToBeKilled_itIsClosedAndAnotherObjectIsCreated() throws Exception {
+
+		TestResource toKill = _poolItem.obtain(_createDelegateMock);
+		_poolItem.release(toKill);
+
+		_poolItem.markObjectForKilling(toKill);
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+		assertThat(obtained, not(toKill));
+		assertThat(_poolItem.getAllObjectsCount(), is(1));
+		verify(_objectActionsMock).close(toKill);
+	}
+
+	@Test
+	public void unmarkingOfObjectSaidToBeKilled_itIsRemovedAndClosed() throws Exception {
+
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+		_poolItem.markObjectForKilling(obtained);
+		_poolItem.release(obtained);
+
+		assertThat(_poolItem.getAllObjectsCount(), is(0));
+		verify(_objectActionsMock).close(obtained);
+	}
+
+	@Test
+	public void createDelegateThrewException_creationFailedExceptionIsThrownAndCountIsNotChanged() throws Exception {
+
+		_createDelegateMock = CreateDelegateMocks.getNewThrowing(new FileNotFoundException());
+
+		_thrown.expect(ObjectCreationFailedException.class);
+		_thrown.expectCause(org.hamcrest.CoreMatchers.isA(FileNotFoundException.class));
+
+		try {
+			_poolItem.obtain(_createDelegateMock);
+		} finally {
+			assertThat(_poolItem.getAllObjectsCount(), is(0));
+		}
+	}
+
+	@Test
+	public void closeWasCalled_allObjectsAreClosed() throws Exception {
+
+		TestResource obtained1 = _poolItem.obtain(_createDelegateMock);
+		TestResource obtained2 = _poolItem.obtain(_createDelegateMock);
+		_poolItem.release(obtained2);
+
+		_poolItem.close();
+
+		verify(_objectActionsMock).close(obtained1);
+		verify(_objectActionsMock).close(obtained2);
+	}
+
+	@Test
+	public void maxCountWasReached_timedObtainReceivesObjectReleasedByAnotherThread() throws Exception {
+
+		_settings.setMaxObjectsCount(1);
+		TestResource obtainedFirst = _poolItem.obtain(_createDelegateMock);
+		new Thread(() -> {
+			try {
+				Thread.sleep(200);
+				_poolItem.release(obtainedFirst);
+			} catch (Exception e) {}
+		}).start();
+
+		TestResource obtainedSecond = _poolItem.obtain(_createDelegateMock, 5, TimeUnit.SECONDS);
+
+		assertThat(obtainedSecond, is(obtainedFirst));
+		verify(_createDelegateMock, times(1)).apply(_key);
+	}
+
+	@Test
+	public void nothingWasReleasedDuringTimeout_timedObtainThrowsMaxCountReachedException() throws Exception {
+
+		_settings.setMaxObjectsCount(1);
+		_poolItem.obtain(_createDelegateMock);
+
+		_thrown.expect(ObjectsMaxCountReachedException.class);
+		_thrown.expect(new MaxCountReachedExceptionMatcher(_key, 1));
+
+		_poolItem.obtain(_createDelegateMock, 100, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void maxCountWasReached_obtainAsyncIsCompletedByRelease() throws Exception {
+
+		_settings.setMaxObjectsCount(1);
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+		CompletableFuture<TestResource> obtaining = _poolItem.obtainAsync(_createDelegateMock);
+		assertThat(obtaining.isDone(), is(false));
+		_poolItem.release(obtained);
+
+		assertThat(obtaining.get(5, TimeUnit.SECONDS), is(obtained));
+	}
+
+	@Test
+	public void manyThreadsObtainAndRelease_objectIsNeverGivenToTwoUsersAndMaxCountIsKept() throws Exception {
+
+		_settings.setMaxObjectsCount(4);
+		ConcurrentHashMap<TestResource, Boolean> objectsInUse = new ConcurrentHashMap<TestResource, Boolean>();
+		AtomicInteger violationsCount = new AtomicInteger();
+		AtomicInteger createdCount = new AtomicInteger();
+		FunctionThatMayThrow<TestKey, TestResource> createDelegate = key -> new TestResource(String.valueOf(createdCount.incrementAndGet()));
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 16; i++)
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 2000; j++) {
+					try {
+						TestResource obtained = _poolItem.obtain(createDelegate);
+						if (objectsInUse.putIfAbsent(obtained, true) != null)
+							violationsCount.incrementAndGet();
+						objectsInUse.remove(obtained);
+						_poolItem.release(obtained);
+					} catch (ObjectsMaxCountReachedException e) {
+					} catch (Exception e) {
+						violationsCount.incrementAndGet();
+					}
+				}
+			}));
+
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		assertThat(violationsCount.get(), is(0));
+		assertThat(_poolItem.getAllObjectsCount(), new LessThan<Integer>(5));
+	}
+}
@@ -5,13 +5,22 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.io.FileNotFoundException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.internal.matchers.GreaterThan;
+import org.mockito.internal.matchers.LessThan;
 
 import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
 import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
@@ -23,6 +32,9 @@ import ru.urfu.javapools.poolslibrary.mocks.CreateDelegateMocks;
 import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
 import ru.urfu.javapools.poolslibrary.mocks.PoolMocks;
 import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.BatchObtainingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
 import ru.urfu.javapools.poolslibrary.testentities.TestKey;
 import ru.urfu.javapools.poolslibrary.testentities.TestResource;
 
@@ -447,6 +459,307 @@ public class PoolItemTests {
         verify(_objectActionsMock).close(object4);
     }	
 
+    @Test
+    public void maxCountWasReached_timedObtainReceivesObjectReleasedByAnotherThread() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        TestResource obtainedFirst = _poolItem.obtain(_createDelegateMock);
+        releaseLater(obtainedFirst, 200);
+
+        long startTimestamp = System.currentTimeMillis();
+        TestResource obtainedSecond = _poolItem.obtain(_createDelegateMock, 5, TimeUnit.SECONDS);
+        long executionTimeInMills = System.currentTimeMillis() - startTimestamp;
+
+        assertThat(obtainedSecond, is(obtainedFirst));
+        assertThat(executionTimeInMills, new LessThan<Long>(1000L));
+        verify(_createDelegateMock, times(1)).apply(_key);
+    }
+
+    @Test
+    public void nothingWasReleasedDuringTimeout_timedObtainThrowsMaxCountReachedException() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        _poolItem.obtain(_createDelegateMock);
+
+        _thrown.expect(ObjectsMaxCountReachedException.class);
+        _thrown.expect(new MaxCountReachedExceptionMatcher(_key, 1));
+
+        long startTimestamp = System.currentTimeMillis();
+        try {
+            _poolItem.obtain(_createDelegateMock, 300, TimeUnit.MILLISECONDS);
+        } finally {
+            assertThat(System.currentTimeMillis() - startTimestamp, new GreaterThan<Long>(290L));
+        }
+    }
+
+    @Test
+    public void severalObtainersAreWaiting_releasedObjectIsHandedOffToFirstOfThem() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+        CompletableFuture<TestResource> firstWaiter = _poolItem.obtainOrEnqueue(_createDelegateMock);
+        CompletableFuture<TestResource> secondWaiter = _poolItem.obtainOrEnqueue(_createDelegateMock);
+        _poolItem.release(obtained);
+
+        assertThat(firstWaiter.getNow(null), is(obtained));
+        assertThat(secondWaiter.isDone(), is(false));
+        assertThat(_poolItem.getAllObjectsCount(), is(1));
+    }
+
+    @Test
+    public void waitingObtainerGaveUp_releasedObjectIsHandedOffToNextOne() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+        CompletableFuture<TestResource> firstWaiter = _poolItem.obtainOrEnqueue(_createDelegateMock);
+        CompletableFuture<TestResource> secondWaiter = _poolItem.obtainOrEnqueue(_createDelegateMock);
+        firstWaiter.cancel(false);
+        _poolItem.release(obtained);
+
+        assertThat(secondWaiter.getNow(null), is(obtained));
+    }
+
+    @Test
+    public void objectOfWaitedKeyWasKilled_waiterIsWokenUpAndCreatesNewObject() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        TestResource toKill = _poolItem.obtain(_createDelegateMock);
+        CompletableFuture<TestResource> waiter = _poolItem.obtainOrEnqueue(_createDelegateMock);
+
+        _poolItem.markObjectForKilling(toKill);
+        _poolItem.release(toKill);
+
+        assertThat(waiter.isDone(), is(true));
+        assertThat(waiter.getNow(null), nullValue());
+        assertThat(_poolItem.obtain(_createDelegateMock, 0, TimeUnit.SECONDS).getValue(), is("2"));
+    }
+
+    @Test
+    public void maxCountWasReached_obtainAsyncIsCompletedByRelease() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+        CompletableFuture<TestResource> obtaining = _poolItem.obtainAsync(_createDelegateMock);
+        assertThat(obtaining.isDone(), is(false));
+        _poolItem.release(obtained);
+
+        assertThat(obtaining.get(5, TimeUnit.SECONDS), is(obtained));
+    }
+
+    @Test
+    public void asyncObtainingWasCancelled_waiterIsRemovedAndReleasedObjectBecomesAvailable() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        TestResource obtained = _poolItem.obtain(_createDelegateMock);
+        CompletableFuture<TestResource> obtaining = _poolItem.obtainAsync(_createDelegateMock);
+
+        obtaining.cancel(false);
+        _poolItem.release(obtained);
+
+        assertThat(_poolItem.obtain(null), is(obtained));
+    }
+
+    @Test
+    public void poolItemWasClosed_pendingAsyncObtainingFailsWithNoAvailableObjectException() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        _poolItem.obtain(_createDelegateMock);
+        CompletableFuture<TestResource> obtaining = _poolItem.obtainAsync(_createDelegateMock);
+
+        _poolItem.close();
+
+        try {
+            obtaining.get(5, TimeUnit.SECONDS);
+            fail("Pending obtaining should fail after closing");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(NoAvailableObjectException.class));
+        }
+    }
+
+    @Test
+    public void creationIsSlow_releaseAndObtainingOfExistingObjectAreNotBlocked() throws Exception {
+
+        TestResource obtainedBefore = _poolItem.obtain(key -> new TestResource("existing"));
+        CountDownLatch creationStarted = new CountDownLatch(1);
+        CountDownLatch creationMayFinish = new CountDownLatch(1);
+        Thread creatingThread = new Thread(() -> {
+            try {
+                _poolItem.obtain(key -> {
+                    creationStarted.countDown();
+                    creationMayFinish.await();
+                    return new TestResource("slow");
+                });
+            } catch (Exception e) {}
+        });
+        creatingThread.start();
+        creationStarted.await();
+
+        long startNanos = System.nanoTime();
+        _poolItem.release(obtainedBefore);
+        TestResource obtainedAgain = _poolItem.obtain(null);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        creationMayFinish.countDown();
+        creatingThread.join();
+
+        assertThat(obtainedAgain, is(obtainedBefore));
+        assertThat(elapsedMillis, new LessThan<Long>(1000L));
+    }
+
+    @Test
+    public void severalCreationsAreInFlight_theyRunInParallelAndMaxCountIsNotOvershot() throws Exception {
+
+        _settings.setMaxObjectsCount(2);
+        CyclicBarrier bothCreationsStarted = new CyclicBarrier(3);
+        CountDownLatch creationsMayFinish = new CountDownLatch(1);
+        FunctionThatMayThrow<TestKey, TestResource> slowCreateDelegate = key -> {
+            bothCreationsStarted.await(5, TimeUnit.SECONDS);
+            creationsMayFinish.await();
+            return new TestResource("");
+        };
+        Thread[] creatingThreads = new Thread[2];
+        for (int i = 0; i < creatingThreads.length; i++) {
+            creatingThreads[i] = new Thread(() -> {
+                try {
+                    _poolItem.obtain(slowCreateDelegate);
+                } catch (Exception e) {}
+            });
+            creatingThreads[i].start();
+        }
+        bothCreationsStarted.await(5, TimeUnit.SECONDS);
+
+        try {
+            _poolItem.obtain(slowCreateDelegate);
+            fail("Obtaining should fail while max count of creations is in flight");
+        } catch (ObjectsMaxCountReachedException e) {
+        } finally {
+            creationsMayFinish.countDown();
+            for (Thread creatingThread : creatingThreads)
+                creatingThread.join();
+        }
+
+        assertThat(_poolItem.getAllObjectsCount(), is(2));
+    }
+
+    @Test
+    public void creationFailed_reservedSlotIsFreed() throws Exception {
+
+        _settings.setMaxObjectsCount(1);
+        _createDelegateMock = CreateDelegateMocks.getNewThrowing(new FileNotFoundException());
+        try {
+            _poolItem.obtain(_createDelegateMock);
+        } catch (ObjectCreationFailedException e) {}
+
+        TestResource created = _poolItem.obtain(key -> new TestResource("created"));
+
+        assertThat(created.getValue(), is("created"));
+    }
+
+    @Test
+    public void availableObjectsAreNotEnough_obtainManyTakesThemAndCreatesRest() throws Exception {
+
+        TestResource available1 = addAvailableObject("1");
+        TestResource available2 = addAvailableObject("2");
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+
+        List<TestResource> obtained = _poolItem.obtainMany(5, BatchObtainingMode.ALL_OR_NOTHING, _createDelegateMock);
+
+        assertThat(obtained.size(), is(5));
+        assertThat(obtained.containsAll(Arrays.asList(available1, available2)), is(true));
+        verify(_createDelegateMock, times(3)).apply(_key);
+    }
+
+    @Test
+    public void allOrNothingAndMaxCountIsNotEnough_obtainManyThrowsAndTakesNothing() throws Exception {
+
+        _settings.setMaxObjectsCount(3);
+        TestResource available = addAvailableObject("1");
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+
+        try {
+            _poolItem.obtainMany(5, BatchObtainingMode.ALL_OR_NOTHING, _createDelegateMock);
+            fail("All-or-nothing obtaining should fail when max count doesn't allow to obtain all");
+        } catch (ObjectsMaxCountReachedException e) {}
+
+        verify(_createDelegateMock, never()).apply(_key);
+        assertThat(_poolItem.obtain(null), is(available));
+    }
+
+    @Test
+    public void bestEffortAndMaxCountIsNotEnough_obtainManyReturnsAsManyAsAllowed() throws Exception {
+
+        _settings.setMaxObjectsCount(3);
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+
+        List<TestResource> obtained = _poolItem.obtainMany(5, BatchObtainingMode.BEST_EFFORT, _createDelegateMock);
+
+        assertThat(obtained.size(), is(3));
+    }
+
+    @Test
+    public void releaseAllGotStranger_otherObjectsAreReleasedAndInvalidOperationExceptionIsThrown() throws Exception {
+
+        _createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+        List<TestResource> obtained = _poolItem.obtainMany(2, BatchObtainingMode.ALL_OR_NOTHING, _createDelegateMock);
+        TestResource stranger = new TestResource("stranger");
+
+        try {
+            _poolItem.releaseAll(Arrays.asList(obtained.get(0), stranger, obtained.get(1)));
+            fail("Releasing of stranger should be declined");
+        } catch (InvalidPoolOperationException e) {
+            assertThat(e.getObject(), is(stranger));
+        }
+
+        List<TestResource> obtainedAgain = _poolItem.obtainMany(2, BatchObtainingMode.ALL_OR_NOTHING, null);
+        assertThat(obtainedAgain.containsAll(obtained), is(true));
+    }
+
+    @Test
+    public void trackingByIdentity_objectsEqualByValueAreTrackedSeparately() throws Exception {
+
+        PoolItemSettings<TestKey> settings = new PoolItemSettings<TestKey>()
+            .setKey(_key)
+            .setMarkObtainedObjectAsNotAvailable(true)
+            .setMaxObjectsCount(2)
+            .setObjectsTrackingMode(ObjectsTrackingMode.BY_IDENTITY);
+        PoolItem<TestKey, TestResource> poolItem = new PoolItem<TestKey, TestResource>(settings,
+            LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS.createStorage(ObjectsTrackingMode.BY_IDENTITY), _objectActionsMock);
+        TestResource first = poolItem.obtain(key -> new TestResource("equal"));
+        TestResource second = poolItem.obtain(key -> new TestResource("equal"));
+        poolItem.release(first);
+
+        try {
+            poolItem.release(first);
+            fail("Releasing of available object should be declined");
+        } catch (InvalidPoolOperationException e) {
+            assertThat(e.getObject(), sameInstance(first));
+        }
+        poolItem.release(second);
+
+        assertThat(poolItem.getAvailableObjectsCount(), is(2));
+        assertThat(poolItem.obtain(null), sameInstance(first));
+    }
+
+    private void releaseLater(TestResource toRelease, long millsToWait) {
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(millsToWait);
+                _poolItem.release(toRelease);
+            } catch (Exception e) {}
+        }).start();
+    }
+
 	private TestResource addAvailableObject(String value) {
 		TestResource resource = new TestResource(value);
 		_availableObjectsStorageMock.add(resource);
@@ -0,0 +1,80 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.ObjectsTrackingMode;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemConcurrencyMode;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class RingBufferAvailableObjectsStorageTests {
+
+	@Test
+	public void firstInFirstOut_objectsArePolledInAddingOrder() {
+
+		IAvailableObjectsStorage<String> storage = fill(new RingBufferAvailableObjectsStorage<String>(false), 20);
+
+		for (int i = 0; i < 20; i++)
+			assertThat(storage.poll(), is(String.valueOf(i)));
+		assertThat(storage.poll(), is(nullValue()));
+	}
+
+	@Test
+	public void lastInFirstOut_objectsArePolledInReverseAddingOrder() {
+
+		IAvailableObjectsStorage<String> storage = fill(new RingBufferAvailableObjectsStorage<String>(true), 20);
+
+		for (int i = 19; i >= 0; i--)
+			assertThat(storage.poll(), is(String.valueOf(i)));
+		assertThat(storage.poll(), is(nullValue()));
+	}
+
+	@Test
+	public void objectIsRemovedFromMiddle_restIsPolledInOrderWithoutIt() {
+
+		IAvailableObjectsStorage<String> storage = fill(new RingBufferAvailableObjectsStorage<String>(false, 2), 3);
+		storage.poll();
+		storage.add("3");
+
+		assertThat(storage.remove("2"), is(true));
+		assertThat(storage.contains("2"), is(false));
+		assertThat(storage.size(), is(2));
+		assertThat(storage.poll(), is("1"));
+		assertThat(storage.poll(), is("3"));
+	}
+
+	@Test
+	public void customStorageFactoryIsSet_lockBasedPoolItemKeepsAvailableObjectsInIt() throws Exception {
+
+		IAvailableObjectsStorage<TestResource> customStorage = new RingBufferAvailableObjectsStorage<TestResource>(true);
+		PoolItemSettings<TestKey> settings = new PoolItemSettings<TestKey>()
+			.setKey(new TestKey(1))
+			.setMarkObtainedObjectAsNotAvailable(true)
+			.setMaxObjectsCount(10)
+			.setAvailableObjectsStorageFactory(new IAvailableObjectsStorageFactory() {
+				@SuppressWarnings("unchecked")
+				@Override
+				public <TV> IAvailableObjectsStorage<TV> createStorage(ObjectsTrackingMode trackingMode) {
+					return (IAvailableObjectsStorage<TV>) customStorage;
+				}
+			});
+		IPoolItem<TestKey, TestResource> poolItem = PoolItemConcurrencyMode.LOCK_BASED.createPoolItem(
+			settings, LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS, ObjectActionsMocks.getNewSuccessful());
+
+		poolItem.release(poolItem.obtain(key -> new TestResource("1")));
+
+		assertThat(customStorage.size(), is(1));
+	}
+
+	private static IAvailableObjectsStorage<String> fill(IAvailableObjectsStorage<String> storage, int count) {
+
+		for (int i = 0; i < count; i++)
+			storage.add(String.valueOf(i));
+		return storage;
+	}
+}
@@ -0,0 +1,87 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemConcurrencyMode;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class RoundRobinAvailableObjectsStorageTests {
+
+	@Test
+	public void sharedObjectsAreReAddedAfterPolling_theyAreGivenInStableRound() {
+
+		IAvailableObjectsStorage<String> storage = fill(new RoundRobinAvailableObjectsStorage<String>(false, false), 3);
+
+		for (int round = 0; round < 3; round++)
+			for (int i = 0; i < 3; i++) {
+				String polled = storage.poll();
+				assertThat(polled, is(String.valueOf(i)));
+				storage.add(polled);
+			}
+	}
+
+	@Test
+	public void objectIsRemoved_roundSkipsItsSlot() {
+
+		IAvailableObjectsStorage<String> storage = fill(new RoundRobinAvailableObjectsStorage<String>(false, false), 3);
+
+		assertThat(storage.remove("1"), is(true));
+		assertThat(storage.contains("1"), is(false));
+		assertThat(storage.size(), is(2));
+		assertThat(storage.poll(), is("0"));
+		assertThat(storage.poll(), is("2"));
+		assertThat(storage.poll(), is(nullValue()));
+	}
+
+	@Test
+	public void preferringLeastLoaded_objectWithFewestUsersIsGiven() {
+
+		RoundRobinAvailableObjectsStorage<String> storage = new RoundRobinAvailableObjectsStorage<String>(true, false);
+		fill(storage, 3);
+
+		for (int i = 0; i < 3; i++)
+			storage.add(storage.poll());
+		storage.onSharedObjectReleased("1");
+
+		assertThat(storage.getUsersCount("1"), is(0));
+		String polled = storage.poll();
+		assertThat(polled, is("1"));
+		storage.add(polled);
+		assertThat(storage.getUsersCount("1"), is(1));
+	}
+
+	@Test
+	public void sharedPoolItemIsLeastLoadedBalanced_releasedObjectIsGivenNext() throws Exception {
+
+		PoolItemSettings<TestKey> settings = new PoolItemSettings<TestKey>()
+			.setKey(new TestKey(1))
+			.setMarkObtainedObjectAsNotAvailable(false)
+			.setMaxObjectsCount(10);
+		IPoolItem<TestKey, TestResource> poolItem = PoolItemConcurrencyMode.LOCK_BASED.createPoolItem(
+			settings, LoadBalancingStrategy.LEAST_LOADED, ObjectActionsMocks.getNewSuccessful());
+		for (int i = 0; i < 3; i++) {
+			String name = String.valueOf(i);
+			poolItem.tryCreateIdleObject(key -> new TestResource(name));
+		}
+
+		TestResource first = poolItem.obtain(null);
+		poolItem.obtain(null);
+		poolItem.obtain(null);
+		poolItem.releaseShared(first);
+
+		assertThat(poolItem.obtain(null), is(sameInstance(first)));
+	}
+
+	private static IAvailableObjectsStorage<String> fill(IAvailableObjectsStorage<String> storage, int count) {
+
+		for (int i = 0; i < count; i++)
+			storage.add(String.valueOf(i));
+		return storage;
+	}
+}
@@ -0,0 +1,208 @@
+package ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.internal.matchers.LessThan;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.matchers.InvalidOperationExceptionMatcher;
+import ru.urfu.javapools.poolslibrary.matchers.MaxCountReachedExceptionMatcher;
+import ru.urfu.javapools.poolslibrary.mocks.CreateDelegateMocks;
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemConcurrencyMode;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class StripedPoolItemTests {
+
+	private StripedPoolItem<TestKey, TestResource> _poolItem;
+
+	private final PoolItemSettings<TestKey> _settings;
+	private final TestKey _key;
+
+	private IPoolObjectActions<TestResource> _objectActionsMock;
+	private FunctionThatMayThrow<TestKey,TestResource> _createDelegateMock;
+
+	private static final int _STRIPES_COUNT = 4;
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	public StripedPoolItemTests() {
+
+		_key = new TestKey(7);
+
+		_settings = new PoolItemSettings<TestKey>() {{
+			setKey(_key);
+			setMarkObtainedObjectAsNotAvailable(true);
+			setMaxObjectsCount(100);
+		}};
+	}
+
+	@Before
+	public void before() throws Exception {
+
+		_createDelegateMock = CreateDelegateMocks.getNewSerial(1);
+		_objectActionsMock = ObjectActionsMocks.getNewSuccessful();
+
+		_poolItem = new StripedPoolItem<TestKey, TestResource>(_settings, _STRIPES_COUNT,
+															   PoolItemConcurrencyMode.LOCK_BASED,
+															   LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS,
+															   _objectActionsMock);
+	}
+
+	@Test
+	public void objectWasReleasedByAnotherThread_obtainStealsItInsteadOfCreating() throws Exception {
+
+		for (int i = 0; i < 8; i++) {
+			Thread releasingThread = new Thread(() -> {
+				try {
+					_poolItem.release(_poolItem.obtain(_createDelegateMock));
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			releasingThread.start();
+			releasingThread.join();
+		}
+		int createdCount = _poolItem.getAllObjectsCount();
+
+		TestResource obtained = _poolItem.obtain(null);
+
+		assertThat(obtained, notNullValue());
+		assertThat(_poolItem.getAllObjectsCount(), is(createdCount));
+	}
+
+	@Test
+	public void maxCountWasReachedAcrossStripes_obtainThrowsMaxCountReachedException() throws Exception {
+
+		_settings.setMaxObjectsCount(2);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 2; i++)
+			threads.add(new Thread(() -> {
+				try {
+					_poolItem.obtain(_createDelegateMock);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}));
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		_thrown.expect(ObjectsMaxCountReachedException.class);
+		_thrown.expect(new MaxCountReachedExceptionMatcher(_key, 2));
+
+		_poolItem.obtain(_createDelegateMock);
+	}
+
+	@Test
+	public void maxCountWasReached_timedObtainReceivesObjectReleasedByAnotherThread() throws Exception {
+
+		_settings.setMaxObjectsCount(1);
+		TestResource obtainedFirst = _poolItem.obtain(_createDelegateMock);
+		new Thread(() -> {
+			try {
+				Thread.sleep(200);
+				_poolItem.release(obtainedFirst);
+			} catch (Exception e) {}
+		}).start();
+
+		TestResource obtainedSecond = _poolItem.obtain(_createDelegateMock, 5, TimeUnit.SECONDS);
+
+		assertThat(obtainedSecond, is(obtainedFirst));
+		verify(_createDelegateMock, times(1)).apply(_key);
+	}
+
+	@Test
+	public void unmarkingOfStrangeObject_invalidOperationExceptionIsThrown() throws Exception {
+
+		TestResource unknownObject = new TestResource("asd");
+
+		_thrown.expect(InvalidPoolOperationException.class);
+		_thrown.expectMessage("Marking object as available has been declined because " +
+							  "this object wasn't created by pool, it's a stranger");
+		_thrown.expect(new InvalidOperationExceptionMatcher(_key, unknownObject));
+
+		_poolItem.release(unknownObject);
+	}
+
+	@Test
+	public void unmarkingOfObjectSaidToBeKilled_itIsClosedAndFreesCapacity() throws Exception {
+
+		_settings.setMaxObjectsCount(1);
+		TestResource obtained = _poolItem.obtain(_createDelegateMock);
+
+		_poolItem.markObjectForKilling(obtained);
+		_poolItem.release(obtained);
+		TestResource obtainedAfterKilling = _poolItem.obtain(_createDelegateMock);
+
+		assertThat(obtainedAfterKilling, not(obtained));
+		assertThat(_poolItem.getAllObjectsCount(), is(1));
+		verify(_objectActionsMock).close(obtained);
+	}
+
+	@Test
+	public void closeWasCalled_objectsOfAllStripesAreClosed() throws Exception {
+
+		TestResource obtained1 = _poolItem.obtain(_createDelegateMock);
+		TestResource obtained2 = _poolItem.obtain(_createDelegateMock);
+		_poolItem.release(obtained2);
+
+		_poolItem.close();
+
+		verify(_objectActionsMock).close(obtained1);
+		verify(_objectActionsMock).close(obtained2);
+	}
+
+	@Test
+	public void manyThreadsObtainAndRelease_objectIsNeverGivenToTwoUsersAndMaxCountIsKeptGlobally() throws Exception {
+
+		_settings.setMaxObjectsCount(4);
+		ConcurrentHashMap<TestResource, Boolean> objectsInUse = new ConcurrentHashMap<TestResource, Boolean>();
+		AtomicInteger violationsCount = new AtomicInteger();
+		AtomicInteger createdCount = new AtomicInteger();
+		FunctionThatMayThrow<TestKey, TestResource> createDelegate = key -> new TestResource(String.valueOf(createdCount.incrementAndGet()));
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 16; i++)
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 2000; j++) {
+					try {
+						TestResource obtained = _poolItem.obtain(createDelegate);
+						if (objectsInUse.putIfAbsent(obtained, true) != null)
+							violationsCount.incrementAndGet();
+						objectsInUse.remove(obtained);
+						_poolItem.release(obtained);
+					} catch (ObjectsMaxCountReachedException e) {
+					} catch (Exception e) {
+						violationsCount.incrementAndGet();
+					}
+				}
+			}));
+
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		assertThat(violationsCount.get(), is(0));
+		assertThat(_poolItem.getAllObjectsCount(), new LessThan<Integer>(5));
+	}
+}
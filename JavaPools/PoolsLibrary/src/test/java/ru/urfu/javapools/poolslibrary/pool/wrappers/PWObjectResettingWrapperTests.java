@@ -0,0 +1,115 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.objectutilization.ObjectUtilizer;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.LoadBalancingStrategy;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorage;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.PoolItemsStorageSettings;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PWObjectResettingWrapperTests {
+
+	private PWObjectResettingWrapper<TestKey, TestResource> _pool;
+	private PoolItemsStorage<TestKey, TestResource> _storage;
+
+	private final IPoolObjectActions<TestResource> _objectActions = ObjectActionsMocks.getNewSuccessful();
+	private final ObjectUtilizer<TestKey, TestResource> _objectUtilizer = new ObjectUtilizer<TestKey, TestResource>();
+
+	private final TestKey _key = new TestKey(1);
+	private final FunctionThatMayThrow<TestKey, TestResource> _createDelegate = key -> new TestResource("resource");
+
+	@After
+	public void after() throws Exception {
+		if (_pool != null)
+			_pool.close();
+	}
+
+	@Test
+	public void resettingOnRelease_objectIsResetByReleasingThread() throws Exception {
+
+		doReturn(true).when(_objectActions).reset(org.mockito.Mockito.any(TestResource.class));
+		_pool = createPool(new PWObjectResettingSettings());
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+
+		verify(_objectActions).reset(obtained);
+		assertThat(getAvailableObjectsCount(), is(1));
+	}
+
+	@Test
+	public void resettingInBackground_objectIsObtainableOnlyAfterItsResetIsOver() throws Exception {
+
+		CountDownLatch resetIsAllowed = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			resetIsAllowed.await();
+			return true;
+		}).when(_objectActions).reset(org.mockito.Mockito.any(TestResource.class));
+		_pool = createPool(new PWObjectResettingSettings().setResettingMode(ObjectResettingMode.IN_BACKGROUND));
+
+		_pool.release(_key, _pool.obtain(_key, _createDelegate));
+		Thread.sleep(50);
+		assertThat(getAvailableObjectsCount(), is(0));
+
+		resetIsAllowed.countDown();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (getAvailableObjectsCount() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(getAvailableObjectsCount(), is(1));
+	}
+
+	@Test
+	public void resettingOnNextObtain_objectIsReleasedAtOnceAndResetByNextObtainer() throws Exception {
+
+		doReturn(true).when(_objectActions).reset(org.mockito.Mockito.any(TestResource.class));
+		_pool = createPool(new PWObjectResettingSettings().setResettingMode(ObjectResettingMode.ON_NEXT_OBTAIN));
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+
+		verify(_objectActions, never()).reset(org.mockito.Mockito.any(TestResource.class));
+		assertThat(getAvailableObjectsCount(), is(1));
+		assertThat(_pool.obtain(_key, _createDelegate), is(sameInstance(obtained)));
+		verify(_objectActions).reset(obtained);
+	}
+
+	@Test
+	public void deferredResetFails_objectIsClosedAndAnotherOneIsGiven() throws Exception {
+
+		doReturn(false).when(_objectActions).reset(org.mockito.Mockito.any(TestResource.class));
+		_pool = createPool(new PWObjectResettingSettings().setResettingMode(ObjectResettingMode.ON_NEXT_OBTAIN));
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+
+		assertThat(_pool.obtain(_key, _createDelegate), is(not(sameInstance(obtained))));
+		verify(_objectActions).close(obtained);
+	}
+
+	private int getAvailableObjectsCount() {
+		return _storage.getKeyToPoolItem().get(_key).getAvailableObjectsCount();
+	}
+
+	private PWObjectResettingWrapper<TestKey, TestResource> createPool(PWObjectResettingSettings settings) {
+
+		PoolItemsStorageSettings storageSettings = new PoolItemsStorageSettings()
+			.setBalancingStrategy(LoadBalancingStrategy.DISTRIBUTED_AMONG_ALL_OBJECTS)
+			.setAllowOnlyOneUserPerObject(true)
+			.setMaxObjectsCountPerKey(10);
+		_storage = new PoolItemsStorage<TestKey, TestResource>(storageSettings, _objectActions, _objectUtilizer);
+		return new PWObjectResettingWrapper<TestKey, TestResource>(new PWSingleUseEnforcingWrapper<TestKey, TestResource>(_storage),
+																   _objectActions, _objectUtilizer, settings);
+	}
+}
@@ -0,0 +1,240 @@
+package ru.urfu.javapools.poolslibrary.pool.wrappers.magazinecaching;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import ru.urfu.javapools.poolslibrary.controller.InvalidPoolOperationException;
+import ru.urfu.javapools.poolslibrary.function.FunctionThatMayThrow;
+import ru.urfu.javapools.poolslibrary.mocks.ObjectActionsMocks;
+import ru.urfu.javapools.poolslibrary.mocks.PoolMocks;
+import ru.urfu.javapools.poolslibrary.objectactions.IPoolObjectActions;
+import ru.urfu.javapools.poolslibrary.objectutilization.ObjectUtilizer;
+import ru.urfu.javapools.poolslibrary.pool.IPool;
+import ru.urfu.javapools.poolslibrary.pool.basicfunctionality.item.NoAvailableObjectException;
+import ru.urfu.javapools.poolslibrary.testentities.TestKey;
+import ru.urfu.javapools.poolslibrary.testentities.TestResource;
+
+public class PWMagazineCachingWrapperTests {
+
+	private PWMagazineCachingWrapper<TestKey, TestResource> _pool;
+
+	private final TestKey _key = new TestKey(617);
+	private final PWMagazineCachingSettings _settings = new PWMagazineCachingSettings()
+																.setMagazineCapacity(2)
+																.setMaxFullMagazinesInDepotPerKey(1);
+
+	private IPool<TestKey, TestResource> _baseSuccessfulPoolMock;
+	private IPoolObjectActions<TestResource> _objectActionsMock;
+	private ObjectUtilizer<TestKey, TestResource> _objectUtilizer;
+	private FunctionThatMayThrow<TestKey, TestResource> _createDelegate;
+
+	@Rule
+	public ExpectedException _thrown = ExpectedException.none();
+
+	@Before
+	public void before() throws Exception {
+
+		_baseSuccessfulPoolMock = PoolMocks.getNewReturningSerialWithKey();
+		doNothing().when(_baseSuccessfulPoolMock).close();
+		_objectActionsMock = ObjectActionsMocks.getNewSuccessful();
+		_objectUtilizer = new ObjectUtilizer<TestKey, TestResource>();
+		_createDelegate = key -> new TestResource("created");
+
+		_pool = new PWMagazineCachingWrapper<TestKey, TestResource>(_settings, _baseSuccessfulPoolMock,
+																	_objectActionsMock, _objectUtilizer);
+	}
+
+	@Test
+	public void objectWasReleasedBySameThread_obtainReturnsItWithoutCallingBasePool() throws Exception {
+
+		TestResource obtainedFirst = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtainedFirst);
+
+		TestResource obtainedSecond = _pool.obtain(_key, _createDelegate);
+
+		assertThat(obtainedSecond, sameInstance(obtainedFirst));
+		verify(_baseSuccessfulPoolMock, times(1)).obtain(_key, _createDelegate);
+		verify(_baseSuccessfulPoolMock, never()).release(org.mockito.Mockito.any(TestKey.class), org.mockito.Mockito.any(TestResource.class));
+	}
+
+	@Test
+	public void magazineAndDepotAreFull_objectIsReleasedToBasePool() throws Exception {
+
+		TestResource[] obtained = new TestResource[5];
+		for (int i = 0; i < obtained.length; i++)
+			obtained[i] = _pool.obtain(_key, _createDelegate);
+
+		for (TestResource object : obtained)
+			_pool.release(_key, object);
+
+		verify(_baseSuccessfulPoolMock, times(1)).release(_key, obtained[4]);
+		verify(_baseSuccessfulPoolMock, times(1)).release(org.mockito.Mockito.any(TestKey.class), org.mockito.Mockito.any(TestResource.class));
+	}
+
+	@Test
+	public void ownMagazineIsEmpty_objectIsTakenFromDepot() throws Exception {
+
+		TestResource[] obtained = new TestResource[3];
+		for (int i = 0; i < obtained.length; i++)
+			obtained[i] = _pool.obtain(_key, _createDelegate);
+		for (TestResource object : obtained)
+			_pool.release(_key, object);
+
+		for (int i = 0; i < obtained.length; i++)
+			_pool.obtain(_key, _createDelegate);
+
+		verify(_baseSuccessfulPoolMock, times(3)).obtain(_key, _createDelegate);
+	}
+
+	@Test
+	public void cachedObjectWasUtilized_itIsRemovedFromMagazineAndReleasedToBasePool() throws Exception {
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+
+		_objectUtilizer.utilize(_key, obtained, this);
+		TestResource obtainedAfterUtilization = _pool.obtain(_key, _createDelegate);
+
+		verify(_baseSuccessfulPoolMock).release(_key, obtained);
+		assertThat(obtainedAfterUtilization, not(sameInstance(obtained)));
+	}
+
+	@Test
+	public void objectWasUtilizedWhileItWasUsed_itsReleaseGoesToBasePoolAndItIsNotGivenAgain() throws Exception {
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+
+		_objectUtilizer.utilize(_key, obtained, this);
+		_pool.release(_key, obtained);
+		TestResource obtainedAfterRelease = _pool.obtain(_key, _createDelegate);
+
+		verify(_baseSuccessfulPoolMock).release(_key, obtained);
+		assertThat(obtainedAfterRelease, not(sameInstance(obtained)));
+	}
+
+	@Test
+	public void objectWasUtilizedWhileItWasUsedAndReleasedInAnotherThread_itIsNotStolen() throws Exception {
+
+		IPool<TestKey, TestResource> baseNoObjectPoolMock = PoolMocks.getNewThrowingNoObjectException();
+		TestResource killed = new TestResource("killed");
+		doReturn(killed).doThrow(new NoAvailableObjectException(_key)).when(baseNoObjectPoolMock).obtain(_key, null);
+		_pool = new PWMagazineCachingWrapper<TestKey, TestResource>(_settings, baseNoObjectPoolMock,
+																	_objectActionsMock, _objectUtilizer);
+		TestResource obtained = _pool.obtain(_key, null);
+		_objectUtilizer.utilize(_key, obtained, this);
+		releaseInAnotherThread(obtained);
+
+		try {
+			_pool.obtain(_key, null);
+			fail("Killed object mustn't be given again");
+		} catch (NoAvailableObjectException e) {}
+		verify(baseNoObjectPoolMock).release(_key, killed);
+	}
+
+	@Test
+	public void cachedObjectBecameInvalid_itIsReleasedToBasePoolInsteadOfBeingGiven() throws Exception {
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+		obtained.appendValue(ObjectActionsMocks.SUBSTRING_OF_INVALID_OBJECT);
+
+		TestResource obtainedAfterInvalidation = _pool.obtain(_key, _createDelegate);
+
+		verify(_baseSuccessfulPoolMock).release(_key, obtained);
+		assertThat(obtainedAfterInvalidation, not(sameInstance(obtained)));
+	}
+
+	@Test
+	public void basePoolHasNoObject_objectCachedByAnotherThreadIsStolen() throws Exception {
+
+		IPool<TestKey, TestResource> baseNoObjectPoolMock = PoolMocks.getNewThrowingNoObjectException();
+		TestResource cachedByAnotherThread = new TestResource("cached");
+		doReturn(cachedByAnotherThread).doThrow(new NoAvailableObjectException(_key)).when(baseNoObjectPoolMock).obtain(_key, null);
+		_pool = new PWMagazineCachingWrapper<TestKey, TestResource>(_settings, baseNoObjectPoolMock,
+																	_objectActionsMock, _objectUtilizer);
+		releaseInAnotherThread(_pool.obtain(_key, null));
+
+		TestResource obtained = _pool.obtain(_key, null);
+
+		assertThat(obtained, sameInstance(cachedByAnotherThread));
+	}
+
+	@Test
+	public void basePoolHasNoObjectAndNothingIsCached_noAvailableObjectExceptionIsRethrown() throws Exception {
+
+		_pool = new PWMagazineCachingWrapper<TestKey, TestResource>(_settings, PoolMocks.getNewThrowingNoObjectException(),
+																	_objectActionsMock, _objectUtilizer);
+
+		_thrown.expect(NoAvailableObjectException.class);
+
+		_pool.obtain(_key, null);
+	}
+
+	@Test
+	public void sameObjectIsReleasedTwice_invalidOperationExceptionIsThrown() throws Exception {
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+
+		_thrown.expect(InvalidPoolOperationException.class);
+		_thrown.expectMessage("Object has already been released and is waiting in cache");
+
+		_pool.release(_key, obtained);
+	}
+
+	@Test
+	public void objectIsReleasedSecondTimeByAnotherThread_invalidOperationExceptionIsThrown() throws Exception {
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		releaseInAnotherThread(obtained);
+
+		_thrown.expect(InvalidPoolOperationException.class);
+
+		_pool.release(_key, obtained);
+	}
+
+	@Test
+	public void objectNotObtainedFromPoolIsReleased_invalidOperationExceptionIsThrownAndObjectIsNotCached() throws Exception {
+
+		TestResource stranger = new TestResource("stranger");
+		try {
+			_pool.release(_key, stranger);
+			fail();
+		} catch (InvalidPoolOperationException e) {}
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+
+		assertThat(obtained, not(sameInstance(stranger)));
+		verify(_baseSuccessfulPoolMock, never()).release(_key, stranger);
+	}
+
+	@Test
+	public void closeWasCalled_cachedObjectsAreReleasedToBasePoolAndBasePoolIsClosed() throws Exception {
+
+		TestResource obtained = _pool.obtain(_key, _createDelegate);
+		_pool.release(_key, obtained);
+
+		_pool.close();
+
+		verify(_baseSuccessfulPoolMock).release(_key, obtained);
+		verify(_baseSuccessfulPoolMock).close();
+		assertThat(_objectUtilizer.getListenersCount(), is(0));
+	}
+
+	private void releaseInAnotherThread(TestResource object) throws InterruptedException {
+
+		Thread anotherThread = new Thread(() -> {
+			try {
+				_pool.release(_key, object);
+			} catch (Exception e) {}
+		});
+		anotherThread.start();
+		anotherThread.join();
+	}
+}